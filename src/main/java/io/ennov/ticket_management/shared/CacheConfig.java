@@ -0,0 +1,52 @@
+package io.ennov.ticket_management.shared;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Caffeine caches of ticket and user projections by id, sized and expired by {@code spring.cache.caffeine.spec}.
+ * <p>
+ * The caching advice is ordered outside the transactional one, so an eviction only happens once the
+ * change that caused it is committed. A read that loaded the row before the commit may still cache the old
+ * row after the eviction: the {@link EvictAgainCacheManager} evicts again {@code caches.evict-again-after}
+ * later, plus {@code datasource.replicas.max-lag} with read replicas, bounding how long the stale entry
+ * stays.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String TICKETS = "tickets";
+    public static final String USERS = "users";
+
+    /**
+     * Set up from {@code spring.cache} like the auto-configured Caffeine cache manager it replaces.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            CacheProperties cacheProperties,
+            @Value("${caches.evict-again-after:PT1S}") Duration evictAgainAfter,
+            @Value("${datasource.replicas.urls:}") String replicaUrls,
+            @Value("${datasource.replicas.max-lag:PT5S}") Duration maxLag
+    ) {
+        Duration delay = replicaUrls.isBlank() ? evictAgainAfter : evictAgainAfter.plus(maxLag);
+        EvictAgainCacheManager cacheManager = new EvictAgainCacheManager(delay);
+        if (StringUtils.hasText(cacheProperties.getCaffeine().getSpec())) {
+            cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return cacheManager;
+    }
+}
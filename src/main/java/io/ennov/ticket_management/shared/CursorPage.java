@@ -0,0 +1,58 @@
+package io.ennov.ticket_management.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated listing. The cursor is an opaque token wrapping the id of
+ * the last row returned, so fetching the next page is a {@code WHERE id > ? ORDER BY id} index seek
+ * whatever the depth.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+
+    public static final String DEFAULT_LIMIT = "50";
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only tells us that another
+     * page exists and is dropped from the result.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(List.copyOf(items), encodeCursor(idExtractor.apply(items.get(limit - 1))));
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the id wrapped by the cursor, or {@code 0} (before any generated id) when no cursor is given.
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,33 @@
+package io.ennov.ticket_management.shared;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+
+/**
+ * Connection pools of the extra databases, read replicas or ticket shards, set up like the auto-configured
+ * one.
+ */
+public final class DataSourcePools {
+
+    private DataSourcePools() {
+    }
+
+    /**
+     * A Hikari pool of {@code url} with the driver of {@code spring.datasource} and the
+     * {@code spring.datasource.hikari} settings, named {@code name} in its logs and metrics.
+     */
+    public static HikariDataSource pool(DataSourceProperties properties, Binder binder, String url,
+                                        String username, String password, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
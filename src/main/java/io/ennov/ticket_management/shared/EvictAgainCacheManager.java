@@ -0,0 +1,62 @@
+package io.ennov.ticket_management.shared;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine caches evicting a second time, {@code delay} after each eviction. In between, a read that loaded
+ * the row before the change committed, or from a replica yet to replay it, may cache the old row again: the
+ * second eviction drops it rather than leave it until it expires.
+ */
+public class EvictAgainCacheManager extends CaffeineCacheManager {
+
+    private final Executor afterDelay;
+
+    public EvictAgainCacheManager(Duration delay) {
+        this.afterDelay = CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new EvictAgainCache(name, cache, isAllowNullValues());
+    }
+
+    private class EvictAgainCache extends CaffeineCache {
+
+        private EvictAgainCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public void evict(Object key) {
+            super.evict(key);
+            afterDelay.execute(() -> super.evict(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = super.evictIfPresent(key);
+            afterDelay.execute(() -> super.evict(key));
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            afterDelay.execute(super::clear);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean present = super.invalidate();
+            afterDelay.execute(super::clear);
+            return present;
+        }
+    }
+}
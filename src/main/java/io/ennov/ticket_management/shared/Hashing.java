@@ -0,0 +1,32 @@
+package io.ennov.ticket_management.shared;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fast non-cryptographic 64-bit hashes for in-memory probabilistic structures.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 bytes. */
+    public static long fnv1a64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** MurmurHash3 finalizer: spreads every input bit over the whole output. */
+    public static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
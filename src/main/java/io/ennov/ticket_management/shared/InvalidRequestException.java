@@ -0,0 +1,7 @@
+package io.ennov.ticket_management.shared;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
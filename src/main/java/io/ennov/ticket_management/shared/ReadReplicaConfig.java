@@ -0,0 +1,56 @@
+package io.ennov.ticket_management.shared;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource by a {@link ReplicaRoutingDataSource} when
+ * {@code datasource.replicas.urls} lists read replicas of {@code spring.datasource}. The replicas use the
+ * credentials of {@code datasource.replicas.username} / {@code password}, the primary ones by default, and
+ * every pool the {@code spring.datasource.hikari} settings. The {@link CacheConfig} caches then evict again
+ * {@code datasource.replicas.max-lag} later still.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password
+    ) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = DataSourcePools.pool(properties, binder, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), "primary");
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(DataSourcePools.pool(properties, binder, urls.get(i).trim(), username, password, "replica-" + i));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * The datasource of the application: a connection is only taken from the routing datasource when the
+     * first statement runs, once the transaction is known to be read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,136 @@
+package io.ennov.ticket_management.shared;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of the read replicas, in turn, to read-only transactions and connections of the
+ * primary to everything else. Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection is
+ * only chosen once the transaction is marked read-only.
+ * <p>
+ * Replicas failing to give a connection, or their periodic validation, are skipped until they pass the
+ * validation again ({@code datasource.replicas.health-check-interval}); with none left, reads go to the
+ * primary. Once a web request has run a read-write transaction, its later reads stay on the primary as
+ * well, so it reads its own writes whatever the replication lag. Entries another request caches from a
+ * replica lagging behind an eviction are evicted again by the {@link EvictAgainCacheManager}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final String READ_YOUR_WRITES_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readsFromReplica()) {
+            return primary.getConnection();
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.healthy) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException | RuntimeException ex) {
+                    markUnhealthy(replica, ex);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica routing uses the configured credentials");
+    }
+
+    /**
+     * Whether the current transaction may read from a replica: it is read-only and the current request, if
+     * any, has not written yet. Remembers read-write transactions of the request along the way.
+     */
+    private boolean readsFromReplica() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                request.setAttribute(READ_YOUR_WRITES_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return false;
+        }
+        return !replicas.isEmpty()
+                && (request == null || request.getAttribute(READ_YOUR_WRITES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null);
+    }
+
+    /**
+     * Validates a connection of every replica, bringing back those passing and skipping those failing.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:PT10S}")
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection validation failed");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Read replica {} is back", i);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                markUnhealthy(replica, ex);
+            }
+        }
+    }
+
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private void markUnhealthy(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Read replica {} is unavailable, skipped until it passes a health check: {}",
+                    replicas.indexOf(replica), cause.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
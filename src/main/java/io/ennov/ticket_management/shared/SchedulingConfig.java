@@ -0,0 +1,13 @@
+package io.ennov.ticket_management.shared;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on Spring Boot's scheduler, given one thread per job by
+ * {@code spring.task.scheduling.pool.size}: a new job needs one more.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
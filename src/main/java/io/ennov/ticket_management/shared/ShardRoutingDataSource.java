@@ -0,0 +1,94 @@
+package io.ennov.ticket_management.shared;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections of the shard bound to the current thread, shard 0 when none is. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy}, so a transaction takes its connection when its first statement
+ * runs: binding a shard before that statement sends the whole transaction to it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * The datasource of one shard, bypassing the routing.
+     */
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * The shard bound to the current thread, 0 when none is.
+     */
+    public static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Binds {@code shard} to the current thread until {@link #restore} is handed the returned binding.
+     */
+    public static Integer bind(int shard) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} with {@code shard} bound to the current thread.
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = bind(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.ennov.ticket_management.shared;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource by a {@link ShardRoutingDataSource} when
+ * {@code datasource.shards.urls} lists databases to spread the tickets over: {@code spring.datasource} is
+ * shard 0, the listed ones shards 1 to N. The extra shards use the credentials of
+ * {@code datasource.shards.username} / {@code password}, the primary ones by default, and every pool the
+ * {@code spring.datasource.hikari} settings. Shards cannot be combined with read replicas.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.shards.urls:}'.isBlank()")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${datasource.shards.urls}") List<String> urls,
+            @Value("${datasource.shards.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.shards.password:${spring.datasource.password:}}") String password,
+            @Value("${datasource.replicas.urls:}") String replicaUrls
+    ) {
+        if (!replicaUrls.isBlank()) {
+            throw new IllegalStateException("datasource.shards.urls and datasource.replicas.urls cannot be combined");
+        }
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>(urls.size() + 1);
+        shards.add(DataSourcePools.pool(properties, binder, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), "shard-0"));
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(DataSourcePools.pool(properties, binder, urls.get(i).trim(), username, password, "shard-" + (i + 1)));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * The datasource of the application: a connection is only taken from the routing datasource when the
+     * first statement runs, once the shard of the transaction is bound.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
@@ -1,12 +1,19 @@
 package io.ennov.ticket_management.shared.handlerException;
 
 import io.ennov.ticket_management.shared.ConflictAssignException;
+import io.ennov.ticket_management.shared.InvalidRequestException;
 import io.ennov.ticket_management.user.EmailAlreadyExistsException;
+import io.ennov.ticket_management.ticket.DuplicateTicketException;
+import io.ennov.ticket_management.ticket.TicketArchivedException;
+import io.ennov.ticket_management.ticket.TicketController;
 import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.user.User;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import io.ennov.ticket_management.user.UsernameAlreadyExistsException;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.util.Throwables;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,6 +22,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.Date;
+import java.util.Locale;
 
 @RestControllerAdvice
 @Slf4j
@@ -26,12 +34,26 @@ public class ExceptionManager extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(DuplicateTicketException.class)
+    public ResponseEntity<Object> handleDuplicateTicketException(DuplicateTicketException ex, WebRequest request) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(TicketController.DUPLICATE_OF_HEADER, TicketController.joinIds(ex.getDuplicateOf()))
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(TicketNotFoundException.class)
     public ResponseEntity<Object> handleTicketNotFoundException(TicketNotFoundException ex, WebRequest request) {
         log.error(ex.getMessage(), ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(TicketArchivedException.class)
+    public ResponseEntity<Object> handleTicketArchivedException(TicketArchivedException ex, WebRequest request) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<Object> handleUserNotFoundException(UserNotFoundException ex, WebRequest request) {
         log.error(ex.getMessage(), ex);
@@ -50,6 +72,37 @@ public class ExceptionManager extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        log.error(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Unique constraints are the source of truth for usernames and emails: their violations are
+     * recognised by constraint name and answered like the matching domain exception.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException ex, WebRequest request) {
+        String constraintName = violatedConstraintName(ex);
+        if (constraintName.contains(User.USERNAME_UNIQUE)) {
+            return handleUsernameAlreadyExists(new UsernameAlreadyExistsException("Username already exists"), request);
+        }
+        if (constraintName.contains(User.EMAIL_UNIQUE)) {
+            return handleEmailAlreadyExists(new EmailAlreadyExistsException("Email already exists"), request);
+        }
+        return handleAllExceptions(ex, request);
+    }
+
+    private static String violatedConstraintName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return "";
+    }
+
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         return buildResponseEntity(ex, HttpStatus.INTERNAL_SERVER_ERROR, request, "An unexpected error occurred");
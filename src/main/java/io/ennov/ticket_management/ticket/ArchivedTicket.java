@@ -0,0 +1,43 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A closed ticket moved out of the Tickets table by the {@link TicketArchiver}, under the same id. Archived
+ * tickets are read-only: they can be read and deleted, not modified.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "Tickets_Archive")
+public class ArchivedTicket {
+
+    @Id
+    private Long id;
+
+    private String title;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private StatusTicket status;
+
+    /**
+     * Without foreign key, so archived tickets can live on shards not holding the Users table.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+
+    private Long version;
+
+    private Instant closedAt;
+
+    private Instant archivedAt;
+}
@@ -0,0 +1,51 @@
+package io.ennov.ticket_management.ticket;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTicketRepository extends JpaRepository<ArchivedTicket, Long> {
+
+    @Query("select " + TicketRepository.TICKET_DTO + " from ArchivedTicket t where t.id = :id")
+    Optional<TicketDto> findDtoById(Long id);
+
+    @Query("select " + TicketRepository.TICKET_DTO + " from ArchivedTicket t where t.id in :ids")
+    List<TicketDto> findAllDtoByIdIn(Collection<Long> ids);
+
+    @Query("select t.version from ArchivedTicket t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select new io.ennov.ticket_management.ticket.VersionedTicket(t.id, t.title, t.description, t.status, t.version)"
+            + " from ArchivedTicket t where t.id = :id")
+    Optional<VersionedTicket> findVersionedById(Long id);
+
+    /**
+     * Copies the tickets from the Tickets table, which the caller then deletes them from in the same
+     * transaction.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into Tickets_Archive (id, title, description, status, user_id, version, closed_at, archived_at)
+            select id, title, description, status, user_id, version, closed_at, :archivedAt
+            from Tickets where id in :ids""")
+    int copyAllByIdIn(Collection<Long> ids, Instant archivedAt);
+
+    @Modifying
+    @Query("delete from ArchivedTicket t where t.id = :id")
+    int deleteDirectlyById(Long id);
+
+    @Modifying
+    @Query("delete from ArchivedTicket t where t.user.id = :userId")
+    int deleteAllByUserId(Long userId);
+
+    @Modifying
+    @Query("update ArchivedTicket t set t.user = null, t.version = t.version + 1 where t.user.id = :userId")
+    int unassignAllByUserId(Long userId);
+}
@@ -0,0 +1,10 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * Number of tickets held by a user.
+ */
+public record AssigneeCount(
+        Long userId,
+        long count
+) {
+}
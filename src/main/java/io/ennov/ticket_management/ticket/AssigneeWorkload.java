@@ -0,0 +1,12 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * Number of tickets of each status held by a user.
+ */
+public record AssigneeWorkload(
+        Long userId,
+        long pending,
+        long done,
+        long cancel
+) {
+}
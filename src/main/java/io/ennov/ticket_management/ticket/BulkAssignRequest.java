@@ -0,0 +1,9 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+public record BulkAssignRequest(
+        List<Long> ids,
+        Long userId
+) {
+}
@@ -0,0 +1,16 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * What a bulk operation did to one of the requested tickets.
+ */
+public record BulkOutcome(
+        Long id,
+        Result result
+) {
+
+    public enum Result {
+        UPDATED,
+        NOT_FOUND,
+        ALREADY_ASSIGNED
+    }
+}
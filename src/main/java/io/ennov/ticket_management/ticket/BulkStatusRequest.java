@@ -0,0 +1,9 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+public record BulkStatusRequest(
+        List<Long> ids,
+        StatusTicket status
+) {
+}
@@ -0,0 +1,17 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+public class DuplicateTicketException extends RuntimeException {
+
+    private final List<Long> duplicateOf;
+
+    public DuplicateTicketException(List<Long> duplicateOf) {
+        super("Likely duplicate of tickets: " + duplicateOf);
+        this.duplicateOf = List.copyOf(duplicateOf);
+    }
+
+    public List<Long> getDuplicateOf() {
+        return duplicateOf;
+    }
+}
@@ -0,0 +1,13 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+/**
+ * A page of a ticket listing with the facet counts of the whole listing.
+ */
+public record FacetedTicketPage(
+        List<TicketDto> items,
+        String nextCursor,
+        TicketFacets facets
+) {
+}
@@ -0,0 +1,11 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * A ticket whose title looks like the requested one, with the similarity of both titles between 0 and 1.
+ */
+public record SimilarTitle(
+        Long id,
+        String title,
+        double similarity
+) {
+}
@@ -0,0 +1,13 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+/**
+ * The titles most similar to the requested one, most similar first. {@code complete} is false when the
+ * lookup ran out of its latency budget before considering every candidate.
+ */
+public record SimilarTitles(
+        List<SimilarTitle> items,
+        boolean complete
+) {
+}
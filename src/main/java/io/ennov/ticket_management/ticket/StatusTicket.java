@@ -3,5 +3,12 @@ package io.ennov.ticket_management.ticket;
 public enum StatusTicket {
     PENDING,
     DONE,
-    CANCEL
+    CANCEL;
+
+    /**
+     * Whether the ticket is closed, and eventually archived by the {@link TicketArchiver}.
+     */
+    public boolean isClosed() {
+        return this != PENDING;
+    }
 }
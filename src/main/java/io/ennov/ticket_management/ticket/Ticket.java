@@ -4,6 +4,10 @@ import io.ennov.ticket_management.user.User;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -11,11 +15,19 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@SQLDelete(sql = "update Tickets set deleted_at = current_timestamp, version = version + 1 where id = ? and version = ?")
+@SQLRestriction("deleted_at is null")
 @Table(name = "Tickets")
 public class Ticket {
 
+    /**
+     * Name of the foreign key to the users, dropped on the ticket shards not holding the Users table.
+     */
+    public static final String USER_FOREIGN_KEY = "fk_tickets_user";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "Tickets_SEQ", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -24,7 +36,29 @@ public class Ticket {
     @Enumerated(EnumType.STRING)
     private StatusTicket status;
 
-    @ManyToOne
-    @JoinColumn(name = "user_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(name = USER_FOREIGN_KEY))
     private User user;
+
+    @Version
+    private Long version;
+
+    /**
+     * When the ticket last entered a closed status, {@code null} while it is open or for tickets closed
+     * before the closing time was recorded.
+     */
+    private Instant closedAt;
+
+    /**
+     * When the ticket was deleted: non-null marks a tombstone, hidden from every query until the
+     * {@code TombstonePurger} removes its row.
+     */
+    private Instant deletedAt;
+
+    @PrePersist
+    void recordClosing() {
+        if (closedAt == null && status != null && status.isClosed()) {
+            closedAt = Instant.now();
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * Thrown on an attempt to modify an archived ticket, which is read-only.
+ */
+public class TicketArchivedException extends RuntimeException {
+    public TicketArchivedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,115 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves the tickets closed for longer than {@code tickets.archive.min-age}, or closed at an unknown time,
+ * from the Tickets table to the Tickets_Archive one every {@code tickets.archive.interval}, so the scans of
+ * the Tickets table only walk the tickets still worked on.
+ * <p>
+ * Tickets are archived by batches of {@code tickets.archive.batch-size}, lowest ids first, each copied then
+ * deleted in one transaction per shard: a run stopped midway leaves every ticket either live or archived,
+ * and the next run resumes with the tickets left. Archived tickets leave the in-memory indexes and
+ * statistics, which only cover the live tickets.
+ */
+@Slf4j
+@Component
+public class TicketArchiver {
+
+    private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final TicketShards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final TicketStatistics statistics;
+    private final TicketSearchIndex searchIndex;
+    private final TicketTitleTrigramIndex titleIndex;
+    private final TicketDuplicateDetector duplicateDetector;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Counter archived;
+
+    public TicketArchiver(
+            TicketRepository ticketRepository,
+            ArchivedTicketRepository archivedTicketRepository,
+            TicketShards shards,
+            TransactionTemplate transactionTemplate,
+            TicketStatistics statistics,
+            TicketSearchIndex searchIndex,
+            TicketTitleTrigramIndex titleIndex,
+            TicketDuplicateDetector duplicateDetector,
+            MeterRegistry meterRegistry,
+            @Value("${tickets.archive.min-age:P90D}") Duration minAge,
+            @Value("${tickets.archive.batch-size:500}") int batchSize
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("tickets.archive.batch-size must be positive: " + batchSize);
+        }
+        this.ticketRepository = ticketRepository;
+        this.archivedTicketRepository = archivedTicketRepository;
+        this.shards = shards;
+        this.transactionTemplate = transactionTemplate;
+        this.statistics = statistics;
+        this.searchIndex = searchIndex;
+        this.titleIndex = titleIndex;
+        this.duplicateDetector = duplicateDetector;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("tickets.archived")
+                .description("Closed tickets moved to the archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives every ticket closed before now minus {@code tickets.archive.min-age}, batch after batch.
+     *
+     * @return the number of tickets archived
+     */
+    @Scheduled(fixedDelayString = "${tickets.archive.interval:PT1H}",
+            initialDelayString = "${tickets.archive.interval:PT1H}")
+    public synchronized int archive() {
+        Instant cutoff = Instant.now().minus(minAge);
+        int total = 0;
+        List<Long> batch;
+        do {
+            batch = transactionTemplate.execute(status -> shards.<Long>onEachShard(false, () -> archiveBatch(cutoff)));
+            total += batch.size();
+        } while (!batch.isEmpty());
+        if (total > 0) {
+            log.info("Archived {} tickets closed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    /**
+     * Archives the first {@code batchSize} tickets closed before {@code cutoff} on the current shard.
+     *
+     * @return their ids
+     */
+    private List<Long> archiveBatch(Instant cutoff) {
+        List<Long> ids = ticketRepository.lockArchivableIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        List<TicketCount> counts = ticketRepository.countByUserAndStatusByIdIn(ids);
+        archivedTicketRepository.copyAllByIdIn(ids, Instant.now());
+        ticketRepository.deleteAllByIdIn(ids);
+        statistics.changed(counts, List.of());
+        searchIndex.removeAll(ids);
+        titleIndex.removeAll(ids);
+        duplicateDetector.removeAll(ids);
+        AfterCommit.run(() -> archived.increment(ids.size()));
+        return ids;
+    }
+}
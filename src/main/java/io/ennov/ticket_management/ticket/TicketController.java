@@ -1,13 +1,27 @@
 package io.ennov.ticket_management.ticket;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.ennov.ticket_management.shared.AssignedDto;
+import io.ennov.ticket_management.shared.CursorPage;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("tickets")
@@ -16,27 +30,170 @@ import java.util.List;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Ids of the open tickets a new ticket likely duplicates, comma separated.
+     */
+    public static final String DUPLICATE_OF_HEADER = "Duplicate-Of";
+
+    public static String joinIds(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
 
     @PostMapping
     public ResponseEntity<TicketDto> createTicket(
             @RequestBody TicketDto ticketDto
     ) {
-        TicketDto newTicket = ticketService.createTicket(ticketDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newTicket);
+        TicketCreation creation = ticketService.createTicketReportingDuplicates(ticketDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (!creation.duplicateOf().isEmpty()) {
+            response.header(DUPLICATE_OF_HEADER, joinIds(creation.duplicateOf()));
+        }
+        return response.body(creation.ticket());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createTickets(
+            @RequestBody List<TicketDto> ticketDtos
+    ) {
+        List<Long> ids = ticketService.createTickets(ticketDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+    }
+
+    @PutMapping("/bulk/assign")
+    public ResponseEntity<List<BulkOutcome>> assignTickets(
+            @RequestBody BulkAssignRequest request
+    ) {
+        List<BulkOutcome> outcomes = ticketService.assignTickets(request.ids(), request.userId());
+        return ResponseEntity.status(HttpStatus.OK).body(outcomes);
     }
 
+    @PutMapping("/bulk/status")
+    public ResponseEntity<List<BulkOutcome>> updateTicketsStatus(
+            @RequestBody BulkStatusRequest request
+    ) {
+        List<BulkOutcome> outcomes = ticketService.updateTicketsStatus(request.ids(), request.status());
+        return ResponseEntity.status(HttpStatus.OK).body(outcomes);
+    }
+
+    /**
+     * Lists the live tickets only, unless {@code includeArchived=true}.
+     */
     @GetMapping
-    public ResponseEntity<List<TicketDto>> getAllTickets() {
-        List<TicketDto> ticketList = ticketService.findAllTickets();
-        return ResponseEntity.status(HttpStatus.OK).body(ticketList);
+    public ResponseEntity<CursorPage<TicketDto>> getAllTickets(
+            @RequestParam(required = false) StatusTicket status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean unassigned,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPage.DEFAULT_LIMIT) int limit
+    ) {
+        TicketFilter filter = new TicketFilter(status, userId, unassigned);
+        CursorPage<TicketDto> ticketPage = ticketService.findAllTickets(filter, includeArchived, after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(ticketPage);
+    }
+
+    /**
+     * {@code facets=true} adds the counts by status, unassigned and by assignee of the whole filtered
+     * listing to the page. Ignored along with the filter when {@code ids} is given.
+     */
+    @GetMapping(params = {"facets=true", "!ids"})
+    public ResponseEntity<FacetedTicketPage> getAllTicketsWithFacets(
+            @RequestParam(required = false) StatusTicket status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean unassigned,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPage.DEFAULT_LIMIT) int limit
+    ) {
+        TicketFilter filter = new TicketFilter(status, userId, unassigned);
+        FacetedTicketPage ticketPage = ticketService.findAllTicketsWithFacets(filter, includeArchived, after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(ticketPage);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<TicketLookup> getTicketsByIds(
+            @RequestParam List<Long> ids
+    ) {
+        TicketLookup lookup = ticketService.findTicketsByIds(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(lookup);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<TicketLookup> lookupTickets(
+            @RequestBody List<Long> ids
+    ) {
+        TicketLookup lookup = ticketService.findTicketsByIds(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(lookup);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TicketSearchHit>> searchTickets(
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPage.DEFAULT_LIMIT) int limit
+    ) {
+        CursorPage<TicketSearchHit> hits = ticketService.searchTickets(q, after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(hits);
+    }
+
+    @GetMapping("/similar")
+    public ResponseEntity<SimilarTitles> getSimilarTitles(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0.3") double minSimilarity
+    ) {
+        SimilarTitles similarTitles = ticketService.findSimilarTitles(title, limit, minSimilarity);
+        return ResponseEntity.status(HttpStatus.OK).body(similarTitles);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TicketStats> getTicketStats() {
+        TicketStats stats = ticketService.getTicketStats();
+        return ResponseEntity.status(HttpStatus.OK).body(stats);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTickets() {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            ticketService.exportTickets(ticketDto -> writeLine(writer, outputStream, ticketDto));
+            outputStream.flush();
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
+    private void writeLine(ObjectWriter writer, OutputStream outputStream, TicketDto ticketDto) {
+        try {
+            writer.writeValue(outputStream, ticketDto);
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The ETag is the ticket version: an unchanged ticket is answered 304 from the version column alone.
+     * Otherwise the ticket is read with its version, uncached, and sent with that version as ETag, so the
+     * ETag always stands for the body sent with it.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<TicketDto> getTicketById(
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest request,
+            HttpServletResponse response
     ) {
-        TicketDto ticketDto = ticketService.findTicketById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(ticketDto);
+        Optional<Long> version = ticketService.findTicketVersion(id);
+        if (version.isPresent() && request.checkNotModified("\"" + version.get() + "\"")) {
+            return null;
+        }
+        VersionedTicket ticket = ticketService.findVersionedTicketById(id);
+        // Replaces the ETag checkNotModified set, which the ticket may have outdated since
+        response.setHeader(HttpHeaders.ETAG, "\"" + ticket.version() + "\"");
+        return ResponseEntity.status(HttpStatus.OK).body(ticket.toDto());
     }
 
     @PutMapping("/{id}")
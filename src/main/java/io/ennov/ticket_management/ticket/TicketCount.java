@@ -0,0 +1,11 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * Number of tickets held by a user ({@code null} for the unassigned ones) in a status.
+ */
+public record TicketCount(
+        Long userId,
+        StatusTicket status,
+        long count
+) {
+}
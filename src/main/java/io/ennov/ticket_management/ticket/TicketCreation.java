@@ -0,0 +1,12 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+/**
+ * A created ticket, and the open tickets it likely duplicates when duplicate detection flags them.
+ */
+public record TicketCreation(
+        TicketDto ticket,
+        List<Long> duplicateOf
+) {
+}
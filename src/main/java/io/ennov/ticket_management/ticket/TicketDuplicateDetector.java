@@ -0,0 +1,295 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import io.ennov.ticket_management.shared.Hashing;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Spots likely duplicates of a new ticket among the open ({@code PENDING}) ones.
+ * <p>
+ * Each ticket is summarised by a MinHash signature of the word pairs of its title and description, whose
+ * matching positions estimate the Jaccard similarity of two tickets. Signatures are split in
+ * {@value #BANDS} bands of {@value #ROWS} rows, each band hashed to a bucket (locality-sensitive hashing):
+ * tickets sharing a bucket are the only candidates compared, and at most {@value #MAX_BUCKET_SCAN} of each
+ * bucket are, so a lookup costs the same whatever the number of open tickets. The tickets a lookup compares
+ * are recorded as {@code tickets.duplicates.comparisons}.
+ * <p>
+ * {@code tickets.duplicates.mode} turns detection off (the default, nothing is kept in memory), or makes
+ * {@link TicketService} flag or reject the likely duplicates; {@code tickets.duplicates.similarity} is the
+ * estimated similarity from which a ticket is a likely duplicate. Kept up to date like the
+ * {@link TicketSearchIndex}.
+ */
+@Slf4j
+@Component
+public class TicketDuplicateDetector {
+
+    public enum Mode {
+        OFF,
+        FLAG,
+        REJECT
+    }
+
+    static final int BANDS = 32;
+    static final int ROWS = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    static final int MAX_BUCKET_SCAN = 100;
+    static final int MAX_MATCHES = 10;
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed = Hashing.mix64(seed + 0x9e3779b97f4a7c15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final TicketRepository ticketRepository;
+    private final TicketShards shards;
+    private final Mode mode;
+    private final double similarity;
+    private final DistributionSummary comparisons;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> buckets = new ArrayList<>(BANDS);
+
+    public TicketDuplicateDetector(
+            TicketRepository ticketRepository,
+            TicketShards shards,
+            MeterRegistry meterRegistry,
+            @Value("${tickets.duplicates.mode:off}") Mode mode,
+            @Value("${tickets.duplicates.similarity:0.8}") double similarity
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.shards = shards;
+        this.mode = mode;
+        this.similarity = similarity;
+        this.comparisons = DistributionSummary.builder("tickets.duplicates.comparisons")
+                .description("Open tickets compared by a duplicate lookup")
+                .register(meterRegistry);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * MinHash signature of the word pairs (the single word of a one-word text) of the ticket, or
+     * {@code null} when it has no words.
+     */
+    static int[] signature(String title, String description) {
+        List<String> words = new ArrayList<>(TicketSearchIndex.tokenize(title));
+        words.addAll(TicketSearchIndex.tokenize(description));
+        if (words.isEmpty()) {
+            return null;
+        }
+        Set<Long> shingles = new HashSet<>();
+        if (words.size() == 1) {
+            shingles.add(Hashing.fnv1a64(words.get(0)));
+        }
+        for (int i = 0; i + 1 < words.size(); i++) {
+            shingles.add(Hashing.fnv1a64(words.get(i) + ' ' + words.get(i + 1)));
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int hash = (int) Hashing.mix64(shingle ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = Hashing.mix64(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    static double estimatedSimilarity(int[] left, int[] right) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (left[i] == right[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    /**
+     * Open tickets likely duplicated by the given one, most similar first, at most {@value #MAX_MATCHES}.
+     * Always empty when detection is off.
+     */
+    public List<Long> findDuplicates(TicketDto ticketDto) {
+        if (mode == Mode.OFF) {
+            return List.of();
+        }
+        int[] signature = signature(ticketDto.title(), ticketDto.description());
+        if (signature == null) {
+            return List.of();
+        }
+        Map<Long, Double> matches = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> compared = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                Set<Long> bucket = buckets.get(band).getOrDefault(bandKey(signature, band), Set.of());
+                int scanned = 0;
+                for (Long id : bucket) {
+                    if (scanned++ == MAX_BUCKET_SCAN) {
+                        break;
+                    }
+                    if (compared.add(id)) {
+                        double estimate = estimatedSimilarity(signature, signatures.get(id));
+                        if (estimate >= similarity) {
+                            matches.put(id, estimate);
+                        }
+                    }
+                }
+            }
+            comparisons.record(compared.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_MATCHES)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Keeps the ticket as a possible original while it is {@code PENDING}, forgets it otherwise, once the
+     * current transaction commits.
+     */
+    public void index(TicketDto ticketDto) {
+        indexAll(List.of(ticketDto));
+    }
+
+    public void indexAll(List<TicketDto> ticketDtos) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        Map<Long, int[]> open = new HashMap<>();
+        Set<Long> closed = new LinkedHashSet<>();
+        for (TicketDto ticketDto : ticketDtos) {
+            int[] signature = ticketDto.status() == StatusTicket.PENDING
+                    ? signature(ticketDto.title(), ticketDto.description())
+                    : null;
+            if (signature != null) {
+                open.put(ticketDto.id(), signature);
+            } else {
+                closed.add(ticketDto.id());
+            }
+        }
+        AfterCommit.run(() -> write(() -> {
+            closed.forEach(this::remove);
+            open.forEach(this::put);
+        }));
+    }
+
+    /**
+     * Forgets the tickets once the current transaction commits.
+     */
+    public void removeAll(Iterable<Long> ids) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        AfterCommit.run(() -> write(() -> ids.forEach(this::remove)));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index by the open tickets of the Tickets table, unless detection is off.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        write(() -> {
+            signatures.clear();
+            buckets.forEach(Map::clear);
+            shards.forEachShard(() -> {
+                try (Stream<TicketDto> tickets = ticketRepository.streamAllDtoByStatus(StatusTicket.PENDING)) {
+                    tickets.forEach(ticketDto -> {
+                        int[] signature = signature(ticketDto.title(), ticketDto.description());
+                        if (signature != null) {
+                            put(ticketDto.id(), signature);
+                        }
+                    });
+                }
+            });
+        });
+        log.info("Rebuilt ticket duplicate detector with {} open tickets, mode {}", signatures.size(), mode);
+    }
+
+    private void put(Long id, int[] signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            Set<Long> bucket = buckets.get(band).get(key);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.get(band).remove(key);
+            }
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of the tickets matching a listing filter: in total, by status, unassigned and for the
+ * {@value TicketService#MAX_ASSIGNEE_FACETS} users holding the most of them, most first and by id on ties.
+ */
+public record TicketFacets(
+        long total,
+        Map<StatusTicket, Long> byStatus,
+        long unassigned,
+        List<AssigneeCount> byAssignee
+) {
+}
@@ -0,0 +1,21 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.InvalidRequestException;
+
+/**
+ * Optional criteria of a ticket listing; {@code null} / {@code false} components do not filter.
+ */
+public record TicketFilter(
+        StatusTicket status,
+        Long userId,
+        boolean unassigned
+) {
+
+    public static final TicketFilter NONE = new TicketFilter(null, null, false);
+
+    public TicketFilter {
+        if (unassigned && userId != null) {
+            throw new InvalidRequestException("userId and unassigned cannot be combined");
+        }
+    }
+}
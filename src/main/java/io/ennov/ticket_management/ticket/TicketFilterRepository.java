@@ -0,0 +1,29 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+public interface TicketFilterRepository {
+
+    /**
+     * Returns up to {@code limit} tickets matching {@code filter} with an id greater than {@code afterId},
+     * in id order. Only the predicates of the filter components actually set are emitted so each
+     * combination can be served by the matching {@code Tickets} index.
+     */
+    List<TicketDto> findDtoPage(TicketFilter filter, long afterId, int limit);
+
+    /**
+     * Same as {@link #findDtoPage} over the archived tickets.
+     */
+    List<TicketDto> findArchivedDtoPage(TicketFilter filter, long afterId, int limit);
+
+    /**
+     * Counts the tickets matching {@code filter} by assignee and status with one grouped query, the same
+     * predicates as {@link #findDtoPage} selecting the rows.
+     */
+    List<TicketCount> countFacets(TicketFilter filter);
+
+    /**
+     * Same as {@link #countFacets} over the archived tickets.
+     */
+    List<TicketCount> countArchivedFacets(TicketFilter filter);
+}
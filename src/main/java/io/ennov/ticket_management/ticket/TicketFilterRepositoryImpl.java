@@ -0,0 +1,82 @@
+package io.ennov.ticket_management.ticket;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class TicketFilterRepositoryImpl implements TicketFilterRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TicketDto> findDtoPage(TicketFilter filter, long afterId, int limit) {
+        return findDtoPage(Ticket.class, filter, afterId, limit);
+    }
+
+    @Override
+    public List<TicketDto> findArchivedDtoPage(TicketFilter filter, long afterId, int limit) {
+        return findDtoPage(ArchivedTicket.class, filter, afterId, limit);
+    }
+
+    @Override
+    public List<TicketCount> countFacets(TicketFilter filter) {
+        return countFacets(Ticket.class, filter);
+    }
+
+    @Override
+    public List<TicketCount> countArchivedFacets(TicketFilter filter) {
+        return countFacets(ArchivedTicket.class, filter);
+    }
+
+    private List<TicketDto> findDtoPage(Class<?> entity, TicketFilter filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketDto> query = cb.createQuery(TicketDto.class);
+        Root<?> ticket = query.from(entity);
+
+        List<Predicate> predicates = new ArrayList<>(filterPredicates(cb, ticket, filter));
+        predicates.add(cb.greaterThan(ticket.get("id"), afterId));
+
+        query.select(cb.construct(TicketDto.class,
+                        ticket.get("id"), ticket.get("title"), ticket.get("description"), ticket.get("status")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(ticket.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<TicketCount> countFacets(Class<?> entity, TicketFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketCount> query = cb.createQuery(TicketCount.class);
+        Root<?> ticket = query.from(entity);
+
+        query.select(cb.construct(TicketCount.class,
+                        ticket.get("user").get("id"), ticket.get("status"), cb.count(ticket)))
+                .where(filterPredicates(cb, ticket, filter).toArray(Predicate[]::new))
+                .groupBy(ticket.get("user").get("id"), ticket.get("status"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<?> ticket, TicketFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(ticket.get("status"), filter.status()));
+        }
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(ticket.get("user").get("id"), filter.userId()));
+        }
+        if (filter.unassigned()) {
+            predicates.add(cb.isNull(ticket.get("user")));
+        }
+        return predicates;
+    }
+}
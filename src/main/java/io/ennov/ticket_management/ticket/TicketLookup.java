@@ -0,0 +1,12 @@
+package io.ennov.ticket_management.ticket;
+
+import java.util.List;
+
+/**
+ * The tickets found for a list of ids, in request order, and the requested ids matching no ticket.
+ */
+public record TicketLookup(
+        List<TicketDto> items,
+        List<Long> missingIds
+) {
+}
@@ -9,6 +9,9 @@ public interface TicketMapper {
     TicketDto ticketToTicketDto(Ticket ticket);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "closedAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "status", defaultValue = "PENDING")
     Ticket ticketDtoToTicket(TicketDto ticketDto);
 }
\ No newline at end of file
@@ -1,11 +1,245 @@
 package io.ennov.ticket_management.ticket;
 
+import io.ennov.ticket_management.shared.CacheConfig;
+import io.ennov.ticket_management.user.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
-    List<Ticket> findAllByUserId(Long userId);
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketFilterRepository {
+
+    String TICKET_DTO = "new io.ennov.ticket_management.ticket.TicketDto(t.id, t.title, t.description, t.status)";
+
+    /**
+     * Cached by id; every {@link TicketService} method writing a ticket evicts it once committed, and again
+     * shortly after ({@link io.ennov.ticket_management.shared.CacheConfig}).
+     */
+    @Cacheable(cacheNames = CacheConfig.TICKETS, unless = "#result == null")
+    @Query("select " + TICKET_DTO + " from Ticket t where t.id = :id")
+    Optional<TicketDto> findDtoById(Long id);
+
+    /**
+     * Reads the ticket with its assignee, locking its row until the end of the transaction, for writes
+     * that need to know what they replace. Bypasses the cache like any read inside a write.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new io.ennov.ticket_management.ticket.TicketState(t.id, t.title, t.description, t.status, t.user.id)"
+            + " from Ticket t where t.id = :id")
+    Optional<TicketState> lockStateById(Long id);
+
+    @Query("select " + TICKET_DTO + " from Ticket t where t.id in :ids")
+    List<TicketDto> findAllDtoByIdIn(Collection<Long> ids);
+
+    @Query("select " + TICKET_DTO + " from Ticket t where t.user.id = :userId order by t.id")
+    List<TicketDto> findAllDtoByUserId(Long userId);
+
+    @Query("select t.version from Ticket t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * The ticket with its version, for a response sending the version as ETag. Bypasses the cache, whose
+     * entry may be older than the version.
+     */
+    @Query("select new io.ennov.ticket_management.ticket.VersionedTicket(t.id, t.title, t.description, t.status, t.version)"
+            + " from Ticket t where t.id = :id")
+    Optional<VersionedTicket> findVersionedById(Long id);
+
+    /**
+     * One {@code id:version} entry per ticket of the user, in id order: changes whenever
+     * {@link #findAllDtoByUserId} would return something else.
+     */
+    @Query("select concat(t.id, ':', t.version) from Ticket t where t.user.id = :userId order by t.id")
+    List<String> findVersionsByUserId(Long userId);
+
+    /**
+     * Assigns the ticket only if nobody holds it yet, as a single conditional UPDATE so concurrent
+     * assignments cannot both win. Returns the number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Query("update Ticket t set t.user = :user, t.version = t.version + 1 where t.id = :id and t.user is null")
+    int assignIfUnassigned(Long id, User user);
+
+    /**
+     * Overwrites the non-null fields only, setting the closing time to {@code closedAt} when the status
+     * changes. Returns the number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Query("""
+            update Ticket t set
+                t.title = coalesce(:title, t.title),
+                t.description = coalesce(:description, t.description),
+                t.closedAt = case when :status is null or :status = t.status then t.closedAt else :closedAt end,
+                t.status = coalesce(:status, t.status),
+                t.version = t.version + 1
+            where t.id = :id""")
+    int updateById(Long id, String title, String description, StatusTicket status, Instant closedAt);
+
+    /**
+     * Deletes a ticket by turning it into a tombstone, left for the {@code TombstonePurger} to remove.
+     */
+    @Modifying
+    @Query("update Ticket t set t.deletedAt = instant, t.version = t.version + 1 where t.id = :id")
+    int softDeleteById(Long id);
+
+    /**
+     * Physically deletes live tickets, once moved to another shard or to the archive.
+     */
+    @Modifying
+    @Query("delete from Ticket t where t.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    /**
+     * The ids of the first {@code limit} tombstones left before {@code deletedBefore}, which the
+     * {@code deleted_at is null} restriction on {@link Ticket} hides from every other query. A range rather
+     * than {@code deleted_at is not null}, so idx_tickets_deleted serves it.
+     */
+    @Query(nativeQuery = true, value = """
+            select id from Tickets
+            where deleted_at < :deletedBefore
+            order by id
+            fetch first :limit rows only""")
+    List<Long> findTombstoneIds(Instant deletedBefore, int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from Tickets where id in :ids and deleted_at is not null")
+    int purgeAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Inserts a ticket moved from another shard, keeping its id and version.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into Tickets (id, title, description, status, user_id, version, closed_at)
+            values (:id, :title, :description, :status, :userId, :version, :closedAt)""")
+    int insertMoved(Long id, String title, String description, String status, Long userId, Long version, Instant closedAt);
+
+    /**
+     * Reads the tickets of the user, locking their rows until the end of the transaction, for moving them to
+     * another shard.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Ticket t where t.user.id = :userId")
+    List<Ticket> lockAllByUserId(Long userId);
+
+    /**
+     * The shard holding the ticket, from the directory of shard {@value TicketShards#UNASSIGNED_SHARD}.
+     * Empty for a ticket held there.
+     */
+    @Query(nativeQuery = true, value = "select shard from Ticket_Shards where id = :id")
+    Optional<Integer> findShardById(Long id);
+
+    /**
+     * Records in the directory that the tickets, about to be deleted from shard
+     * {@value TicketShards#UNASSIGNED_SHARD}, now live on {@code shard}.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into Ticket_Shards (id, shard) select id, :shard from Tickets where id in :ids")
+    int insertShardsByIdIn(Collection<Long> ids, int shard);
+
+    /**
+     * Drops the directory rows of the tickets, back on shard {@value TicketShards#UNASSIGNED_SHARD} or
+     * physically deleted.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from Ticket_Shards where id in :ids")
+    int deleteShardsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Ticket t set t.deletedAt = instant, t.version = t.version + 1 where t.user.id = :userId")
+    int softDeleteAllByUserId(Long userId);
+
+    @Modifying
+    @Query("update Ticket t set t.user = null, t.version = t.version + 1 where t.user.id = :userId")
+    int unassignAllByUserId(Long userId);
+
+    @Query("select t.id from Ticket t where t.id in :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    /**
+     * Returns those of {@code ids} nobody holds yet, locking their rows until the end of the transaction
+     * so they stay unassigned until {@link #assignAllById} runs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Ticket t where t.id in :ids and t.user is null")
+    List<Long> lockUnassignedIdsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Ticket t set t.user = :user, t.version = t.version + 1 where t.id in :ids and t.user is null")
+    int assignAllById(Collection<Long> ids, User user);
+
+    /**
+     * Sets the status, and the closing time to {@code closedAt} and a new version on the tickets whose status
+     * changes.
+     */
+    @Modifying
+    @Query("""
+            update Ticket t set
+                t.closedAt = case when t.status = :status then t.closedAt else :closedAt end,
+                t.version = case when t.status = :status then t.version else t.version + 1 end,
+                t.status = :status
+            where t.id in :ids""")
+    int updateStatusAllById(Collection<Long> ids, StatusTicket status, Instant closedAt);
+
+    /**
+     * Returns the ids of the first closed tickets closed before {@code cutoff}, or at an unknown time,
+     * locking their rows until the end of the transaction so they cannot be reopened before they are
+     * archived.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select t.id from Ticket t
+            where t.status <> io.ennov.ticket_management.ticket.StatusTicket.PENDING
+                and (t.closedAt is null or t.closedAt < :cutoff)
+            order by t.id""")
+    List<Long> lockArchivableIds(Instant cutoff, Limit limit);
+
+    String TICKET_COUNT = "new io.ennov.ticket_management.ticket.TicketCount(t.user.id, t.status, count(t))";
+
+    @Query("select " + TICKET_COUNT + " from Ticket t group by t.user.id, t.status")
+    List<TicketCount> countByUserAndStatus();
+
+    @Query("select " + TICKET_COUNT + " from Ticket t where t.id in :ids group by t.user.id, t.status")
+    List<TicketCount> countByUserAndStatusByIdIn(Collection<Long> ids);
+
+    @Query("select " + TICKET_COUNT + " from Ticket t where t.user.id in :userIds group by t.user.id, t.status")
+    List<TicketCount> countByUserAndStatusByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * Scrolls over every ticket through a database cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Ticket> streamAllByOrderByIdAsc();
+
+    /**
+     * Scrolls over every ticket projection through a database cursor. Must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + TICKET_DTO + " from Ticket t")
+    Stream<TicketDto> streamAllDto();
+
+    /**
+     * Same as {@link #streamAllDto} for the tickets in the given status.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + TICKET_DTO + " from Ticket t where t.status = :status")
+    Stream<TicketDto> streamAllDtoByStatus(StatusTicket status);
 }
@@ -0,0 +1,10 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * A ticket matching a search, with its relevance: the higher the better.
+ */
+public record TicketSearchHit(
+        TicketDto ticket,
+        double score
+) {
+}
@@ -0,0 +1,206 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index of the ticket titles and descriptions, ranking matches with BM25. Title terms
+ * count {@value #TITLE_WEIGHT} times as much as description ones.
+ * <p>
+ * Built from the Tickets table once the application is ready, then kept up to date by {@link TicketService}
+ * once each write commits. Tickets deleted without the index knowing their id, along with their user, are
+ * dropped by {@link TicketService#searchTickets} when it no longer finds them.
+ */
+@Slf4j
+@Component
+public class TicketSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final TicketRepository ticketRepository;
+    private final TicketShards shards;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    public TicketSearchIndex(TicketRepository ticketRepository, TicketShards shards) {
+        this.ticketRepository = ticketRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Weighted frequency of each term of a ticket, and their sum.
+     */
+    private record Document(Map<String, Integer> terms, int length) {
+    }
+
+    public record Hit(Long id, double score) {
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, at least {@value #MIN_TERM_LENGTH} long.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static Document document(String title, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(title).forEach(term -> terms.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> terms.merge(term, 1, Integer::sum));
+        return new Document(terms, terms.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * Indexes the ticket, replacing what was indexed under its id, once the current transaction commits.
+     */
+    public void index(TicketDto ticketDto) {
+        Document document = document(ticketDto.title(), ticketDto.description());
+        AfterCommit.run(() -> write(() -> put(ticketDto.id(), document)));
+    }
+
+    /**
+     * Indexes the tickets once the current transaction commits.
+     */
+    public void indexAll(List<TicketDto> ticketDtos) {
+        List<Map.Entry<Long, Document>> entries = ticketDtos.stream()
+                .map(ticketDto -> Map.entry(ticketDto.id(), document(ticketDto.title(), ticketDto.description())))
+                .toList();
+        AfterCommit.run(() -> write(() -> entries.forEach(entry -> put(entry.getKey(), entry.getValue()))));
+    }
+
+    /**
+     * Forgets the tickets once the current transaction commits.
+     */
+    public void removeAll(Iterable<Long> ids) {
+        AfterCommit.run(() -> write(() -> ids.forEach(this::remove)));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the tickets matching any term of the query, best first and by id on ties.
+     *
+     * @return the hits ranked {@code offset} to {@code offset + limit - 1}
+     */
+    public List<Hit> search(String query, int offset, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id);
+        PriorityQueue<Hit> top = new PriorityQueue<>(ranking.reversed());
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            double averageLength = (double) totalLength / documents.size();
+            for (String term : queryTerms) {
+                Map<Long, Integer> matches = postings.getOrDefault(term, Map.of());
+                double idf = Math.log(1 + (documents.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+            scores.forEach((id, score) -> {
+                top.add(new Hit(id, score));
+                if (top.size() > offset + limit) {
+                    top.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        return ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+    }
+
+    /**
+     * Replaces the whole index by the current content of the Tickets table. Searches wait for the end of
+     * the rebuild rather than see a partial index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        write(() -> {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            shards.forEachShard(() -> {
+                try (Stream<TicketDto> tickets = ticketRepository.streamAllDto()) {
+                    tickets.forEach(ticketDto -> put(ticketDto.id(), document(ticketDto.title(), ticketDto.description())));
+                }
+            });
+        });
+        log.info("Rebuilt ticket search index with {} tickets and {} terms", documents.size(), postings.size());
+    }
+
+    private void put(Long id, Document document) {
+        remove(id);
+        documents.put(id, document);
+        totalLength += document.length();
+        document.terms().forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        document.terms().keySet().forEach(term -> {
+            Map<Long, Integer> matches = postings.get(term);
+            matches.remove(id);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,97 +1,598 @@
 package io.ennov.ticket_management.ticket;
 
 import io.ennov.ticket_management.shared.AssignedDto;
+import io.ennov.ticket_management.shared.CacheConfig;
 import io.ennov.ticket_management.shared.ConflictAssignException;
-import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
+import io.ennov.ticket_management.user.UserDto;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import io.ennov.ticket_management.user.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TicketService {
 
     private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
     private final UserRepository userRepository;
     private final TicketMapper ticketMapper;
+    private final EntityManager entityManager;
+    private final TicketSearchIndex searchIndex;
+    private final TicketTitleTrigramIndex titleIndex;
+    private final TicketDuplicateDetector duplicateDetector;
+    private final TicketStatistics statistics;
+    private final TicketShards shards;
 
     private static final String USER_NOT_FOUND_MESSAGE = "User not found: ";
     private static final String TICKET_NOT_FOUND_MESSAGE = "Ticket not found: ";
+    private static final String TICKET_ARCHIVED_MESSAGE = "Ticket is archived: ";
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 1_000;
+    private static final int LOOKUP_CHUNK_SIZE = 200;
+    public static final int MAX_SIMILAR_TITLES = 50;
+    public static final int MAX_ASSIGNEE_FACETS = 100;
 
     @Transactional
     public TicketDto createTicket(TicketDto ticketDto) {
+        return createTicketReportingDuplicates(ticketDto).ticket();
+    }
+
+    /**
+     * Creates the ticket after looking for open tickets it likely duplicates with the
+     * {@link TicketDuplicateDetector}: in {@code REJECT} mode they fail the creation, in {@code FLAG} mode they
+     * are returned along with the created ticket.
+     *
+     * @throws DuplicateTicketException in {@code REJECT} mode, when likely duplicates exist
+     */
+    @Transactional
+    public TicketCreation createTicketReportingDuplicates(TicketDto ticketDto) {
+        List<Long> duplicateOf = openDuplicates(ticketDto);
+        if (!duplicateOf.isEmpty() && duplicateDetector.mode() == TicketDuplicateDetector.Mode.REJECT) {
+            throw new DuplicateTicketException(duplicateOf);
+        }
         Ticket ticket = ticketMapper.ticketDtoToTicket(ticketDto);
-        return ticketMapper.ticketToTicketDto(ticketRepository.save(ticket));
+        TicketDto created = ticketMapper.ticketToTicketDto(ticketRepository.save(ticket));
+        searchIndex.index(created);
+        titleIndex.index(created);
+        duplicateDetector.index(created);
+        statistics.created(List.of(created));
+        return new TicketCreation(created, duplicateOf);
     }
 
-    public List<TicketDto> findAllTickets() {
-        return ticketRepository.findAll()
+    /**
+     * The detector candidates still open in the database, in detector order. The others were closed or
+     * deleted behind the detector's back and are forgotten.
+     */
+    private List<Long> openDuplicates(TicketDto ticketDto) {
+        List<Long> candidates = duplicateDetector.findDuplicates(ticketDto);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<Long> open = new HashSet<>();
+        findIndexedDtos(candidates).values().stream()
+                .filter(candidate -> candidate.status() == StatusTicket.PENDING)
+                .forEach(candidate -> open.add(candidate.id()));
+        List<Long> stale = candidates.stream().filter(id -> !open.contains(id)).toList();
+        if (!stale.isEmpty()) {
+            duplicateDetector.removeAll(stale);
+        }
+        return candidates.stream().filter(open::contains).toList();
+    }
+
+    /**
+     * Persists the tickets in one transaction: a failure creates none of them, so the batch can be sent
+     * again as is. They are flushed by chunks of {@value #BATCH_CHUNK_SIZE} as JDBC insert batches with ids
+     * drawn from the pooled sequence, and detached after each chunk so the persistence context stays small.
+     *
+     * @return the generated ids, in request order
+     */
+    @Transactional
+    public List<Long> createTickets(List<TicketDto> ticketDtos) {
+        if (ticketDtos.isEmpty() || ticketDtos.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " tickets: " + ticketDtos.size());
+        }
+        List<Long> ids = new ArrayList<>(ticketDtos.size());
+        for (int from = 0; from < ticketDtos.size(); from += BATCH_CHUNK_SIZE) {
+            ids.addAll(persistChunk(ticketDtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ticketDtos.size()))));
+        }
+        return ids;
+    }
+
+    private List<Long> persistChunk(List<TicketDto> chunk) {
+        List<Ticket> tickets = chunk.stream()
+                .map(ticketMapper::ticketDtoToTicket)
+                .toList();
+        List<Ticket> saved = ticketRepository.saveAll(tickets);
+        List<Long> ids = saved.stream()
+                .map(Ticket::getId)
+                .toList();
+        List<TicketDto> savedDtos = saved.stream().map(ticketMapper::ticketToTicketDto).toList();
+        searchIndex.indexAll(savedDtos);
+        titleIndex.indexAll(savedDtos);
+        duplicateDetector.indexAll(savedDtos);
+        statistics.created(savedDtos);
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDto> findAllTickets(TicketFilter filter, String after, int limit) {
+        return findAllTickets(filter, false, after, limit);
+    }
+
+    /**
+     * Reads the page of every shard that may hold matching tickets, in parallel, and keeps the first rows of
+     * their merge in id order. With {@code includeArchived}, each shard merges the page of its archive too.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDto> findAllTickets(TicketFilter filter, boolean includeArchived, String after, int limit) {
+        CursorPage.checkLimit(limit);
+        long afterId = CursorPage.decodeCursor(after);
+        List<TicketDto> rows = shards.<TicketDto>onShardsMatching(filter, includeArchived, () -> {
+                    List<TicketDto> page = ticketRepository.findDtoPage(filter, afterId, limit + 1);
+                    if (!includeArchived) {
+                        return page;
+                    }
+                    List<TicketDto> merged = new ArrayList<>(page);
+                    merged.addAll(ticketRepository.findArchivedDtoPage(filter, afterId, limit + 1));
+                    return merged;
+                })
                 .stream()
-                .map(ticketMapper::ticketToTicketDto)
-                .collect(Collectors.toCollection(ArrayList::new));
+                .sorted(Comparator.comparing(TicketDto::id))
+                .limit(limit + 1L)
+                .toList();
+        return CursorPage.of(rows, limit, TicketDto::id);
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedTicketPage findAllTicketsWithFacets(TicketFilter filter, String after, int limit) {
+        return findAllTicketsWithFacets(filter, false, after, limit);
+    }
+
+    /**
+     * Same page as {@link #findAllTickets}, with the facet counts of every ticket matching the filter
+     * derived from one grouped count by assignee and status per shard, and per archive with
+     * {@code includeArchived}.
+     */
+    @Transactional(readOnly = true)
+    public FacetedTicketPage findAllTicketsWithFacets(TicketFilter filter, boolean includeArchived, String after, int limit) {
+        CursorPage<TicketDto> page = findAllTickets(filter, includeArchived, after, limit);
+        List<TicketCount> counts = shards.<TicketCount>onShardsMatching(filter, includeArchived, () -> {
+            List<TicketCount> live = ticketRepository.countFacets(filter);
+            if (!includeArchived) {
+                return live;
+            }
+            List<TicketCount> merged = new ArrayList<>(live);
+            merged.addAll(ticketRepository.countArchivedFacets(filter));
+            return merged;
+        });
+        return new FacetedTicketPage(page.items(), page.nextCursor(), facets(counts));
+    }
+
+    private static TicketFacets facets(List<TicketCount> counts) {
+        Map<StatusTicket, Long> byStatus = new EnumMap<>(StatusTicket.class);
+        for (StatusTicket status : StatusTicket.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<Long, Long> byUser = new HashMap<>();
+        long total = 0;
+        long unassigned = 0;
+        for (TicketCount count : counts) {
+            total += count.count();
+            if (count.status() != null) {
+                byStatus.merge(count.status(), count.count(), Long::sum);
+            }
+            if (count.userId() == null) {
+                unassigned += count.count();
+            } else {
+                byUser.merge(count.userId(), count.count(), Long::sum);
+            }
+        }
+        List<AssigneeCount> byAssignee = byUser.entrySet().stream()
+                .map(entry -> new AssigneeCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(AssigneeCount::count).reversed().thenComparing(AssigneeCount::userId))
+                .limit(MAX_ASSIGNEE_FACETS)
+                .toList();
+        return new TicketFacets(total, byStatus, unassigned, byAssignee);
+    }
+
+    /**
+     * Ranks the tickets by relevance to the keywords of {@code query} through the {@link TicketSearchIndex},
+     * then reads the page of tickets with one query. Hits whose ticket is gone are dropped from the index and
+     * replaced by the next ones, so a page is only short when the hits run out. They leave the index on
+     * commit, moving the hits after them up, so the cursor wraps the rank the next hit has then: the offset
+     * plus the hits returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TicketSearchHit> searchTickets(String query, String after, int limit) {
+        CursorPage.checkLimit(limit);
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("A search query is required");
+        }
+        long offset = CursorPage.decodeCursor(after);
+        if (offset < 0 || offset > Integer.MAX_VALUE - CursorPage.MAX_LIMIT - 1) {
+            throw new InvalidRequestException("Invalid cursor: " + after);
+        }
+        List<TicketSearchHit> items = new ArrayList<>(limit);
+        List<Long> gone = new ArrayList<>();
+        boolean more = true;
+        while (more && items.size() < limit) {
+            int wanted = limit - items.size();
+            List<TicketSearchIndex.Hit> hits = searchIndex.search(query, (int) offset + items.size() + gone.size(), wanted + 1);
+            more = hits.size() > wanted;
+            List<TicketSearchIndex.Hit> page = hits.subList(0, Math.min(wanted, hits.size()));
+            Map<Long, TicketDto> found = findIndexedDtos(page.stream().map(TicketSearchIndex.Hit::id).toList());
+            for (TicketSearchIndex.Hit hit : page) {
+                TicketDto ticketDto = found.get(hit.id());
+                if (ticketDto != null) {
+                    items.add(new TicketSearchHit(ticketDto, hit.score()));
+                } else {
+                    gone.add(hit.id());
+                }
+            }
+        }
+        if (!gone.isEmpty()) {
+            searchIndex.removeAll(gone);
+        }
+        String nextCursor = more ? CursorPage.encodeCursor(offset + items.size()) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * The live tickets of {@code ids}, hits of an in-memory index, by id: those missing are dropped from the
+     * index by the caller. Read on every shard at once, a ticket moving between shards may be missed on both,
+     * so the ids missing are read again on the shard the directory of {@link TicketShards} names.
+     */
+    private Map<Long, TicketDto> findIndexedDtos(List<Long> ids) {
+        Map<Long, TicketDto> found = new HashMap<>(ids.size());
+        if (ids.isEmpty()) {
+            return found;
+        }
+        shards.<TicketDto>onEachShard(true, () -> ticketRepository.findAllDtoByIdIn(ids))
+                .forEach(ticketDto -> found.put(ticketDto.id(), ticketDto));
+        if (shards.sharded()) {
+            for (Long id : ids) {
+                if (!found.containsKey(id)) {
+                    shards.findOnShardOfTicket(id, () -> ticketRepository.findAllDtoByIdIn(List.of(id)).stream().findFirst())
+                            .ifPresent(ticketDto -> found.put(id, ticketDto));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the titles looking most like {@code title}, typos included, through the
+     * {@link TicketTitleTrigramIndex}, then reads their current title with one query.
+     */
+    @Transactional(readOnly = true)
+    public SimilarTitles findSimilarTitles(String title, int limit, double minSimilarity) {
+        if (title == null || title.isBlank()) {
+            throw new InvalidRequestException("A title is required");
+        }
+        if (limit < 1 || limit > MAX_SIMILAR_TITLES) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SIMILAR_TITLES + ": " + limit);
+        }
+        if (!(minSimilarity > 0 && minSimilarity <= 1)) {
+            throw new InvalidRequestException("minSimilarity must be greater than 0 and at most 1: " + minSimilarity);
+        }
+        TicketTitleTrigramIndex.Result result = titleIndex.findSimilar(title, limit, minSimilarity);
+        Map<Long, TicketDto> found = findIndexedDtos(result.hits().stream().map(TicketTitleTrigramIndex.Hit::id).toList());
+        List<SimilarTitle> items = new ArrayList<>(result.hits().size());
+        List<Long> gone = new ArrayList<>();
+        for (TicketTitleTrigramIndex.Hit hit : result.hits()) {
+            TicketDto ticketDto = found.get(hit.id());
+            if (ticketDto != null) {
+                items.add(new SimilarTitle(hit.id(), ticketDto.title(), hit.similarity()));
+            } else {
+                gone.add(hit.id());
+            }
+        }
+        if (!gone.isEmpty()) {
+            titleIndex.removeAll(gone);
+        }
+        return new SimilarTitles(items, result.complete());
+    }
+
+    /**
+     * Hands every ticket to {@code sink} in id order, shard after shard when the tickets are sharded,
+     * detaching each entity once mapped so the persistence context stays empty however many rows are
+     * exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportTickets(Consumer<TicketDto> sink) {
+        shards.forEachShard(() -> {
+            try (Stream<Ticket> tickets = ticketRepository.streamAllByOrderByIdAsc()) {
+                tickets.forEach(ticket -> {
+                    sink.accept(ticketMapper.ticketToTicketDto(ticket));
+                    entityManager.detach(ticket);
+                });
+            }
+        });
     }
 
+    /**
+     * Falls back to the archive for a ticket no longer in the Tickets table.
+     */
+    @Transactional(readOnly = true)
     public TicketDto findTicketById(Long id) {
-        Ticket ticket = ticketRepository.findById(id)
+        return shards.findOnShardOfTicket(id, () -> ticketRepository.findDtoById(id).or(() -> archivedTicketRepository.findDtoById(id)))
                 .orElseThrow(() -> new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
-
-        return ticketMapper.ticketToTicketDto(ticket);
     }
 
-    @Transactional
-    public TicketDto modifyTicket(Long id, TicketDto ticketDto) {
-        Ticket existingTicket = ticketRepository.findById(id)
+    /**
+     * Same as {@link #findTicketById}, bypassing the cache, with the version read from the same row: a
+     * response sending the version as ETag then sends the body it stands for.
+     */
+    @Transactional(readOnly = true)
+    public VersionedTicket findVersionedTicketById(Long id) {
+        return shards.findOnShardOfTicket(id, () -> ticketRepository.findVersionedById(id).or(() -> archivedTicketRepository.findVersionedById(id)))
                 .orElseThrow(() -> new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
-        Ticket newTicket = mergeToNewTicket(existingTicket, ticketDto);
-        return ticketMapper.ticketToTicketDto(ticketRepository.save(newTicket));
     }
 
-    private Ticket mergeToNewTicket(Ticket existingTicket, TicketDto ticketDto) {
-        if (ticketDto.title() != null && !ticketDto.title().equals(existingTicket.getTitle())) {
-            existingTicket.setTitle(ticketDto.title());
+    /**
+     * Resolves the distinct ids with one {@code IN} query per {@value #LOOKUP_CHUNK_SIZE} ids, then the ids
+     * not found in the archive the same way, as {@link #findTicketById} does.
+     *
+     * @return the tickets in request order, and the ids matching no ticket
+     */
+    @Transactional(readOnly = true)
+    public TicketLookup findTicketsByIds(List<Long> ids) {
+        List<Long> requested = List.copyOf(checkBulkIds(ids));
+        Map<Long, TicketDto> found = new HashMap<>(requested.size());
+        for (int from = 0; from < requested.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, requested.size()));
+            shards.<TicketDto>onEachShard(true, () -> ticketRepository.findAllDtoByIdIn(chunk))
+                    .forEach(ticketDto -> found.put(ticketDto.id(), ticketDto));
         }
-        if (ticketDto.description() != null && !ticketDto.description().equals(existingTicket.getDescription())) {
-            existingTicket.setDescription(ticketDto.description());
+        List<Long> notLive = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        for (int from = 0; from < notLive.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = notLive.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, notLive.size()));
+            shards.<TicketDto>onEachShard(true, () -> archivedTicketRepository.findAllDtoByIdIn(chunk))
+                    .forEach(ticketDto -> found.put(ticketDto.id(), ticketDto));
         }
-        if (ticketDto.status() != null && !ticketDto.status().equals(existingTicket.getStatus())) {
-            existingTicket.setStatus(ticketDto.status());
+        List<TicketDto> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            TicketDto ticketDto = found.get(id);
+            if (ticketDto != null) {
+                items.add(ticketDto);
+            } else {
+                missingIds.add(id);
+            }
         }
-        return existingTicket;
+        return new TicketLookup(items, missingIds);
     }
 
-    public void deleteTicket(Long id) {
-        ticketRepository.findById(id)
-                .orElseThrow(() -> new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
+    /**
+     * Ticket counts by status and assignee from the {@link TicketStatistics}, without reading the Tickets
+     * table.
+     */
+    public TicketStats getTicketStats() {
+        return statistics.snapshot();
+    }
 
-        ticketRepository.deleteById(id);
+    /**
+     * Reads the version column alone, for conditional requests, falling back to the archive. Empty if the
+     * ticket does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findTicketVersion(Long id) {
+        return shards.findOnShardOfTicket(id, () -> ticketRepository.findVersionById(id).or(() -> archivedTicketRepository.findVersionById(id)));
     }
 
+    /**
+     * Locks and reads the ticket, then overwrites its non-null fields with one UPDATE, skipped along with
+     * the version bump when they hold the current values already, so the ETag stays valid. The locked read
+     * tells the {@link TicketStatistics} which status the ticket leaves.
+     *
+     * @throws TicketArchivedException when the ticket is archived
+     */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TICKETS, key = "#id")
+    public TicketDto modifyTicket(Long id, TicketDto ticketDto) {
+        return shards.onShardOfTicket(id, () -> {
+            TicketState current = ticketRepository.lockStateById(id)
+                    .orElseThrow(() -> archivedTicketRepository.findVersionById(id).isPresent()
+                            ? new TicketArchivedException(TICKET_ARCHIVED_MESSAGE + id)
+                            : new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
+            TicketDto modified = new TicketDto(
+                    id,
+                    coalesce(ticketDto.title(), current.title()),
+                    coalesce(ticketDto.description(), current.description()),
+                    coalesce(ticketDto.status(), current.status())
+            );
+            if (modified.equals(new TicketDto(id, current.title(), current.description(), current.status()))) {
+                return modified;
+            }
+            if (ticketRepository.updateById(id, ticketDto.title(), ticketDto.description(), ticketDto.status(), closedAt(ticketDto.status())) == 0) {
+                throw new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id);
+            }
+            searchIndex.index(modified);
+            titleIndex.index(modified);
+            duplicateDetector.index(modified);
+            statistics.changed(current.userId(), current.status(), current.userId(), modified.status());
+            return modified;
+        });
+    }
+
+    /**
+     * Deletes the ticket, from the archive when it is archived. A live ticket is only turned into a
+     * tombstone, physically removed later by the {@code TombstonePurger}.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TICKETS, key = "#id")
+    public void deleteTicket(Long id) {
+        boolean archived = shards.onShardOfTicket(id, () -> {
+            Optional<TicketState> found = ticketRepository.lockStateById(id);
+            if (found.isEmpty()) {
+                if (archivedTicketRepository.deleteDirectlyById(id) == 0) {
+                    throw new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id);
+                }
+                return true;
+            }
+            TicketState current = found.get();
+            if (ticketRepository.softDeleteById(id) == 0) {
+                throw new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id);
+            }
+            statistics.deleted(current.userId(), current.status());
+            searchIndex.removeAll(List.of(id));
+            titleIndex.removeAll(List.of(id));
+            duplicateDetector.removeAll(List.of(id));
+            return false;
+        });
+        if (archived) {
+            shards.forgetAll(List.of(id));
+        }
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TICKETS, key = "#id")
     public AssignedDto assignTicket(Long id, Long userId) {
-        User user = userRepository.findById(userId)
+        UserDto user = userRepository.findDtoById(userId)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId));
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
-        if (ticket.getUser() != null) {
+        if (ticketRepository.assignIfUnassigned(id, userRepository.getReferenceById(userId)) == 0) {
+            Optional<Boolean> archived = shards.findOnShardOfTicket(id, () -> ticketRepository.findVersionById(id).map(version -> false)
+                    .or(() -> archivedTicketRepository.findVersionById(id).map(version -> true)));
+            if (archived.isEmpty()) {
+                throw new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id);
+            }
+            if (archived.get()) {
+                throw new TicketArchivedException(TICKET_ARCHIVED_MESSAGE + id);
+            }
             throw new ConflictAssignException("Ticket is already assigned to another user");
         }
-        ticket.setUser(user);
-        ticketRepository.save(ticket);
+        TicketDto ticket = ticketRepository.findDtoById(id)
+                .orElseThrow(() -> new TicketNotFoundException(TICKET_NOT_FOUND_MESSAGE + id));
+        statistics.changed(null, ticket.status(), userId, ticket.status());
+        shards.moveToAssignee(List.of(id), userId);
         return mergeToAssignedDto(user, ticket);
     }
 
-    private AssignedDto mergeToAssignedDto(User user, Ticket ticket) {
+    /**
+     * Assigns every unassigned ticket of {@code ids} to the user with one UPDATE. The candidate rows are
+     * locked first, so the outcome reported for each distinct id is exactly what the UPDATE did.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TICKETS, allEntries = true)
+    public List<BulkOutcome> assignTickets(List<Long> ids, Long userId) {
+        Set<Long> requested = checkBulkIds(ids);
+        if (userId == null) {
+            throw new InvalidRequestException("userId is required");
+        }
+        if (userRepository.findDtoById(userId).isEmpty()) {
+            throw new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId);
+        }
+        Set<Long> assignable = new HashSet<>(ticketRepository.lockUnassignedIdsByIdIn(requested));
+        if (!assignable.isEmpty()) {
+            List<TicketCount> before = ticketRepository.countByUserAndStatusByIdIn(assignable);
+            ticketRepository.assignAllById(assignable, userRepository.getReferenceById(userId));
+            statistics.changed(before, before.stream()
+                    .map(count -> new TicketCount(userId, count.status(), count.count()))
+                    .toList());
+            shards.moveToAssignee(assignable, userId);
+        }
+        Set<Long> existing = new HashSet<>(assignable);
+        if (assignable.size() < requested.size()) {
+            List<Long> others = requested.stream().filter(id -> !assignable.contains(id)).toList();
+            existing.addAll(shards.<Long>onEachShard(true, () -> ticketRepository.findIdsByIdIn(others)));
+        }
+        return requested.stream()
+                .map(id -> new BulkOutcome(id, assignable.contains(id) ? BulkOutcome.Result.UPDATED
+                        : existing.contains(id) ? BulkOutcome.Result.ALREADY_ASSIGNED
+                        : BulkOutcome.Result.NOT_FOUND))
+                .toList();
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TICKETS, allEntries = true)
+    public List<BulkOutcome> updateTicketsStatus(List<Long> ids, StatusTicket status) {
+        Set<Long> requested = checkBulkIds(ids);
+        if (status == null) {
+            throw new InvalidRequestException("status is required");
+        }
+        Set<Long> existing = new HashSet<>(shards.<Long>onEachShard(false, () -> updateStatus(requested, status)));
+        if (!existing.isEmpty()) {
+            if (status != StatusTicket.PENDING) {
+                duplicateDetector.removeAll(existing);
+            } else if (duplicateDetector.mode() != TicketDuplicateDetector.Mode.OFF) {
+                duplicateDetector.indexAll(shards.onEachShard(true, () -> ticketRepository.findAllDtoByIdIn(existing)));
+            }
+        }
+        return requested.stream()
+                .map(id -> new BulkOutcome(id, existing.contains(id) ? BulkOutcome.Result.UPDATED
+                        : BulkOutcome.Result.NOT_FOUND))
+                .toList();
+    }
+
+    /**
+     * Updates the status of those of {@code ids} found on the current shard with one UPDATE.
+     *
+     * @return the ids found
+     */
+    private Set<Long> updateStatus(Set<Long> ids, StatusTicket status) {
+        Set<Long> existing = new HashSet<>(ticketRepository.findIdsByIdIn(ids));
+        if (!existing.isEmpty()) {
+            List<TicketCount> before = ticketRepository.countByUserAndStatusByIdIn(existing);
+            ticketRepository.updateStatusAllById(existing, status, closedAt(status));
+            statistics.changed(before, before.stream()
+                    .map(count -> new TicketCount(count.userId(), status, count.count()))
+                    .toList());
+        }
+        return existing;
+    }
+
+    /**
+     * The closing time of a ticket entering {@code status} now.
+     */
+    private static Instant closedAt(StatusTicket status) {
+        return status != null && status.isClosed() ? Instant.now() : null;
+    }
+
+    /**
+     * Same as the SQL {@code coalesce} of {@link TicketRepository#updateById}.
+     */
+    private static <T> T coalesce(T value, T current) {
+        return value != null ? value : current;
+    }
+
+    private Set<Long> checkBulkIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BULK_SIZE || ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("ids must contain between 1 and " + MAX_BULK_SIZE + " ticket ids");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    private AssignedDto mergeToAssignedDto(UserDto user, TicketDto ticket) {
         return new AssignedDto(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                ticketMapper.ticketToTicketDto(ticket)
+                user.id(),
+                user.username(),
+                user.email(),
+                ticket
         );
     }
 }
@@ -0,0 +1,310 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.ShardRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Spreads the Tickets table over the shards of the {@link ShardRoutingDataSource}, when
+ * {@code datasource.shards.urls} configures one, by assignee: the tickets of user {@code u} live on shard
+ * {@code u mod N}, the unassigned ones on shard {@value #UNASSIGNED_SHARD}, along with the Users table.
+ * <p>
+ * Tickets are created unassigned, so shard {@value #UNASSIGNED_SHARD} draws every ticket id from its
+ * sequence and ids stay unique across shards. Assigning a ticket moves it, under the same id, to the shard
+ * of its assignee, and unassigning it moves it back. The Ticket_Shards table of shard
+ * {@value #UNASSIGNED_SHARD} records the shard of every ticket held elsewhere, live, deleted or archived,
+ * and is written in the transaction deleting the tickets moved from shard {@value #UNASSIGNED_SHARD}, or
+ * inserting those moved back. Operations on one ticket read it, then run on the one shard it names, and
+ * again on the shard it names afterwards when a move committed in between took the ticket away. Queries over
+ * every ticket run on each shard in parallel, in transactions of their own, and their results are merged.
+ * <p>
+ * Each shard commits on its own: a write spanning shards is not atomic. A move inserts the tickets on their
+ * new shard and commits before deleting them from the old one, so a failure in between leaves them on both
+ * shards rather than on none. Without shards, every method runs its work in place, in the caller's
+ * transaction.
+ */
+@Slf4j
+@Component
+public class TicketShards implements SmartInitializingSingleton {
+
+    public static final int UNASSIGNED_SHARD = 0;
+
+    private final ShardRoutingDataSource shards;
+    private final TicketRepository ticketRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<Flyway> flyway;
+    private final ExecutorService executor;
+
+    public TicketShards(
+            ObjectProvider<ShardRoutingDataSource> shards,
+            TicketRepository ticketRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<Flyway> flyway
+    ) {
+        this.shards = shards.getIfAvailable();
+        this.ticketRepository = ticketRepository;
+        this.transactionManager = transactionManager;
+        this.flyway = flyway;
+        this.executor = this.shards != null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public boolean sharded() {
+        return shards != null;
+    }
+
+    /**
+     * The shard holding the tickets of the user, {@value #UNASSIGNED_SHARD} for unassigned tickets.
+     */
+    public int shardOfUser(Long userId) {
+        return userId == null || !sharded() ? UNASSIGNED_SHARD : (int) Math.floorMod(userId, (long) shards.shardCount());
+    }
+
+    /**
+     * Runs {@code query} on every shard in parallel and concatenates the results.
+     */
+    public <T> List<T> onEachShard(boolean readOnly, Supplier<? extends Collection<? extends T>> query) {
+        if (!sharded()) {
+            return new ArrayList<>(query.get());
+        }
+        return onShards(allShards(), readOnly, query);
+    }
+
+    /**
+     * Same as {@link #onEachShard}, skipping the shards that cannot hold tickets matching {@code filter}.
+     * Archived tickets unassigned after being archived stay on the shard of their last assignee, so a query
+     * also reading the {@code archived} ones runs on every shard for the unassigned tickets.
+     */
+    public <T> List<T> onShardsMatching(TicketFilter filter, boolean archived, Supplier<? extends Collection<? extends T>> query) {
+        if (!sharded()) {
+            return new ArrayList<>(query.get());
+        }
+        if (filter.userId() != null) {
+            return new ArrayList<>(onShard(shardOfUser(filter.userId()), true, query));
+        }
+        if (filter.unassigned() && !archived) {
+            return new ArrayList<>(onShard(UNASSIGNED_SHARD, true, query));
+        }
+        return onShards(allShards(), true, query);
+    }
+
+    /**
+     * Runs {@code work} on each shard in turn, in the calling thread, for consumers that are not thread-safe.
+     */
+    public void forEachShard(Runnable work) {
+        if (!sharded()) {
+            work.run();
+            return;
+        }
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            onShard(shard, true, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} on the shard holding the tickets of the user.
+     */
+    public <T> T onShardOfUser(Long userId, boolean readOnly, Supplier<T> work) {
+        int shard = shardOfUser(userId);
+        return shard == UNASSIGNED_SHARD ? work.get() : onShard(shard, readOnly, work);
+    }
+
+    /**
+     * The shard holding the ticket, live, deleted or archived, {@value #UNASSIGNED_SHARD} when the directory
+     * has no row for it.
+     */
+    private int shardOfTicket(Long id) {
+        return onShard(UNASSIGNED_SHARD, true, () -> ticketRepository.findShardById(id)).orElse(UNASSIGNED_SHARD);
+    }
+
+    /**
+     * The result of {@code query}, which looks for one ticket, on the shard holding it.
+     */
+    public <T> Optional<T> findOnShardOfTicket(Long id, Supplier<Optional<T>> query) {
+        if (!sharded()) {
+            return query.get();
+        }
+        int shard = shardOfTicket(id);
+        while (true) {
+            Optional<T> found = onShard(shard, true, query);
+            int current = found.isPresent() ? shard : shardOfTicket(id);
+            if (current == shard) {
+                return found;
+            }
+            shard = current;
+        }
+    }
+
+    /**
+     * Runs {@code work}, which writes one ticket, on the shard holding it, in a transaction of its own. A
+     * {@link TicketNotFoundException} thrown while a move took the ticket to another shard runs it again
+     * there.
+     */
+    public <T> T onShardOfTicket(Long id, Supplier<T> work) {
+        if (!sharded()) {
+            return work.get();
+        }
+        int shard = shardOfTicket(id);
+        while (true) {
+            try {
+                return onShard(shard, false, work);
+            } catch (TicketNotFoundException ex) {
+                int current = shardOfTicket(id);
+                if (current == shard) {
+                    throw ex;
+                }
+                shard = current;
+            }
+        }
+    }
+
+    /**
+     * Drops the directory rows of the tickets, physically deleted from their shard.
+     */
+    public void forgetAll(Collection<Long> ids) {
+        if (sharded() && !ids.isEmpty()) {
+            onShard(UNASSIGNED_SHARD, false, () -> ticketRepository.deleteShardsByIdIn(ids));
+        }
+    }
+
+    /**
+     * Moves the tickets, just assigned to the user in the current transaction on shard
+     * {@value #UNASSIGNED_SHARD}, to the shard of the user.
+     */
+    public void moveToAssignee(Collection<Long> ids, Long userId) {
+        int shard = shardOfUser(userId);
+        if (shard != UNASSIGNED_SHARD) {
+            moveTo(shard, ticketRepository.findAllById(ids), false);
+        }
+    }
+
+    /**
+     * Unassigns the tickets of the user, moving them back to shard {@value #UNASSIGNED_SHARD}.
+     *
+     * @return the number of tickets unassigned
+     */
+    public int unassignAllByUserId(Long userId) {
+        int shard = shardOfUser(userId);
+        if (shard == UNASSIGNED_SHARD) {
+            return ticketRepository.unassignAllByUserId(userId);
+        }
+        return onShard(shard, false, () -> {
+            List<Ticket> tickets = ticketRepository.lockAllByUserId(userId);
+            moveTo(UNASSIGNED_SHARD, tickets, true);
+            return tickets.size();
+        });
+    }
+
+    /**
+     * Inserts the tickets, read and locked in the current transaction, on {@code shard} in a transaction of its
+     * own, then deletes them in the current one. The directory of shard {@value #UNASSIGNED_SHARD} changes in
+     * whichever of the two runs there, so it names the new shard once the tickets left the old one.
+     */
+    private void moveTo(int shard, List<Ticket> tickets, boolean unassign) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        List<Long> ids = tickets.stream().map(Ticket::getId).toList();
+        onShard(shard, false, () -> {
+            for (Ticket ticket : tickets) {
+                ticketRepository.insertMoved(
+                        ticket.getId(),
+                        ticket.getTitle(),
+                        ticket.getDescription(),
+                        ticket.getStatus() != null ? ticket.getStatus().name() : null,
+                        unassign || ticket.getUser() == null ? null : ticket.getUser().getId(),
+                        unassign ? ticket.getVersion() + 1 : ticket.getVersion(),
+                        ticket.getClosedAt()
+                );
+            }
+            if (shard == UNASSIGNED_SHARD) {
+                ticketRepository.deleteShardsByIdIn(ids);
+            }
+            return null;
+        });
+        if (shard != UNASSIGNED_SHARD) {
+            ticketRepository.insertShardsByIdIn(ids, shard);
+        }
+        ticketRepository.deleteAllByIdIn(ids);
+    }
+
+    private <T> T onShard(int shard, boolean readOnly, Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(readOnly);
+        return ShardRoutingDataSource.callOn(shard, () -> transaction.execute(status -> work.get()));
+    }
+
+    private <T> List<T> onShards(List<Integer> targets, boolean readOnly, Supplier<? extends Collection<? extends T>> query) {
+        List<CompletableFuture<? extends Collection<? extends T>>> results = targets.stream()
+                .<CompletableFuture<? extends Collection<? extends T>>>map(shard ->
+                        CompletableFuture.supplyAsync(() -> onShard(shard, readOnly, query), executor))
+                .toList();
+        List<T> merged = new ArrayList<>();
+        try {
+            results.forEach(result -> merged.addAll(result.join()));
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return merged;
+    }
+
+    private List<Integer> allShards() {
+        List<Integer> all = new ArrayList<>(shards.shardCount());
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            all.add(shard);
+        }
+        return all;
+    }
+
+    /**
+     * Applies the Flyway migrations, which Spring Boot applies to shard {@value #UNASSIGNED_SHARD}, to the
+     * other shards, unless Flyway is disabled, then drops their foreign key from the tickets to the users, who
+     * only live on shard {@value #UNASSIGNED_SHARD}. Hibernate only validates the schema of shard
+     * {@value #UNASSIGNED_SHARD}: the others, migrated alike, are not checked again.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Flyway migrations = flyway.getIfAvailable();
+        if (!sharded() || migrations == null) {
+            return;
+        }
+        for (int shard = 1; shard < shards.shardCount(); shard++) {
+            DataSource dataSource = shards.shard(shard);
+            Flyway.configure().configuration(migrations.getConfiguration()).dataSource(dataSource).load().migrate();
+            new JdbcTemplate(dataSource).execute("alter table Tickets drop constraint if exists " + Ticket.USER_FOREIGN_KEY);
+            log.info("Migrated the schema of ticket shard {}", shard);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * A ticket with the id of its assignee, {@code null} when nobody holds it.
+ */
+public record TicketState(
+        Long id,
+        String title,
+        String description,
+        StatusTicket status,
+        Long userId
+) {
+
+    public TicketDto toDto() {
+        return new TicketDto(id, title, description, status);
+    }
+}
@@ -0,0 +1,207 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ticket counts by status and by assignee, kept in memory so {@code GET /tickets/stats} never reads the
+ * Tickets table.
+ * <p>
+ * {@link TicketService} and {@code UserService} report each change once its transaction commits. Writes
+ * that bypass them, or commit while a reconciliation runs, make the counters drift: they are replaced by a
+ * grouped count of the Tickets table once the application is ready and every
+ * {@code tickets.stats.reconcile-interval}, and the drift found is logged and counted.
+ */
+@Slf4j
+@Component
+public class TicketStatistics {
+
+    private static final StatusTicket[] STATUSES = StatusTicket.values();
+
+    private final TicketRepository ticketRepository;
+    private final TicketShards shards;
+    private final Counter drift;
+
+    private volatile Counters counters = new Counters();
+    private volatile Instant reconciledAt;
+
+    public TicketStatistics(TicketRepository ticketRepository, TicketShards shards, MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.shards = shards;
+        this.drift = Counter.builder("tickets.stats.drift")
+                .description("Tickets the in-memory statistics were off by when reconciled with the Tickets table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts by status in total, for the unassigned tickets and for each user id.
+     */
+    private static final class Counters {
+
+        private final LongAdder[] byStatus = adders();
+        private final LongAdder[] unassigned = adders();
+        private final Map<Long, LongAdder[]> byUser = new ConcurrentHashMap<>();
+
+        private static LongAdder[] adders() {
+            LongAdder[] adders = new LongAdder[STATUSES.length];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private void add(TicketCount count, long sign) {
+            if (count.status() == null) {
+                return;
+            }
+            int status = count.status().ordinal();
+            byStatus[status].add(sign * count.count());
+            LongAdder[] held = count.userId() == null ? unassigned : byUser.computeIfAbsent(count.userId(), id -> adders());
+            held[status].add(sign * count.count());
+        }
+
+        private long get(Long userId, StatusTicket status) {
+            LongAdder[] held = userId == null ? unassigned : byUser.get(userId);
+            return held == null ? 0 : held[status.ordinal()].sum();
+        }
+    }
+
+    /**
+     * Counts the new tickets, all unassigned, once the current transaction commits.
+     */
+    public void created(List<TicketDto> ticketDtos) {
+        Map<StatusTicket, Long> byStatus = new EnumMap<>(StatusTicket.class);
+        ticketDtos.forEach(ticketDto -> byStatus.merge(ticketDto.status(), 1L, Long::sum));
+        List<TicketCount> added = byStatus.entrySet().stream()
+                .map(entry -> new TicketCount(null, entry.getKey(), entry.getValue()))
+                .toList();
+        changed(List.of(), added);
+    }
+
+    /**
+     * Moves a ticket from the assignee and status it had to the ones it has once the current transaction
+     * commits.
+     */
+    public void changed(Long fromUserId, StatusTicket fromStatus, Long toUserId, StatusTicket toStatus) {
+        if (!(Objects.equals(fromUserId, toUserId) && fromStatus == toStatus)) {
+            changed(List.of(new TicketCount(fromUserId, fromStatus, 1)), List.of(new TicketCount(toUserId, toStatus, 1)));
+        }
+    }
+
+    public void deleted(Long userId, StatusTicket status) {
+        changed(List.of(new TicketCount(userId, status, 1)), List.of());
+    }
+
+    /**
+     * Subtracts the {@code removed} counts and adds the {@code added} ones once the current transaction
+     * commits.
+     */
+    public void changed(List<TicketCount> removed, List<TicketCount> added) {
+        AfterCommit.run(() -> {
+            Counters current = counters;
+            removed.forEach(count -> current.add(count, -1));
+            added.forEach(count -> current.add(count, 1));
+        });
+    }
+
+    /**
+     * Forgets the user once the current transaction commits, along with its tickets when they were deleted
+     * with it, otherwise counting them as unassigned.
+     */
+    public void userDeleted(Long userId, boolean ticketsDeleted) {
+        AfterCommit.run(() -> {
+            Counters current = counters;
+            LongAdder[] held = current.byUser.remove(userId);
+            if (held == null) {
+                return;
+            }
+            for (StatusTicket status : STATUSES) {
+                long count = held[status.ordinal()].sum();
+                if (ticketsDeleted) {
+                    current.byStatus[status.ordinal()].add(-count);
+                } else {
+                    current.unassigned[status.ordinal()].add(count);
+                }
+            }
+        });
+    }
+
+    public TicketStats snapshot() {
+        Counters current = counters;
+        Map<StatusTicket, Long> byStatus = new EnumMap<>(StatusTicket.class);
+        Map<StatusTicket, Long> unassigned = new EnumMap<>(StatusTicket.class);
+        long total = 0;
+        for (StatusTicket status : STATUSES) {
+            long count = current.byStatus[status.ordinal()].sum();
+            byStatus.put(status, count);
+            unassigned.put(status, current.unassigned[status.ordinal()].sum());
+            total += count;
+        }
+        List<AssigneeWorkload> byAssignee = new ArrayList<>();
+        current.byUser.forEach((userId, held) -> {
+            AssigneeWorkload workload = new AssigneeWorkload(userId,
+                    held[StatusTicket.PENDING.ordinal()].sum(),
+                    held[StatusTicket.DONE.ordinal()].sum(),
+                    held[StatusTicket.CANCEL.ordinal()].sum());
+            if (workload.pending() != 0 || workload.done() != 0 || workload.cancel() != 0) {
+                byAssignee.add(workload);
+            }
+        });
+        byAssignee.sort(Comparator.comparing(AssigneeWorkload::userId));
+        return new TicketStats(total, byStatus, unassigned, byAssignee, reconciledAt);
+    }
+
+    /**
+     * Replaces the counters by a grouped count of the Tickets table, logging how far off they were. Changes
+     * committed while the count runs may be lost or counted twice until the next reconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tickets.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${tickets.stats.reconcile-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        Counters previous = counters;
+        boolean first = reconciledAt == null;
+        Counters next = new Counters();
+        shards.<TicketCount>onEachShard(true, ticketRepository::countByUserAndStatus).forEach(count -> next.add(count, 1));
+        counters = next;
+        reconciledAt = Instant.now();
+        if (first) {
+            log.info("Built ticket statistics with {} tickets", snapshot().total());
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>(previous.byUser.keySet());
+        userIds.addAll(next.byUser.keySet());
+        userIds.add(null);
+        long off = 0;
+        for (Long userId : userIds) {
+            for (StatusTicket status : STATUSES) {
+                off += Math.abs(previous.get(userId, status) - next.get(userId, status));
+            }
+        }
+        if (off > 0) {
+            drift.increment(off);
+            log.info("Reconciled ticket statistics, counters were off by {} tickets", off);
+        }
+    }
+}
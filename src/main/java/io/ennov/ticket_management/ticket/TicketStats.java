@@ -0,0 +1,19 @@
+package io.ennov.ticket_management.ticket;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticket counts by status, for the unassigned tickets and for each user holding tickets, by user id.
+ * {@code reconciledAt} is the last time they were checked against the Tickets table, {@code null} before
+ * the first check.
+ */
+public record TicketStats(
+        long total,
+        Map<StatusTicket, Long> byStatus,
+        Map<StatusTicket, Long> unassigned,
+        List<AssigneeWorkload> byAssignee,
+        Instant reconciledAt
+) {
+}
@@ -0,0 +1,244 @@
+package io.ennov.ticket_management.ticket;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index of the ticket titles, finding the titles most similar to a possibly misspelled
+ * one. Similarity is the Jaccard index of the trigram sets, as in PostgreSQL's {@code pg_trgm}: each word
+ * is padded with two spaces in front and one behind, so short words and word starts weigh in.
+ * <p>
+ * A lookup walks the posting lists of its trigrams rarest first. Once fewer lists remain than a title needs
+ * to share with the query to reach the minimum similarity, no new candidate is taken, so the candidates
+ * come from the rarest lists only; their number is recorded as {@code tickets.similar.titles.candidates}.
+ * The walk stops at the latency budget
+ * ({@code tickets.similar-titles.budget}) and the result is then flagged as incomplete.
+ * <p>
+ * Kept up to date like the {@link TicketSearchIndex}, and cleaned the same way by
+ * {@link TicketService#findSimilarTitles}.
+ */
+@Slf4j
+@Component
+public class TicketTitleTrigramIndex {
+
+    private final TicketRepository ticketRepository;
+    private final TicketShards shards;
+    private final long budgetNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> trigramsById = new HashMap<>();
+    private final Timer lookups;
+    private final DistributionSummary candidates;
+    private final Counter truncated;
+
+    public TicketTitleTrigramIndex(
+            TicketRepository ticketRepository,
+            TicketShards shards,
+            MeterRegistry meterRegistry,
+            @Value("${tickets.similar-titles.budget:1ms}") Duration budget
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.shards = shards;
+        this.budgetNanos = budget.toNanos();
+        this.lookups = Timer.builder("tickets.similar.titles.lookups")
+                .description("Time spent ranking similar titles in the trigram index")
+                .register(meterRegistry);
+        this.candidates = DistributionSummary.builder("tickets.similar.titles.candidates")
+                .description("Titles scored by a similar title lookup")
+                .register(meterRegistry);
+        this.truncated = Counter.builder("tickets.similar.titles.truncated")
+                .description("Similar title lookups stopped by the latency budget")
+                .register(meterRegistry);
+    }
+
+    public record Hit(Long id, double similarity) {
+    }
+
+    /**
+     * The best hits, and whether every candidate was considered within the latency budget.
+     */
+    public record Result(List<Hit> hits, boolean complete) {
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Indexes the title of the ticket, replacing the previous one, once the current transaction commits.
+     */
+    public void index(TicketDto ticketDto) {
+        Set<String> trigrams = trigrams(ticketDto.title());
+        AfterCommit.run(() -> write(() -> put(ticketDto.id(), trigrams)));
+    }
+
+    /**
+     * Indexes the titles of the tickets once the current transaction commits.
+     */
+    public void indexAll(List<TicketDto> ticketDtos) {
+        List<Map.Entry<Long, Set<String>>> entries = ticketDtos.stream()
+                .map(ticketDto -> Map.entry(ticketDto.id(), trigrams(ticketDto.title())))
+                .toList();
+        AfterCommit.run(() -> write(() -> entries.forEach(entry -> put(entry.getKey(), entry.getValue()))));
+    }
+
+    /**
+     * Forgets the tickets once the current transaction commits.
+     */
+    public void removeAll(Iterable<Long> ids) {
+        AfterCommit.run(() -> write(() -> ids.forEach(this::remove)));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trigramsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the titles at least {@code minSimilarity} similar to {@code title}, most similar first and by id
+     * on ties.
+     */
+    public Result findSimilar(String title, int limit, double minSimilarity) {
+        long start = System.nanoTime();
+        Set<String> queryTrigrams = trigrams(title);
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::similarity).reversed().thenComparing(Hit::id);
+        PriorityQueue<Hit> top = new PriorityQueue<>(ranking.reversed());
+        boolean complete = true;
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> lists = new ArrayList<>(queryTrigrams.size());
+            for (String trigram : queryTrigrams) {
+                Set<Long> ids = postings.get(trigram);
+                if (ids != null) {
+                    lists.add(ids);
+                }
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            // J = shared / (query + title - shared) <= shared / query
+            int minShared = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.size()));
+            Map<Long, Integer> shared = new HashMap<>();
+            for (int i = 0; i < lists.size(); i++) {
+                if (System.nanoTime() - start > budgetNanos) {
+                    complete = false;
+                    break;
+                }
+                Set<Long> ids = lists.get(i);
+                if (lists.size() - i >= minShared) {
+                    ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+                } else if (shared.size() < ids.size()) {
+                    shared.replaceAll((id, count) -> ids.contains(id) ? count + 1 : count);
+                } else {
+                    ids.forEach(id -> shared.computeIfPresent(id, (candidate, count) -> count + 1));
+                }
+            }
+            candidates.record(shared.size());
+            shared.forEach((id, count) -> {
+                double similarity = (double) count / (queryTrigrams.size() + trigramsById.get(id).size() - count);
+                if (similarity >= minSimilarity) {
+                    top.add(new Hit(id, similarity));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        lookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!complete) {
+            truncated.increment();
+        }
+        return new Result(ranked, complete);
+    }
+
+    /**
+     * Replaces the whole index by the current titles of the Tickets table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        write(() -> {
+            postings.clear();
+            trigramsById.clear();
+            shards.forEachShard(() -> {
+                try (Stream<TicketDto> tickets = ticketRepository.streamAllDto()) {
+                    tickets.forEach(ticketDto -> put(ticketDto.id(), trigrams(ticketDto.title())));
+                }
+            });
+        });
+        log.info("Rebuilt ticket title trigram index with {} titles and {} trigrams", trigramsById.size(), postings.size());
+    }
+
+    private void put(Long id, Set<String> trigrams) {
+        remove(id);
+        trigramsById.put(id, trigrams);
+        trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(id));
+    }
+
+    private void remove(Long id) {
+        Set<String> trigrams = trigramsById.remove(id);
+        if (trigrams == null) {
+            return;
+        }
+        trigrams.forEach(trigram -> {
+            Set<Long> ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.ennov.ticket_management.ticket;
+
+/**
+ * A ticket with its version, read from the same row.
+ */
+public record VersionedTicket(
+        Long id,
+        String title,
+        String description,
+        StatusTicket status,
+        Long version
+) {
+
+    public TicketDto toDto() {
+        return new TicketDto(id, title, description, status);
+    }
+}
@@ -0,0 +1,12 @@
+package io.ennov.ticket_management.user;
+
+/**
+ * What {@link UserService#deleteUser} does with the tickets of the deleted user, set by
+ * {@code users.tickets-on-delete}.
+ */
+public enum TicketsOnDelete {
+    /** The tickets are deleted with the user. */
+    DELETE,
+    /** The tickets are kept, without assignee. */
+    UNASSIGN
+}
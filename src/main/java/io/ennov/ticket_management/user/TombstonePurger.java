@@ -0,0 +1,159 @@
+package io.ennov.ticket_management.user;
+
+import io.ennov.ticket_management.shared.AfterCommit;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Physically removes the tombstones left by the deletion of tickets and users every
+ * {@code tombstones.purge.interval}, so a delete request only costs one UPDATE.
+ * <p>
+ * Tombstones are removed by batches of {@code tombstones.purge.batch-size}, lowest ids first, each in a
+ * transaction of its own, tickets on every shard before users. A user whose tickets still refer to it is
+ * left for a later run. Batches are spaced so that no more than {@code tombstones.purge.rate} rows are
+ * removed per second, keeping the purge from competing with the requests for locks and I/O.
+ */
+@Slf4j
+@Component
+public class TombstonePurger {
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final TicketShards ticketShards;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int rate;
+    private final Counter ticketsPurged;
+    private final Counter usersPurged;
+
+    public TombstonePurger(
+            TicketRepository ticketRepository,
+            UserRepository userRepository,
+            TicketShards ticketShards,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tombstones.purge.batch-size:100}") int batchSize,
+            @Value("${tombstones.purge.rate:500}") int rate
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("tombstones.purge.batch-size must be positive: " + batchSize);
+        }
+        if (rate < 1) {
+            throw new IllegalArgumentException("tombstones.purge.rate must be positive: " + rate);
+        }
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.ticketShards = ticketShards;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.rate = rate;
+        this.ticketsPurged = Counter.builder("tickets.purged")
+                .description("Deleted tickets physically removed")
+                .register(meterRegistry);
+        this.usersPurged = Counter.builder("users.purged")
+                .description("Deleted users physically removed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Removes every tombstone left before the run starts, batch after batch, stopping early when the thread
+     * is interrupted.
+     *
+     * @return the number of rows removed
+     */
+    @Scheduled(fixedDelayString = "${tombstones.purge.interval:PT1M}",
+            initialDelayString = "${tombstones.purge.interval:PT1M}")
+    public synchronized int purge() {
+        Instant start = Instant.now();
+        Pacer pacer = new Pacer(rate);
+        int tickets = drain(pacer, () -> transactionTemplate.execute(status -> {
+            List<Long> purged = ticketShards.<Long>onEachShard(false, () -> purgeTicketBatch(start));
+            ticketShards.forgetAll(purged);
+            return purged.size();
+        }));
+        int users = drain(pacer, () -> transactionTemplate.execute(status -> purgeUserBatch(start)));
+        if (tickets + users > 0) {
+            log.info("Purged {} deleted tickets and {} deleted users", tickets, users);
+        }
+        return tickets + users;
+    }
+
+    private int drain(Pacer pacer, IntSupplier batch) {
+        int total = 0;
+        int purged;
+        do {
+            purged = batch.getAsInt();
+            total += purged;
+        } while (purged > 0 && pacer.await(purged));
+        return total;
+    }
+
+    /**
+     * @return the ids of the tickets removed, whose shard {@link TicketShards} then forgets
+     */
+    private List<Long> purgeTicketBatch(Instant deletedBefore) {
+        List<Long> ids = ticketRepository.findTombstoneIds(deletedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        int purged = ticketRepository.purgeAllByIdIn(ids);
+        AfterCommit.run(() -> ticketsPurged.increment(purged));
+        return ids;
+    }
+
+    private int purgeUserBatch(Instant deletedBefore) {
+        List<Long> ids = userRepository.findTombstoneIds(deletedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int purged = userRepository.purgeAllByIdIn(ids);
+        AfterCommit.run(() -> usersPurged.increment(purged));
+        return purged;
+    }
+
+    /**
+     * Holds a run to {@code rate} rows per second, on average since its start.
+     */
+    private static final class Pacer {
+
+        private final long start = System.nanoTime();
+        private final double nanosPerRow;
+        private long rows;
+
+        Pacer(int rate) {
+            this.nanosPerRow = 1e9 / rate;
+        }
+
+        /**
+         * Accounts for {@code purged} more rows and sleeps until they fit in the rate.
+         *
+         * @return false when interrupted while sleeping
+         */
+        boolean await(int purged) {
+            rows += purged;
+            long wait = start + (long) (rows * nanosPerRow) - System.nanoTime();
+            if (wait <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(wait));
+                return true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
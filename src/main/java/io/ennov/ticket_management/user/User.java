@@ -4,7 +4,10 @@ import io.ennov.ticket_management.ticket.Ticket;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,19 +17,37 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "Users")
+@SQLDelete(sql = "update Users set deleted_at = current_timestamp, username = null, email = null, version = version + 1 where id = ? and version = ?")
+@SQLRestriction("deleted_at is null")
+@Table(name = "Users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_UNIQUE, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_UNIQUE, columnNames = "email")
+})
 public class User {
 
+    /**
+     * Names of the unique constraints, translated back into domain exceptions by the ExceptionManager.
+     */
+    public static final String USERNAME_UNIQUE = "uk_users_username";
+    public static final String EMAIL_UNIQUE = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
-    @Column(unique = true)
     private String username;
 
-    @Column(unique = true)
     private String email;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Ticket> ticketList = new ArrayList<>();
+
+    @Version
+    private Long version;
+
+    /**
+     * When the user was deleted: non-null marks a tombstone, hidden from every query until the
+     * {@code TombstonePurger} removes its row.
+     */
+    private Instant deletedAt;
 }
@@ -1,5 +1,6 @@
 package io.ennov.ticket_management.user;
 
+import io.ennov.ticket_management.shared.CursorPage;
 import io.ennov.ticket_management.ticket.TicketDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -7,8 +8,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("users")
@@ -26,10 +29,19 @@ public class UserController {
         return new ResponseEntity<>(newUser, HttpStatus.CREATED);
     }
 
+    /**
+     * The ETag digests the ids and versions of the user's tickets, so an unchanged list is answered 304
+     * without loading it.
+     */
     @GetMapping("/{id}/ticket")
     public ResponseEntity<List<TicketDto>> getUserById(
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest request
     ) {
+        Optional<String> version = userService.findTicketListVersion(id);
+        if (version.isPresent() && request.checkNotModified("\"" + version.get() + "\"")) {
+            return null;
+        }
         List<TicketDto> ticketList = userService.findTicketByUser(id);
         return new ResponseEntity<>(ticketList, HttpStatus.OK);
     }
@@ -40,6 +52,15 @@ public class UserController {
         return new ResponseEntity<>(userList, HttpStatus.OK);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPage<UserSummaryDto>> getUserSummaries(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPage.DEFAULT_LIMIT) int limit
+    ) {
+        CursorPage<UserSummaryDto> summaryPage = userService.findUserSummaries(after, limit);
+        return new ResponseEntity<>(summaryPage, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> updateUser(
             @PathVariable Long id,
@@ -9,6 +9,8 @@ public interface UserMapper {
     UserDto userToUserDto(User user);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     User userDtoToUser(UserDto dto);
 }
 
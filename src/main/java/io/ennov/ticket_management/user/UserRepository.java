@@ -1,11 +1,115 @@
 package io.ennov.ticket_management.user;
 
+import io.ennov.ticket_management.shared.CacheConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Cached by id; {@link UserService} evicts it when the user is modified or deleted, and again shortly after
+     * ({@link CacheConfig}).
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    @Query("select new io.ennov.ticket_management.user.UserDto(u.id, u.username, u.email) from User u where u.id = :id")
+    Optional<UserDto> findDtoById(Long id);
+
+    /**
+     * Same as {@link #findDtoById} without the cache, for reading back a user inside the transaction
+     * writing it: its cache entry is only evicted once that transaction commits.
+     */
+    @Query("select new io.ennov.ticket_management.user.UserDto(u.id, u.username, u.email) from User u where u.id = :id")
+    Optional<UserDto> findCurrentDtoById(Long id);
+
+    /**
+     * Overwrites the non-null fields only, leaving the row and its version alone when they hold the current
+     * values already. Returns the number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Query("""
+            update User u set
+                u.username = coalesce(:username, u.username),
+                u.email = coalesce(:email, u.email),
+                u.version = u.version + 1
+            where u.id = :id
+                and (u.username is distinct from coalesce(:username, u.username)
+                    or u.email is distinct from coalesce(:email, u.email))""")
+    int updateById(Long id, String username, String email);
+
+    /**
+     * Deletes a user by turning it into a tombstone, left for the {@code TombstonePurger} to remove. The
+     * username and email are cleared so they can be taken again at once.
+     */
+    @Modifying
+    @Query("""
+            update User u set
+                u.deletedAt = instant,
+                u.username = null,
+                u.email = null,
+                u.version = u.version + 1
+            where u.id = :id""")
+    int softDeleteById(Long id);
+
+    /**
+     * The ids of the first {@code limit} tombstones left before {@code deletedBefore} that no ticket refers
+     * to any more, which the {@code deleted_at is null} restriction on {@link User} hides from every other
+     * query. A range rather than {@code deleted_at is not null}, so idx_users_deleted serves it.
+     */
+    @Query(nativeQuery = true, value = """
+            select u.id from Users u
+            where u.deleted_at < :deletedBefore
+              and not exists (select 1 from Tickets t where t.user_id = u.id)
+            order by u.id
+            fetch first :limit rows only""")
+    List<Long> findTombstoneIds(Instant deletedBefore, int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from Users where id in :ids and deleted_at is not null")
+    int purgeAllByIdIn(Collection<Long> ids);
+
+    /**
+     * One grouped query over users and their tickets, never loading either as entities.
+     */
+    @Query("""
+            select new io.ennov.ticket_management.user.UserSummaryDto(u.id, u.username, u.email,
+                sum(case when t.status = io.ennov.ticket_management.ticket.StatusTicket.PENDING then 1 else 0 end),
+                sum(case when t.status = io.ennov.ticket_management.ticket.StatusTicket.DONE then 1 else 0 end),
+                sum(case when t.status = io.ennov.ticket_management.ticket.StatusTicket.CANCEL then 1 else 0 end))
+            from User u left join u.ticketList t
+            where u.id > :afterId
+            group by u.id, u.username, u.email
+            order by u.id""")
+    List<UserSummaryDto> findSummaryPage(long afterId, Limit limit);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Scrolls over every username through a database cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Scrolls over every email through a database cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
 }
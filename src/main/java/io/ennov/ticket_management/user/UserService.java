@@ -1,14 +1,30 @@
 package io.ennov.ticket_management.user;
 
-import io.ennov.ticket_management.ticket.TicketMapper;
+import io.ennov.ticket_management.shared.CacheConfig;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketCount;
 import io.ennov.ticket_management.ticket.TicketDto;
 import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketStatistics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,16 +32,28 @@ import java.util.stream.Collectors;
 public class UserService {
     private final UserRepository userRepository;
     private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
     private final UserMapper userMapper;
-    private final TicketMapper ticketMapper;
+    private final UserUniquenessFilter uniquenessFilter;
+    private final TicketStatistics ticketStatistics;
+    private final TicketShards ticketShards;
+
+    @Value("${users.tickets-on-delete:delete}")
+    private TicketsOnDelete ticketsOnDelete = TicketsOnDelete.DELETE;
 
     private static final String USER_NOT_FOUND_MESSAGE = "User not found: ";
 
+    /**
+     * The unique constraints on username and email reject duplicates, even concurrent ones, and the
+     * ExceptionManager turns the violation into a 409. The pre-checks only answer known duplicates
+     * early, and cost no query for the usual new value thanks to the {@link UserUniquenessFilter}.
+     */
     @Transactional
     public UserDto createUser(UserDto dto) {
         validateNewUser(dto);
         User user = userMapper.userDtoToUser(dto);
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
+        uniquenessFilter.register(savedUser.getUsername(), savedUser.getEmail());
         return userMapper.userToUserDto(savedUser);
     }
 
@@ -35,31 +63,52 @@ public class UserService {
     }
 
     void emailExists(String email) {
+        if (!uniquenessFilter.mightContainEmail(email)) {
+            return;
+        }
         if (userRepository.existsByEmail(email)) {
             throw new EmailAlreadyExistsException("Email already exists: " + email);
         }
+        uniquenessFilter.emailFalsePositive();
     }
 
     void usernameExists(String username) {
+        if (!uniquenessFilter.mightContainUsername(username)) {
+            return;
+        }
         if (userRepository.existsByUsername(username)) {
             throw new UsernameAlreadyExistsException("Username already exists: " + username);
         }
+        uniquenessFilter.usernameFalsePositive();
     }
 
+    @Transactional(readOnly = true)
     public List<TicketDto> findTicketByUser(Long userId) {
         verifiedUser(userId);
 
-        return ticketRepository.findAllByUserId(userId)
-                .stream()
-                .map(ticketMapper::ticketToTicketDto)
-                .collect(Collectors.toCollection(ArrayList::new));
+        return ticketShards.onShardOfUser(userId, true, () -> ticketRepository.findAllDtoByUserId(userId));
+    }
+
+    /**
+     * Digest of the ids and versions of the user's tickets, for conditional requests: it changes whenever
+     * {@link #findTicketByUser} would return something else. Empty if the user does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findTicketListVersion(Long userId) {
+        if (userRepository.findDtoById(userId).isEmpty()) {
+            return Optional.empty();
+        }
+        String versions = String.join(",", ticketShards.onShardOfUser(userId, true, () -> ticketRepository.findVersionsByUserId(userId)));
+        return Optional.of(DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)));
     }
 
     private void verifiedUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId));
+        if (userRepository.findDtoById(userId).isEmpty()) {
+            throw new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId);
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> findAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -67,28 +116,81 @@ public class UserService {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    public UserDto modifyUser(Long userId, UserDto userDto) {
-        User existingUser = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId));
-        User newUser = mergeToNewUser(existingUser, userDto);
-        userRepository.save(newUser);
-        return userMapper.userToUserDto(newUser);
+    /**
+     * One grouped query over the users and their tickets. When the tickets are sharded, it only counts those
+     * of shard {@value TicketShards#UNASSIGNED_SHARD}: the users of the page then get the counts of every
+     * shard, added up, instead.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummaryDto> findUserSummaries(String after, int limit) {
+        CursorPage.checkLimit(limit);
+        List<UserSummaryDto> rows = userRepository.findSummaryPage(CursorPage.decodeCursor(after), Limit.of(limit + 1));
+        if (ticketShards.sharded() && !rows.isEmpty()) {
+            rows = withCountsOfEachShard(rows);
+        }
+        return CursorPage.of(rows, limit, UserSummaryDto::id);
     }
 
-    private User mergeToNewUser(User existingUser, UserDto userDto) {
-        if (userDto.username() != null && !existingUser.getUsername().equals(userDto.username())) {
-            usernameExists(userDto.username());
-            existingUser.setUsername(userDto.username());
-        }
-        if (userDto.email() != null && !existingUser.getEmail().equals(userDto.email())) {
-            emailExists(userDto.email());
-            existingUser.setEmail(userDto.email());
+    private List<UserSummaryDto> withCountsOfEachShard(List<UserSummaryDto> rows) {
+        List<Long> userIds = rows.stream().map(UserSummaryDto::id).toList();
+        Map<Long, Map<StatusTicket, Long>> counts = new HashMap<>(userIds.size());
+        ticketShards.<TicketCount>onEachShard(true, () -> ticketRepository.countByUserAndStatusByUserIdIn(userIds))
+                .forEach(count -> counts.computeIfAbsent(count.userId(), userId -> new EnumMap<>(StatusTicket.class))
+                        .merge(count.status(), count.count(), Long::sum));
+        return rows.stream()
+                .map(row -> {
+                    Map<StatusTicket, Long> byStatus = counts.getOrDefault(row.id(), Map.of());
+                    return new UserSummaryDto(row.id(), row.username(), row.email(),
+                            byStatus.getOrDefault(StatusTicket.PENDING, 0L),
+                            byStatus.getOrDefault(StatusTicket.DONE, 0L),
+                            byStatus.getOrDefault(StatusTicket.CANCEL, 0L));
+                })
+                .toList();
+    }
+
+    /**
+     * One UPDATE of the non-null fields, which changes nothing when they hold the current values already;
+     * a username or email taken by another user violates its unique constraint, as in {@link #createUser}.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserDto modifyUser(Long userId, UserDto userDto) {
+        boolean updated = userRepository.updateById(userId, userDto.username(), userDto.email()) > 0;
+        UserDto modified = userRepository.findCurrentDtoById(userId)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId));
+        if (updated) {
+            uniquenessFilter.register(userDto.username(), userDto.email());
+            uniquenessFilter.markStale((userDto.username() != null ? 1 : 0) + (userDto.email() != null ? 1 : 0));
         }
-        return existingUser;
+        return modified;
     }
 
+    /**
+     * Deletes, or unassigns according to {@code users.tickets-on-delete}, the user's tickets then deletes the
+     * user, one statement each whatever the number of tickets: the {@code ticketList} cascade would load and
+     * delete them one by one. The whole ticket cache is evicted since the tickets are not known by id.
+     * When the tickets are sharded, those of the user are deleted, or moved back to the shard of the
+     * unassigned tickets, before the user is, in transactions of their own. Archived tickets are deleted or
+     * unassigned alike, where they are. The user and its live tickets are only turned into tombstones,
+     * physically removed later by the {@code TombstonePurger}.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.TICKETS, allEntries = true)
+    })
     public void deleteUser(Long userId) {
-        verifiedUser(userId);
-        userRepository.deleteById(userId);
+        if (ticketsOnDelete == TicketsOnDelete.UNASSIGN) {
+            ticketShards.unassignAllByUserId(userId);
+            ticketShards.onShardOfUser(userId, false, () -> archivedTicketRepository.unassignAllByUserId(userId));
+        } else {
+            ticketShards.onShardOfUser(userId, false, () ->
+                    ticketRepository.softDeleteAllByUserId(userId) + archivedTicketRepository.deleteAllByUserId(userId));
+        }
+        if (userRepository.softDeleteById(userId) == 0) {
+            throw new UserNotFoundException(USER_NOT_FOUND_MESSAGE + userId);
+        }
+        uniquenessFilter.markStale(2);
+        ticketStatistics.userDeleted(userId, ticketsOnDelete == TicketsOnDelete.DELETE);
     }
 }
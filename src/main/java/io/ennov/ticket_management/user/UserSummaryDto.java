@@ -0,0 +1,14 @@
+package io.ennov.ticket_management.user;
+
+/**
+ * A user with the number of tickets it holds in each status.
+ */
+public record UserSummaryDto(
+        Long id,
+        String username,
+        String email,
+        long pending,
+        long done,
+        long cancel
+) {
+}
@@ -0,0 +1,174 @@
+package io.ennov.ticket_management.user;
+
+import io.ennov.ticket_management.shared.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of every username and email, letting the uniqueness checks of {@link UserService} skip
+ * the database when a value was definitely never taken.
+ * <p>
+ * Values cannot be removed from a Bloom filter: replaced and deleted ones are counted as stale, and the
+ * filters are rebuilt from the Users table once too many are stale or their capacity is exceeded. Until
+ * the first build every value is reported as possibly taken. A value missed while a rebuild runs only
+ * costs the early check: the unique constraints still reject the duplicate.
+ */
+@Slf4j
+@Component
+public class UserUniquenessFilter {
+
+    static final double FALSE_POSITIVE_RATE = 0.01;
+    static final long MIN_CAPACITY = 10_000;
+
+    private final UserRepository userRepository;
+    private final LongAdder staleEntries = new LongAdder();
+    private final Counter rebuilds;
+    private final Field username;
+    private final Field email;
+
+    private volatile Filters filters;
+
+    public UserUniquenessFilter(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.rebuilds = Counter.builder("users.uniqueness.filter.rebuilds")
+                .description("Rebuilds of the username and email Bloom filters from the Users table")
+                .register(meterRegistry);
+        this.username = new Field("username", meterRegistry);
+        this.email = new Field("email", meterRegistry);
+        Gauge.builder("users.uniqueness.filter.expected.fpp", this, filter -> filter.expectedFalsePositiveRate(Filters::usernames))
+                .tag("field", "username")
+                .register(meterRegistry);
+        Gauge.builder("users.uniqueness.filter.expected.fpp", this, filter -> filter.expectedFalsePositiveRate(Filters::emails))
+                .tag("field", "email")
+                .register(meterRegistry);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    /**
+     * Checks, skips and false positives of one filtered column: the observed false positive rate is
+     * {@code falsePositives / queried}.
+     */
+    private static final class Field {
+
+        private final Counter skipped;
+        private final Counter queried;
+        private final Counter falsePositives;
+
+        private Field(String name, MeterRegistry meterRegistry) {
+            this.skipped = checks(name, "skipped", meterRegistry);
+            this.queried = checks(name, "queried", meterRegistry);
+            this.falsePositives = Counter.builder("users.uniqueness.filter.false.positives")
+                    .description("Values the filter reported as possibly taken that the database did not hold")
+                    .tag("field", name)
+                    .register(meterRegistry);
+        }
+
+        private static Counter checks(String name, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("users.uniqueness.filter.checks")
+                    .description("Uniqueness checks, by whether the database had to be queried")
+                    .tag("field", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private boolean record(boolean mightContain) {
+            (mightContain ? queried : skipped).increment();
+            return mightContain;
+        }
+    }
+
+    public boolean mightContainUsername(String value) {
+        Filters current = filters;
+        return value != null && username.record(current == null || current.usernames().mightContain(value));
+    }
+
+    public boolean mightContainEmail(String value) {
+        Filters current = filters;
+        return value != null && email.record(current == null || current.emails().mightContain(value));
+    }
+
+    public void usernameFalsePositive() {
+        username.falsePositives.increment();
+    }
+
+    public void emailFalsePositive() {
+        email.falsePositives.increment();
+    }
+
+    /**
+     * Adds the non-null values to the filters.
+     */
+    public void register(String usernameValue, String emailValue) {
+        Filters current = filters;
+        if (current == null) {
+            return;
+        }
+        if (usernameValue != null) {
+            current.usernames().put(usernameValue);
+        }
+        if (emailValue != null) {
+            current.emails().put(emailValue);
+        }
+    }
+
+    /**
+     * Counts values that left the Users table but stay in the filters until the next rebuild.
+     */
+    public void markStale(int count) {
+        staleEntries.add(count);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${users.uniqueness-filter.check-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void rebuildIfDegraded() {
+        Filters current = filters;
+        if (current == null
+                || current.usernames().insertions() > current.usernames().capacity()
+                || staleEntries.sum() > current.usernames().insertions() / 4) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long capacity = Math.max(MIN_CAPACITY, 2 * userRepository.count());
+        Filters next = new Filters(new BloomFilter(capacity, FALSE_POSITIVE_RATE), new BloomFilter(capacity, FALSE_POSITIVE_RATE));
+        staleEntries.reset();
+        load(userRepository.streamAllUsernames(), next.usernames()::put);
+        load(userRepository.streamAllEmails(), next.emails()::put);
+        filters = next;
+        rebuilds.increment();
+        log.info("Rebuilt user uniqueness filters with {} usernames, capacity {}", next.usernames().insertions(), capacity);
+    }
+
+    private static void load(Stream<String> values, Consumer<String> sink) {
+        try (values) {
+            values.filter(Objects::nonNull).forEach(sink);
+        }
+    }
+
+    private double expectedFalsePositiveRate(Function<Filters, BloomFilter> filter) {
+        Filters current = filters;
+        return current == null ? 1 : filter.apply(current).expectedFalsePositiveRate();
+    }
+}
@@ -0,0 +1,43 @@
+-- Tables and sequences of the User, Ticket and ArchivedTicket entities, as the former
+-- spring.jpa.hibernate.ddl-auto=update created them.
+-- Every ticket shard gets the same schema; those not holding the users then drop fk_tickets_user.
+
+create sequence Users_SEQ start with 1 increment by 50;
+create sequence Tickets_SEQ start with 1 increment by 50;
+
+create table Users (
+    id         bigint not null,
+    username   varchar(255),
+    email      varchar(255),
+    version    bigint,
+    deleted_at timestamp(6) with time zone,
+    constraint pk_users primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table Tickets (
+    id          bigint not null,
+    title       varchar(255),
+    description varchar(255),
+    status      varchar(16),
+    user_id     bigint,
+    version     bigint,
+    closed_at   timestamp(6) with time zone,
+    deleted_at  timestamp(6) with time zone,
+    constraint pk_tickets primary key (id),
+    constraint fk_tickets_user foreign key (user_id) references Users (id)
+);
+
+-- No foreign key to the users: archived tickets stay on the shard of their last assignee
+create table Tickets_Archive (
+    id          bigint not null,
+    title       varchar(255),
+    description varchar(255),
+    status      varchar(16),
+    user_id     bigint,
+    version     bigint,
+    closed_at   timestamp(6) with time zone,
+    archived_at timestamp(6) with time zone,
+    constraint pk_tickets_archive primary key (id)
+);
@@ -0,0 +1,20 @@
+-- Indexes of the repository queries, each named after the queries it serves. Primary keys already serve
+-- the lookups by id, the unique constraints existsByUsername / existsByEmail.
+
+-- Listing by status (then assignee), streamAllDtoByStatus, countByUserAndStatus
+create index idx_tickets_status_user on Tickets (status, user_id, id);
+
+-- lockAllByUserId, findAllDtoByUserId, findVersionsByUserId, unassignAllByUserId, softDeleteAllByUserId,
+-- listing by assignee or unassigned, the ticket counts of findSummaryPage
+create index idx_tickets_user_status on Tickets (user_id, status, id);
+
+-- lockArchivableIds
+create index idx_tickets_status_closed on Tickets (status, closed_at);
+
+-- findTombstoneIds
+create index idx_tickets_deleted on Tickets (deleted_at);
+create index idx_users_deleted on Users (deleted_at);
+
+-- Listing of the archived tickets by status or assignee, deleteAllByUserId and unassignAllByUserId
+create index idx_tickets_archive_status_user on Tickets_Archive (status, user_id, id);
+create index idx_tickets_archive_user_status on Tickets_Archive (user_id, status, id);
@@ -0,0 +1,19 @@
+-- The listings seek "id > :after order by id" within their filter, which an index only serves in id order
+-- when every column before id is bound by the filter. (status, user_id, id) is not for a listing by status
+-- alone, nor (user_id, status, id) for a listing by assignee alone over several statuses: each page sorted
+-- every matching ticket. (user_id, status, id) stays for the listing by assignee and status.
+
+-- Listing by status, streamAllDtoByStatus
+create index idx_tickets_status on Tickets (status, id);
+
+-- Listing by assignee or unassigned, lockAllByUserId, findAllDtoByUserId, findVersionsByUserId,
+-- unassignAllByUserId, softDeleteAllByUserId
+create index idx_tickets_user on Tickets (user_id, id);
+
+drop index idx_tickets_status_user;
+
+-- Same for the listing of the archived tickets, deleteAllByUserId and unassignAllByUserId
+create index idx_tickets_archive_status on Tickets_Archive (status, id);
+create index idx_tickets_archive_user on Tickets_Archive (user_id, id);
+
+drop index idx_tickets_archive_status_user;
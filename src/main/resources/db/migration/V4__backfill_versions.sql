@@ -0,0 +1,14 @@
+-- Rows written without a version, before the column existed or by hand, never matched the "version = ?"
+-- of the soft deletes nor had an ETag: they start at version 0, which new rows get by default.
+
+update Users set version = 0 where version is null;
+alter table Users alter column version set default 0;
+alter table Users alter column version set not null;
+
+update Tickets set version = 0 where version is null;
+alter table Tickets alter column version set default 0;
+alter table Tickets alter column version set not null;
+
+update Tickets_Archive set version = 0 where version is null;
+alter table Tickets_Archive alter column version set default 0;
+alter table Tickets_Archive alter column version set not null;
@@ -0,0 +1,9 @@
+-- Directory of the tickets held outside shard 0, read and written by TicketShards on shard 0 only: a ticket
+-- without a row lives on shard 0. Every shard gets the table, like the rest of the schema; it stays empty on
+-- the others, and without shards.
+
+create table Ticket_Shards (
+    id    bigint  not null,
+    shard integer not null,
+    constraint pk_ticket_shards primary key (id)
+);
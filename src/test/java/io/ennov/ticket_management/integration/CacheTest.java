@@ -0,0 +1,161 @@
+package io.ennov.ticket_management.integration;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.ennov.ticket_management.shared.CacheConfig;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+class CacheTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TicketDto ticket;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        ticket = ticketService.createTicket(new TicketDto(null, "Cached ticket", "Read very often", StatusTicket.PENDING));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        userRepository.deleteAllInBatch();
+    }
+
+    private CacheStats stats(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated ticket reads from the cache and expose the hits as metrics")
+    void shouldCacheTicketReads() {
+        // Given
+        CacheStats before = stats(CacheConfig.TICKETS);
+
+        // When
+        ticketService.findTicketById(ticket.id());
+        ticketService.findTicketById(ticket.id());
+
+        // Then
+        CacheStats delta = stats(CacheConfig.TICKETS).minus(before);
+        assertThat(delta.missCount()).isEqualTo(1);
+        assertThat(delta.hitCount()).isEqualTo(1);
+        FunctionCounter hits = meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.TICKETS)
+                .tag("result", "hit")
+                .functionCounter();
+        assertThat(hits.count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should evict a cached ticket when it is modified, assigned or deleted")
+    void shouldEvictTicketOnWrites() {
+        // Given
+        ticketService.findTicketById(ticket.id());
+        UserDto user = userService.createUser(new UserDto(null, "cacheuser", "cacheuser@example.com"));
+
+        // When/Then
+        ticketService.modifyTicket(ticket.id(), new TicketDto(null, "Renamed", null, StatusTicket.DONE));
+        assertThat(ticketService.findTicketById(ticket.id()))
+                .isEqualTo(new TicketDto(ticket.id(), "Renamed", "Read very often", StatusTicket.DONE));
+
+        ticketService.assignTicket(ticket.id(), user.id());
+        assertThat(cacheManager.getCache(CacheConfig.TICKETS).get(ticket.id())).isNull();
+
+        ticketService.findTicketById(ticket.id());
+        ticketService.deleteTicket(ticket.id());
+        assertThatThrownBy(() -> ticketService.findTicketById(ticket.id()))
+                .isInstanceOf(TicketNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should evict again the old ticket a read loaded before a modification committed")
+    void shouldEvictAgainAfterLateRead() throws InterruptedException {
+        // Given
+        ticketService.modifyTicket(ticket.id(), new TicketDto(null, "Renamed", null, null));
+
+        // When
+        // What a read that loaded the ticket before the commit caches once the eviction is done
+        cacheManager.getCache(CacheConfig.TICKETS).put(ticket.id(), ticket);
+
+        // Then
+        assertThat(ticketService.findTicketById(ticket.id()).title()).isEqualTo("Cached ticket");
+        for (int i = 0; i < 100 && cacheManager.getCache(CacheConfig.TICKETS).get(ticket.id()) != null; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(ticketService.findTicketById(ticket.id()).title()).isEqualTo("Renamed");
+    }
+
+    @Test
+    @DisplayName("Should not cache missing tickets")
+    void shouldNotCacheMissingTickets() {
+        // Given
+        Long missingId = ticket.id() + 1000;
+
+        // When
+        assertThatThrownBy(() -> ticketService.findTicketById(missingId))
+                .isInstanceOf(TicketNotFoundException.class);
+
+        // Then
+        assertThat(cacheManager.getCache(CacheConfig.TICKETS).get(missingId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should cache user lookups and evict them when the user changes")
+    void shouldCacheUsers() {
+        // Given
+        UserDto user = userService.createUser(new UserDto(null, "cacheuser", "cacheuser@example.com"));
+        CacheStats before = stats(CacheConfig.USERS);
+
+        // When
+        userService.findTicketByUser(user.id());
+        userService.findTicketByUser(user.id());
+
+        // Then
+        assertThat(stats(CacheConfig.USERS).minus(before).hitCount()).isEqualTo(1);
+
+        userService.modifyUser(user.id(), new UserDto(null, "renamed", null));
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(user.id())).isNull();
+    }
+}
@@ -0,0 +1,111 @@
+package io.ennov.ticket_management.integration;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long ticketId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        ticketId = ticketRepository.save(Ticket.builder()
+                .title("Polled ticket")
+                .status(StatusTicket.PENDING)
+                .build()).getId();
+        userId = userRepository.save(User.builder()
+                .username("poller")
+                .email("poller@example.com")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private String eTagOf(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private int statusWith(String url, String eTag) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Test
+    @DisplayName("Should answer 304 until the ticket is modified, assigned or its status bulk-updated")
+    void shouldTrackTicketVersion() throws Exception {
+        String url = "/tickets/" + ticketId;
+        String eTag = eTagOf(url);
+        assertThat(statusWith(url, eTag)).isEqualTo(304);
+
+        ticketService.modifyTicket(ticketId, new TicketDto(null, "Renamed", null, null));
+        assertThat(statusWith(url, eTag)).isEqualTo(200);
+
+        eTag = eTagOf(url);
+        ticketService.modifyTicket(ticketId, new TicketDto(null, "Renamed", null, null));
+        assertThat(statusWith(url, eTag)).isEqualTo(304);
+
+        ticketService.assignTicket(ticketId, userId);
+        assertThat(statusWith(url, eTag)).isEqualTo(200);
+
+        eTag = eTagOf(url);
+        ticketService.updateTicketsStatus(List.of(ticketId), StatusTicket.DONE);
+        assertThat(statusWith(url, eTag)).isEqualTo(200);
+        assertThat(statusWith(url, eTagOf(url))).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 until the user's ticket list changes")
+    void shouldTrackUserTicketList() throws Exception {
+        String url = "/users/" + userId + "/ticket";
+        String eTag = eTagOf(url);
+        assertThat(statusWith(url, eTag)).isEqualTo(304);
+
+        ticketService.assignTicket(ticketId, userId);
+        assertThat(statusWith(url, eTag)).isEqualTo(200);
+
+        eTag = eTagOf(url);
+        ticketService.modifyTicket(ticketId, new TicketDto(null, null, "Now described", null));
+        assertThat(statusWith(url, eTag)).isEqualTo(200);
+        assertThat(statusWith(url, eTagOf(url))).isEqualTo(304);
+    }
+}
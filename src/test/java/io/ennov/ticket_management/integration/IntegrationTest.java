@@ -0,0 +1,32 @@
+package io.ennov.ticket_management.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Boots the whole application, with its real {@code application.yml}, against a private in-memory H2
+ * database, created by the Flyway migrations, whatever profile or config location the surrounding build
+ * happens to set. The context, and therefore the database, is shared by every class carrying this
+ * annotation with the same extra configuration: tests clean up the rows they create. Each context gets its
+ * own database, migrated from scratch, so that contexts do not share rows or sequences.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.config.location=optional:classpath:/",
+        "spring.datasource.url=jdbc:h2:mem:integration-${random.uuid};DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        // Lookups of a cold JVM may overrun the production budget: tests check results, not latency
+        "tickets.similar-titles.budget=1s",
+        // Tests purge the tombstones they leave themselves, at full speed, rather than racing a scheduled purge
+        "tombstones.purge.interval=P1D",
+        "tombstones.purge.rate=1000000"
+})
+public @interface IntegrationTest {
+}
@@ -0,0 +1,259 @@
+package io.ennov.ticket_management.integration;
+
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository queries against the schema of the Flyway migrations and checks, through H2's
+ * {@code EXPLAIN}, that each one reaches the rows of every table through an index condition rather than a
+ * table or full index scan. Whole-table reads, streaming every row to rebuild the in-memory indexes or
+ * grouping every row to reconcile the statistics, are left out.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.ennov.ticket_management.integration.QueryPlanTest$Recorder")
+class QueryPlanTest {
+
+    /**
+     * Table accesses of an H2 plan: {@code /* PUBLIC.TICKETS.tableScan * /} or
+     * {@code /* PUBLIC.IDX_TICKETS_USER_STATUS: USER_ID = ?1 * /}, the condition being absent from a full
+     * index scan.
+     */
+    private static final Pattern ACCESS = Pattern.compile("/\\* PUBLIC\\.([A-Z_0-9.]+)(: [^*]+)? \\*/");
+
+    /**
+     * Columns an index condition binds to one value: {@code STATUS = ?1} or {@code USER_ID IS NULL}.
+     */
+    private static final Pattern EQUALITY = Pattern.compile("([A-Z_]+) (?:= \\?\\d+|IS NULL)");
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ArchivedTicketRepository archivedTicketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs {@code queries} in a transaction rolled back afterwards and returns the SQL they sent.
+     */
+    private List<String> statementsOf(Runnable queries) {
+        Recorder.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            queries.run();
+            status.setRollbackOnly();
+        });
+        List<String> statements = new ArrayList<>(Recorder.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+        return statements;
+    }
+
+    /**
+     * The plan of {@code sql}, its parameters left null: H2 chooses the indexes before binding them.
+     */
+    private String plan(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setNull(i, Types.NULL);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private void assertUseIndexes(Runnable queries) {
+        for (String sql : statementsOf(queries)) {
+            String plan = plan(sql);
+            Matcher access = ACCESS.matcher(plan);
+            int accesses = 0;
+            while (access.find()) {
+                accesses++;
+                assertThat(access.group(2))
+                        .as("%s reads %s without an index condition:%n%s", sql, access.group(1), plan)
+                        .isNotNull();
+            }
+            assertThat(accesses).as("table accesses of %s", plan).isPositive();
+        }
+    }
+
+    /**
+     * Same as {@link #assertUseIndexes} for the seek of a listing page, the index also ordering by id the
+     * rows of the filter: its columns are those the filter binds to one value, then the id. The rows then
+     * come out of the index from the cursor on, already in order, rather than all sorted for every page.
+     */
+    private void assertSeekInIdOrder(Runnable queries) {
+        for (String sql : statementsOf(queries)) {
+            String plan = plan(sql);
+            Matcher access = ACCESS.matcher(plan);
+            assertThat(access.find()).as("table access of %s", plan).isTrue();
+            assertThat(access.group(2))
+                    .as("%s reads %s without an index condition:%n%s", sql, access.group(1), plan)
+                    .isNotNull();
+            Set<String> bound = new HashSet<>();
+            Matcher equality = EQUALITY.matcher(access.group(2));
+            while (equality.find()) {
+                bound.add(equality.group(1));
+            }
+            List<String> columns = jdbcTemplate.queryForList("""
+                    select column_name from information_schema.index_columns
+                    where index_name = ? order by ordinal_position""", String.class, access.group(1));
+            assertThat(columns)
+                    .as("%s seeks through %s, not ordered by id after %s:%n%s", sql, access.group(1), bound, plan)
+                    .hasSizeGreaterThan(bound.size())
+                    .element(bound.size()).isEqualTo("ID");
+            assertThat(columns.subList(0, bound.size())).containsExactlyInAnyOrderElementsOf(bound);
+        }
+    }
+
+    @Test
+    @DisplayName("Should find, lock and write tickets by id through the primary key")
+    void shouldUsePrimaryKeyForTicketsById() {
+        User user = userRepository.getReferenceById(1L);
+        assertUseIndexes(() -> {
+            ticketRepository.findDtoById(1L);
+            ticketRepository.lockStateById(1L);
+            ticketRepository.findVersionById(1L);
+            ticketRepository.findVersionedById(1L);
+            ticketRepository.findAllDtoByIdIn(List.of(1L, 2L));
+            ticketRepository.findIdsByIdIn(List.of(1L, 2L));
+            ticketRepository.lockUnassignedIdsByIdIn(List.of(1L, 2L));
+            ticketRepository.countByUserAndStatusByIdIn(List.of(1L, 2L));
+            ticketRepository.assignIfUnassigned(1L, user);
+            ticketRepository.assignAllById(List.of(1L, 2L), user);
+            ticketRepository.updateById(1L, "Title", null, StatusTicket.DONE, Instant.now());
+            ticketRepository.updateStatusAllById(List.of(1L, 2L), StatusTicket.DONE, Instant.now());
+            ticketRepository.softDeleteById(1L);
+            ticketRepository.deleteAllByIdIn(List.of(1L, 2L));
+            ticketRepository.purgeAllByIdIn(List.of(1L, 2L));
+            ticketRepository.findShardById(1L);
+            ticketRepository.insertShardsByIdIn(List.of(1L, 2L), 1);
+            ticketRepository.deleteShardsByIdIn(List.of(1L, 2L));
+        });
+    }
+
+    @Test
+    @DisplayName("Should read and write the tickets of a user through the assignee index")
+    void shouldUseAssigneeIndexForTicketsByUser() {
+        assertUseIndexes(() -> {
+            ticketRepository.lockAllByUserId(1L);
+            ticketRepository.findAllDtoByUserId(1L);
+            ticketRepository.findVersionsByUserId(1L);
+            ticketRepository.countByUserAndStatusByUserIdIn(List.of(1L, 2L));
+            ticketRepository.unassignAllByUserId(1L);
+            ticketRepository.softDeleteAllByUserId(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should seek the pages of the tickets by status, assignee or unassigned in id order through an index")
+    void shouldSeekFilteredListingInIdOrder() {
+        assertSeekInIdOrder(() -> ticketRepository.findDtoPage(new TicketFilter(StatusTicket.PENDING, null, false), 0L, 20));
+        assertSeekInIdOrder(() -> ticketRepository.findDtoPage(new TicketFilter(null, 1L, false), 0L, 20));
+        assertSeekInIdOrder(() -> ticketRepository.findDtoPage(new TicketFilter(null, null, true), 0L, 20));
+        assertSeekInIdOrder(() -> ticketRepository.findDtoPage(new TicketFilter(StatusTicket.DONE, 1L, false), 0L, 20));
+        assertSeekInIdOrder(() -> ticketRepository.findArchivedDtoPage(new TicketFilter(StatusTicket.DONE, null, false), 0L, 20));
+        assertSeekInIdOrder(() -> ticketRepository.findArchivedDtoPage(new TicketFilter(null, 1L, false), 0L, 20));
+    }
+
+    @Test
+    @DisplayName("Should count the facets and stream the tickets of a status through an index")
+    void shouldUseIndexesForFacetsAndStreams() {
+        assertUseIndexes(() -> {
+            ticketRepository.countFacets(new TicketFilter(null, 1L, false));
+            ticketRepository.streamAllDtoByStatus(StatusTicket.PENDING).close();
+        });
+    }
+
+    @Test
+    @DisplayName("Should pick the tickets to archive and the tombstones to purge through their index")
+    void shouldUseIndexesForBackgroundJobs() {
+        assertUseIndexes(() -> {
+            ticketRepository.lockArchivableIds(Instant.now(), Limit.of(500));
+            ticketRepository.findTombstoneIds(Instant.now(), 100);
+            userRepository.findTombstoneIds(Instant.now(), 100);
+        });
+    }
+
+    @Test
+    @DisplayName("Should read and write archived tickets by id or assignee through an index")
+    void shouldUseIndexesForArchivedTickets() {
+        assertUseIndexes(() -> {
+            archivedTicketRepository.findDtoById(1L);
+            archivedTicketRepository.findVersionById(1L);
+            archivedTicketRepository.findVersionedById(1L);
+            archivedTicketRepository.findAllDtoByIdIn(List.of(1L, 2L));
+            archivedTicketRepository.copyAllByIdIn(List.of(1L, 2L), Instant.now());
+            archivedTicketRepository.deleteDirectlyById(1L);
+            archivedTicketRepository.deleteAllByUserId(1L);
+            archivedTicketRepository.unassignAllByUserId(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should find, check and write users through the primary key or a unique index")
+    void shouldUseIndexesForUsers() {
+        assertUseIndexes(() -> {
+            userRepository.findDtoById(1L);
+            userRepository.findCurrentDtoById(1L);
+            userRepository.existsByUsername("alice");
+            userRepository.existsByEmail("alice@example.com");
+            userRepository.updateById(1L, "alice", null);
+            userRepository.softDeleteById(1L);
+            userRepository.findSummaryPage(0L, Limit.of(20));
+            userRepository.purgeAllByIdIn(List.of(1L, 2L));
+        });
+    }
+}
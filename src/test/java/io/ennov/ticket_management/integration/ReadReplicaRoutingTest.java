@@ -0,0 +1,134 @@
+package io.ennov.ticket_management.integration;
+
+import io.ennov.ticket_management.shared.CacheConfig;
+import io.ennov.ticket_management.shared.EvictAgainCacheManager;
+import io.ennov.ticket_management.shared.ReplicaRoutingDataSource;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two H2 databases standing for the primary and a replica, plus a replica that does not
+ * exist. Nothing replicates between them: a row only inserted into the replica tells which one was read.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "datasource.replicas.urls=" + ReadReplicaRoutingTest.REPLICA_URL + "," + ReadReplicaRoutingTest.MISSING_REPLICA_URL)
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1";
+    static final String MISSING_REPLICA_URL = "jdbc:h2:mem:replica-missing;IFEXISTS=TRUE";
+    private static final long REPLICA_ONLY_ID = 900_001L;
+
+    private static final DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+    private static final JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+
+    static {
+        // The indexes warming up once the application is ready already read from the replica
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+    }
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        replica.update("delete from tickets");
+        replica.update("insert into tickets (id, title, status, version) values (?, 'Replica only', 'PENDING', 0)", REPLICA_ONLY_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        ticketRepository.deleteAllInBatch();
+    }
+
+    private List<Long> readIds(Long... ids) {
+        return ticketService.findTicketsByIds(List.of(ids)).items().stream().map(TicketDto::id).toList();
+    }
+
+    /**
+     * Binds a new request to the test thread, which otherwise runs as one mock request from start to end.
+     */
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    @DisplayName("Should read from the replica in read-only transactions and write to the primary")
+    void shouldReadFromReplicaAndWriteToPrimary() {
+        // When
+        Long created = ticketService.createTicket(new TicketDto(null, "Primary only", null, null)).id();
+
+        // Then
+        assertThat(primary.queryForObject("select count(*) from tickets where id = ?", Long.class, created)).isOne();
+        startRequest();
+        assertThat(readIds(REPLICA_ONLY_ID, created)).containsExactly(REPLICA_ONLY_ID);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary for the rest of a request once it wrote")
+    void shouldReadYourWritesWithinRequest() {
+        // Given
+        startRequest();
+        assertThat(readIds(REPLICA_ONLY_ID)).containsExactly(REPLICA_ONLY_ID);
+
+        // When
+        Long created = ticketService.createTicket(new TicketDto(null, "Primary only", null, null)).id();
+
+        // Then
+        assertThat(readIds(REPLICA_ONLY_ID, created)).containsExactly(created);
+
+        startRequest();
+        assertThat(readIds(REPLICA_ONLY_ID, created)).containsExactly(REPLICA_ONLY_ID);
+    }
+
+    @Test
+    @DisplayName("Should skip the replica failing its health check and keep reading from the other one")
+    void shouldSkipUnhealthyReplica() {
+        // When
+        routingDataSource.checkReplicas();
+
+        // Then
+        assertThat(routingDataSource.healthyReplicaCount()).isOne();
+        for (int i = 0; i < 4; i++) {
+            assertThat(readIds(REPLICA_ONLY_ID)).containsExactly(REPLICA_ONLY_ID);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cache through caches evicting again once the replicas caught up")
+    void shouldEvictCachesAgainAfterReplicaLag() {
+        assertThat(cacheManager).isInstanceOf(EvictAgainCacheManager.class);
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder(CacheConfig.TICKETS, CacheConfig.USERS);
+    }
+}
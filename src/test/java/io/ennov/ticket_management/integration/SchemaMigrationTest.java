@@ -0,0 +1,61 @@
+package io.ennov.ticket_management.integration;
+
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.user.User;
+import org.flywaydb.core.Flyway;
+import org.hibernate.annotations.SQLDelete;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations of db/migration against an H2 database of its own, stopping at the versions
+ * whose upgrade is checked.
+ */
+class SchemaMigrationTest {
+
+    private final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    private void migrate(String target) {
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+    }
+
+    private Long version(String table, long id) {
+        return jdbcTemplate.queryForObject("select version from " + table + " where id = ?", Long.class, id);
+    }
+
+    @Test
+    @DisplayName("Should give version 0 to the rows written without a version, so their soft delete matches them")
+    void shouldBackfillNullVersions() {
+        // Given
+        migrate("3");
+        jdbcTemplate.update("insert into Users (id, username, email) values (1, 'alice', 'alice@example.com')");
+        jdbcTemplate.update("insert into Tickets (id, title, status, user_id) values (2, 'Printer jam', 'PENDING', 1)");
+        jdbcTemplate.update("insert into Tickets_Archive (id, title, status) values (3, 'VPN down', 'DONE')");
+        assertThat(version("Tickets", 2)).isNull();
+
+        // When
+        migrate("latest");
+
+        // Then
+        assertThat(version("Users", 1)).isZero();
+        assertThat(version("Tickets", 2)).isZero();
+        assertThat(version("Tickets_Archive", 3)).isZero();
+        assertThat(jdbcTemplate.update(Ticket.class.getAnnotation(SQLDelete.class).sql(), 2L, 0L)).isEqualTo(1);
+        assertThat(jdbcTemplate.update(User.class.getAnnotation(SQLDelete.class).sql(), 1L, 0L)).isEqualTo(1);
+        jdbcTemplate.update("insert into Tickets (id, title, status) values (4, 'Screen flickers', 'PENDING')");
+        assertThat(version("Tickets", 4)).isZero();
+    }
+}
@@ -0,0 +1,177 @@
+package io.ennov.ticket_management.integration;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.TicketsOnDelete;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserNotFoundException;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the JDBC statements each write path prepares, so a regression to load-then-save shows up.
+ */
+@IntegrationTest
+class StatementCountTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long ticketId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder().username("counted").email("counted@example.com").build());
+        userId = user.getId();
+        ticketId = ticketRepository.save(Ticket.builder().title("Counted").status(StatusTicket.PENDING).user(user).build()).getId();
+        ticketRepository.save(Ticket.builder().title("Counted too").status(StatusTicket.DONE).user(user).build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        setTicketsOnDelete(TicketsOnDelete.DELETE);
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        userRepository.deleteAllInBatch();
+    }
+
+    private void setTicketsOnDelete(TicketsOnDelete ticketsOnDelete) {
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "ticketsOnDelete", ticketsOnDelete);
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Should delete a ticket with one locking read and one tombstoning update")
+    void shouldDeleteTicketWithOneUpdate() {
+        ticketService.deleteTicket(ticketId);
+
+        assertThat(statements()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(ticketRepository.existsById(ticketId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should detect a missing ticket on delete with the locking read and the archive delete")
+    void shouldDetectMissingTicketOnDelete() {
+        assertThatThrownBy(() -> ticketService.deleteTicket(ticketId + 1000))
+                .isInstanceOf(TicketNotFoundException.class);
+
+        assertThat(statements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should modify a ticket with one locking projection read and one update")
+    void shouldModifyTicketWithOneUpdate() {
+        TicketDto result = ticketService.modifyTicket(ticketId, new TicketDto(null, "Renamed", null, StatusTicket.DONE));
+
+        assertThat(statements()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(result).isEqualTo(new TicketDto(ticketId, "Renamed", null, StatusTicket.DONE));
+    }
+
+    @Test
+    @DisplayName("Should detect a missing ticket on modify with the locking read and the archive lookup")
+    void shouldDetectMissingTicketOnModify() {
+        assertThatThrownBy(() -> ticketService.modifyTicket(ticketId + 1000, new TicketDto(null, "Renamed", null, null)))
+                .isInstanceOf(TicketNotFoundException.class);
+
+        assertThat(statements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should create a user with one insert and no uniqueness queries")
+    void shouldCreateUserWithOneInsert() {
+        userService.createUser(new UserDto(null, "newcomer", "newcomer@example.com"));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should delete a user, its tickets and its archived tickets with one statement each")
+    void shouldDeleteUserWithThreeStatements() {
+        userService.deleteUser(userId);
+
+        assertThat(statements()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(userRepository.count()).isZero();
+        assertThat(ticketRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should delete a user and unassign its tickets, live and archived, with one statement each")
+    void shouldUnassignTicketsWithThreeStatements() {
+        setTicketsOnDelete(TicketsOnDelete.UNASSIGN);
+
+        userService.deleteUser(userId);
+
+        assertThat(statements()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(userRepository.count()).isZero();
+        assertThat(ticketRepository.findAll()).hasSize(2).allSatisfy(ticket -> assertThat(ticket.getUser()).isNull());
+    }
+
+    @Test
+    @DisplayName("Should detect a missing user on delete without loading anything")
+    void shouldDetectMissingUserOnDelete() {
+        assertThatThrownBy(() -> userService.deleteUser(userId + 1000))
+                .isInstanceOf(UserNotFoundException.class);
+
+        assertThat(statements()).isEqualTo(3);
+        assertThat(ticketRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should modify a user with one update and one projection read")
+    void shouldModifyUserWithOneUpdate() {
+        UserDto result = userService.modifyUser(userId, new UserDto(null, "renamed", null));
+
+        assertThat(statements()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(result).isEqualTo(new UserDto(userId, "renamed", "counted@example.com"));
+    }
+}
@@ -0,0 +1,191 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.ArchivedTicket;
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketArchivedException;
+import io.ennov.ticket_management.ticket.TicketArchiver;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+@TestPropertySource(properties = {"tickets.archive.min-age=P30D", "tickets.archive.batch-size=2"})
+class TicketArchivingTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TicketArchiver archiver;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private ArchivedTicketRepository archivedTicketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketStatistics ticketStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        archivedTicketRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        userRepository.deleteAllInBatch();
+        ticketStatistics.reconcile();
+    }
+
+    private Long createTicket(String title, StatusTicket status) {
+        return ticketService.createTicket(new TicketDto(null, title, null, status)).id();
+    }
+
+    private void closedAgo(Long id, Duration age) {
+        jdbcTemplate.update("update Tickets set closed_at = ? where id = ?",
+                age == null ? null : Timestamp.from(Instant.now().minus(age)), id);
+    }
+
+    private Instant closedAt(Long id) {
+        Timestamp closedAt = jdbcTemplate.queryForObject("select closed_at from Tickets where id = ?", Timestamp.class, id);
+        return closedAt == null ? null : closedAt.toInstant();
+    }
+
+    private List<Long> ids(List<TicketDto> tickets) {
+        return tickets.stream().map(TicketDto::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should archive the tickets closed for longer than the minimum age, in batches")
+    void shouldArchiveOldClosedTickets() {
+        // Given
+        Long open = createTicket("Open", StatusTicket.PENDING);
+        Long oldDone = createTicket("Old done", StatusTicket.DONE);
+        Long oldCancel = createTicket("Old cancel", StatusTicket.CANCEL);
+        Long recentDone = createTicket("Recent done", StatusTicket.DONE);
+        Long unknownDone = createTicket("Closed before closing times", StatusTicket.DONE);
+        closedAgo(oldDone, Duration.ofDays(40));
+        closedAgo(oldCancel, Duration.ofDays(31));
+        closedAgo(recentDone, Duration.ofDays(29));
+        closedAgo(unknownDone, null);
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        assertThat(ticketRepository.findAll()).extracting(Ticket::getId).containsExactlyInAnyOrder(open, recentDone);
+        assertThat(archivedTicketRepository.findAll()).extracting(ArchivedTicket::getId)
+                .containsExactlyInAnyOrder(oldDone, oldCancel, unknownDone);
+        assertThat(archivedTicketRepository.findById(oldDone).orElseThrow().getArchivedAt()).isNotNull();
+        assertThat(archiver.archive()).isZero();
+
+        assertThat(ticketService.findTicketById(oldCancel)).isEqualTo(new TicketDto(oldCancel, "Old cancel", null, StatusTicket.CANCEL));
+        assertThat(ticketService.findTicketVersion(oldCancel)).isPresent();
+        assertThat(ids(ticketService.findAllTickets(TicketFilter.NONE, null, 10).items())).containsExactly(open, recentDone);
+        assertThat(ids(ticketService.findAllTickets(TicketFilter.NONE, true, null, 2).items())).containsExactly(open, oldDone);
+        assertThat(ids(ticketService.findAllTickets(new TicketFilter(StatusTicket.DONE, null, false), true, null, 10).items()))
+                .containsExactly(oldDone, recentDone, unknownDone);
+        assertThat(ticketService.findAllTicketsWithFacets(TicketFilter.NONE, true, null, 10).facets().total()).isEqualTo(5);
+        assertThat(ticketService.getTicketStats().total()).isEqualTo(2);
+        assertThat(ticketService.searchTickets("old", null, 10).items()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record when a ticket is closed and forget it when reopened")
+    void shouldRecordClosingTime() {
+        // Given
+        Long ticket = createTicket("Printer jam", StatusTicket.PENDING);
+        Long other = createTicket("VPN down", StatusTicket.PENDING);
+        assertThat(closedAt(ticket)).isNull();
+
+        // When
+        ticketService.modifyTicket(ticket, new TicketDto(null, null, null, StatusTicket.DONE));
+        Instant closed = closedAt(ticket);
+        ticketService.modifyTicket(ticket, new TicketDto(null, "Printer jammed", null, null));
+        Instant kept = closedAt(ticket);
+        ticketService.updateTicketsStatus(List.of(ticket, other), StatusTicket.PENDING);
+        Instant reopened = closedAt(ticket);
+        ticketService.updateTicketsStatus(List.of(other), StatusTicket.CANCEL);
+
+        // Then
+        assertThat(closed).isNotNull();
+        assertThat(kept).isEqualTo(closed);
+        assertThat(reopened).isNull();
+        assertThat(closedAt(other)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse to modify or assign an archived ticket, and delete it")
+    void shouldKeepArchivedTicketsReadOnly() {
+        // Given
+        Long alice = userService.createUser(new UserDto(null, "alice", "alice@example.com")).id();
+        Long ticket = createTicket("Old done", StatusTicket.DONE);
+        closedAgo(ticket, Duration.ofDays(60));
+        archiver.archive();
+
+        // When/Then
+        assertThatThrownBy(() -> ticketService.modifyTicket(ticket, new TicketDto(null, "Renamed", null, null)))
+                .isInstanceOf(TicketArchivedException.class);
+        assertThatThrownBy(() -> ticketService.assignTicket(ticket, alice))
+                .isInstanceOf(TicketArchivedException.class);
+
+        ticketService.deleteTicket(ticket);
+        assertThatThrownBy(() -> ticketService.findTicketById(ticket)).isInstanceOf(TicketNotFoundException.class);
+        assertThat(archivedTicketRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should delete the archived tickets of a deleted user")
+    void shouldDeleteArchivedTicketsWithUser() {
+        // Given
+        Long alice = userService.createUser(new UserDto(null, "alice", "alice@example.com")).id();
+        Long ticket = createTicket("Old done", StatusTicket.PENDING);
+        ticketService.assignTicket(ticket, alice);
+        ticketService.modifyTicket(ticket, new TicketDto(null, null, null, StatusTicket.DONE));
+        closedAgo(ticket, Duration.ofDays(60));
+        archiver.archive();
+
+        // When
+        userService.deleteUser(alice);
+
+        // Then
+        assertThat(archivedTicketRepository.count()).isZero();
+        assertThat(ticketRepository.count()).isZero();
+    }
+}
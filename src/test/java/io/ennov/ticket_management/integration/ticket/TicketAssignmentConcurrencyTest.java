@@ -0,0 +1,110 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.shared.AssignedDto;
+import io.ennov.ticket_management.shared.ConflictAssignException;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TicketAssignmentConcurrencyTest {
+
+    private static final int CONTENDERS = 16;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ticketId;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        ticketId = ticketRepository.save(Ticket.builder()
+                .title("Contended ticket")
+                .description("Everybody wants it")
+                .status(StatusTicket.PENDING)
+                .build()).getId();
+        userIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            userIds.add(userRepository.save(User.builder()
+                    .username("contender" + i)
+                    .email("contender" + i + "@example.com")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("Should let exactly one of many concurrent assignments win")
+    void shouldLetExactlyOneConcurrentAssignmentWin() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AssignedDto>> attempts = new ArrayList<>();
+        for (Long userId : userIds) {
+            Callable<AssignedDto> attempt = () -> {
+                start.await();
+                return ticketService.assignTicket(ticketId, userId);
+            };
+            attempts.add(executor.submit(attempt));
+        }
+
+        // When
+        start.countDown();
+        List<AssignedDto> winners = new ArrayList<>();
+        int conflicts = 0;
+        for (Future<AssignedDto> attempt : attempts) {
+            try {
+                winners.add(attempt.get(30, TimeUnit.SECONDS));
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(ConflictAssignException.class);
+                conflicts++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(winners).hasSize(1);
+        assertThat(conflicts).isEqualTo(CONTENDERS - 1);
+        Long storedAssignee = jdbcTemplate.queryForObject(
+                "select user_id from Tickets where id = ?", Long.class, ticketId);
+        assertThat(storedAssignee).isEqualTo(winners.get(0).userId());
+        assertThat(winners.get(0).tickets().id()).isEqualTo(ticketId);
+    }
+}
@@ -0,0 +1,81 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+class TicketBatchCreationTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should persist a large batch with JDBC batching and pooled ids")
+    void shouldPersistLargeBatch() {
+        // Given
+        List<TicketDto> inputDtos = IntStream.range(0, 1200)
+                .mapToObj(i -> new TicketDto(null, "Alert " + i, "Disk usage above threshold on host " + i, null))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // When
+        List<Long> ids = ticketService.createTickets(inputDtos);
+
+        // Then
+        assertThat(ids).hasSize(1200).doesNotHaveDuplicates();
+        assertThat(ticketRepository.count()).isEqualTo(1200);
+        assertThat(ticketRepository.findDtoById(ids.get(0)).orElseThrow())
+                .isEqualTo(new TicketDto(ids.get(0), "Alert 0", "Disk usage above threshold on host 0", StatusTicket.PENDING));
+        assertThat(ticketRepository.findDtoById(ids.get(1199)).orElseThrow().title()).isEqualTo("Alert 1199");
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1200);
+        // 1200 rows in batches of 50, plus one sequence call per 50 ids: far below one statement per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Should create none of the tickets of a batch when one of them fails")
+    void shouldCreateNothingWhenBatchFails() {
+        // Given: the last chunk holds a title too long for its column
+        List<TicketDto> inputDtos = IntStream.range(0, 1200)
+                .mapToObj(i -> new TicketDto(null, i == 1100 ? "x".repeat(300) : "Alert " + i, null, null))
+                .toList();
+        long total = ticketService.getTicketStats().total();
+
+        // When/Then
+        assertThatThrownBy(() -> ticketService.createTickets(inputDtos))
+                .hasMessageContaining("Value too long for column \"TITLE");
+        assertThat(ticketRepository.count()).isZero();
+        assertThat(ticketService.getTicketStats().total()).isEqualTo(total);
+    }
+}
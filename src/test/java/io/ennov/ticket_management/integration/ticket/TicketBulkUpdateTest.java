@@ -0,0 +1,105 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.BulkOutcome;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TicketBulkUpdateTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+    private Long free1;
+    private Long free2;
+    private Long heldByBob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(User.builder().username("alice").email("alice@example.com").build());
+        bob = userRepository.save(User.builder().username("bob").email("bob@example.com").build());
+        free1 = saveTicket("Printer jam", null);
+        free2 = saveTicket("VPN down", null);
+        heldByBob = saveTicket("Laptop broken", bob);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private Long saveTicket(String title, User user) {
+        return ticketRepository.save(Ticket.builder()
+                .title(title)
+                .status(StatusTicket.PENDING)
+                .user(user)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should assign only the unassigned tickets and leave the others untouched")
+    void shouldAssignOnlyUnassignedTickets() {
+        // Given
+        Long missing = heldByBob + 1000;
+
+        // When
+        List<BulkOutcome> outcomes = ticketService.assignTickets(List.of(free1, heldByBob, missing, free2), alice.getId());
+
+        // Then
+        assertThat(outcomes).containsExactly(
+                new BulkOutcome(free1, BulkOutcome.Result.UPDATED),
+                new BulkOutcome(heldByBob, BulkOutcome.Result.ALREADY_ASSIGNED),
+                new BulkOutcome(missing, BulkOutcome.Result.NOT_FOUND),
+                new BulkOutcome(free2, BulkOutcome.Result.UPDATED)
+        );
+        assertThat(ticketRepository.findAllDtoByUserId(alice.getId())).extracting(TicketDto::id)
+                .containsExactly(free1, free2);
+        assertThat(ticketRepository.findAllDtoByUserId(bob.getId())).extracting(TicketDto::id)
+                .containsExactly(heldByBob);
+    }
+
+    @Test
+    @DisplayName("Should move every existing ticket to the requested status")
+    void shouldUpdateStatusOfExistingTickets() {
+        // Given
+        Long missing = heldByBob + 1000;
+
+        // When
+        List<BulkOutcome> outcomes = ticketService.updateTicketsStatus(List.of(heldByBob, missing, free1), StatusTicket.DONE);
+
+        // Then
+        assertThat(outcomes).containsExactly(
+                new BulkOutcome(heldByBob, BulkOutcome.Result.UPDATED),
+                new BulkOutcome(missing, BulkOutcome.Result.NOT_FOUND),
+                new BulkOutcome(free1, BulkOutcome.Result.UPDATED)
+        );
+        assertThat(ticketRepository.findDtoPage(new TicketFilter(StatusTicket.DONE, null, false), 0, 10))
+                .extracting(TicketDto::id)
+                .containsExactly(free1, heldByBob);
+    }
+}
@@ -0,0 +1,87 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketController;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketDuplicateDetector;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "tickets.duplicates.mode=reject")
+class TicketDuplicateDetectionTest {
+
+    private static final String ALERT = """
+            {"title": "Disk usage", "description": "Disk usage above 90%% on volume /var of host %s, clean up the old log files"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketDuplicateDetector duplicateDetector;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        duplicateDetector.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should reject a likely duplicate of an open ticket, and accept it again once that one is closed")
+    void shouldRejectDuplicatesOfOpenTickets() throws Exception {
+        // Given
+        mockMvc.perform(post("/tickets").contentType(MediaType.APPLICATION_JSON).content(ALERT.formatted("db-1")))
+                .andExpect(status().isCreated());
+        Long original = ticketRepository.findAll().get(0).getId();
+
+        // When / Then
+        mockMvc.perform(post("/tickets").contentType(MediaType.APPLICATION_JSON).content(ALERT.formatted("db-1")))
+                .andExpect(status().isConflict())
+                .andExpect(header().string(TicketController.DUPLICATE_OF_HEADER, original.toString()));
+        mockMvc.perform(post("/tickets").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Badge reader\", \"description\": \"The badge reader of the main entrance is broken\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(TicketController.DUPLICATE_OF_HEADER));
+
+        ticketService.updateTicketsStatus(List.of(original), StatusTicket.DONE);
+        mockMvc.perform(post("/tickets").contentType(MediaType.APPLICATION_JSON).content(ALERT.formatted("db-1")))
+                .andExpect(status().isCreated());
+        assertThat(ticketRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should ignore open tickets deleted behind the detector's back")
+    void shouldIgnoreDeletedTickets() throws Exception {
+        // Given
+        ticketService.createTicket(new TicketDto(null, "Disk usage", "Disk usage above 90% on volume /var of host db-2, clean up the old log files", null));
+        ticketRepository.deleteAllInBatch();
+
+        // When / Then
+        mockMvc.perform(post("/tickets").contentType(MediaType.APPLICATION_JSON).content(ALERT.formatted("db-2")))
+                .andExpect(status().isCreated());
+        assertThat(duplicateDetector.size()).isEqualTo(1);
+    }
+}
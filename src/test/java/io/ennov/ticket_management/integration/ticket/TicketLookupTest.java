@@ -0,0 +1,69 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketLookup;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TicketLookupTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should resolve a board of tickets with one query per chunk of ids")
+    void shouldResolveManyIdsWithFewQueries() {
+        // Given
+        List<Long> ids = new ArrayList<>(ticketRepository.saveAll(IntStream.range(0, 400)
+                        .mapToObj(i -> Ticket.builder().title("Card " + i).status(StatusTicket.PENDING).build())
+                        .toList())
+                .stream().map(Ticket::getId).toList());
+        Collections.shuffle(ids);
+        Long missing = Collections.max(ids) + 1000;
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(200, missing);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // When
+        TicketLookup lookup = ticketService.findTicketsByIds(requested);
+
+        // Then
+        statistics.setStatisticsEnabled(false);
+        assertThat(lookup.items()).extracting(TicketDto::id).isEqualTo(ids);
+        assertThat(lookup.missingIds()).containsExactly(missing);
+        // Three chunks of live tickets, then the missing id in the archive
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,198 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketCount;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TicketRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private User alice;
+    private User bob;
+    private Ticket alicePending;
+    private Ticket aliceDone;
+    private Ticket bobPending;
+    private Ticket unassignedPending;
+    private Ticket unassignedCancel;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(User.builder().username("alice").email("alice@example.com").build());
+        bob = entityManager.persist(User.builder().username("bob").email("bob@example.com").build());
+        alicePending = persistTicket("Alice pending", StatusTicket.PENDING, alice);
+        aliceDone = persistTicket("Alice done", StatusTicket.DONE, alice);
+        bobPending = persistTicket("Bob pending", StatusTicket.PENDING, bob);
+        unassignedPending = persistTicket("Unassigned pending", StatusTicket.PENDING, null);
+        unassignedCancel = persistTicket("Unassigned cancel", StatusTicket.CANCEL, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Ticket persistTicket(String title, StatusTicket status, User user) {
+        return entityManager.persist(Ticket.builder()
+                .title(title)
+                .description(title + " description")
+                .status(status)
+                .user(user)
+                .build());
+    }
+
+    private static List<Long> ids(List<TicketDto> tickets) {
+        return tickets.stream().map(TicketDto::id).toList();
+    }
+
+    @Nested
+    @DisplayName("Projection queries")
+    class ProjectionTests {
+
+        @Test
+        @DisplayName("Should project a single ticket into TicketDto")
+        void shouldProjectSingleTicket() {
+            // When
+            TicketDto result = ticketRepository.findDtoById(aliceDone.getId()).orElseThrow();
+
+            // Then
+            assertThat(result).isEqualTo(new TicketDto(aliceDone.getId(), "Alice done", "Alice done description", StatusTicket.DONE));
+        }
+
+        @Test
+        @DisplayName("Should project the tickets of a user in id order")
+        void shouldProjectTicketsOfUser() {
+            // When
+            List<TicketDto> result = ticketRepository.findAllDtoByUserId(alice.getId());
+
+            // Then
+            assertThat(ids(result)).containsExactly(alicePending.getId(), aliceDone.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtered keyset pages")
+    class FilteredPageTests {
+
+        @Test
+        @DisplayName("Should return every ticket in id order without filter")
+        void shouldReturnEveryTicketWithoutFilter() {
+            // When
+            List<TicketDto> result = ticketRepository.findDtoPage(TicketFilter.NONE, 0L, 10);
+
+            // Then
+            assertThat(ids(result)).containsExactly(alicePending.getId(), aliceDone.getId(), bobPending.getId(),
+                    unassignedPending.getId(), unassignedCancel.getId());
+        }
+
+        @Test
+        @DisplayName("Should seek after the given id and honour the limit")
+        void shouldSeekAfterIdAndHonourLimit() {
+            // When
+            List<TicketDto> result = ticketRepository.findDtoPage(TicketFilter.NONE, aliceDone.getId(), 2);
+
+            // Then
+            assertThat(ids(result)).containsExactly(bobPending.getId(), unassignedPending.getId());
+        }
+
+        @Test
+        @DisplayName("Should filter by status")
+        void shouldFilterByStatus() {
+            // When
+            List<TicketDto> result = ticketRepository.findDtoPage(new TicketFilter(StatusTicket.PENDING, null, false), 0L, 10);
+
+            // Then
+            assertThat(ids(result)).containsExactly(alicePending.getId(), bobPending.getId(), unassignedPending.getId());
+        }
+
+        @Test
+        @DisplayName("Should filter by status and assignee")
+        void shouldFilterByStatusAndAssignee() {
+            // When
+            List<TicketDto> result = ticketRepository.findDtoPage(new TicketFilter(StatusTicket.PENDING, alice.getId(), false), 0L, 10);
+
+            // Then
+            assertThat(ids(result)).containsExactly(alicePending.getId());
+        }
+
+        @Test
+        @DisplayName("Should filter by assignee")
+        void shouldFilterByAssignee() {
+            // When
+            List<TicketDto> result = ticketRepository.findDtoPage(new TicketFilter(null, alice.getId(), false), 0L, 10);
+
+            // Then
+            assertThat(ids(result)).containsExactly(alicePending.getId(), aliceDone.getId());
+        }
+
+        @Test
+        @DisplayName("Should filter unassigned tickets, optionally by status")
+        void shouldFilterUnassignedTickets() {
+            // When
+            List<TicketDto> unassigned = ticketRepository.findDtoPage(new TicketFilter(null, null, true), 0L, 10);
+            List<TicketDto> unassignedPendingOnly = ticketRepository.findDtoPage(new TicketFilter(StatusTicket.PENDING, null, true), 0L, 10);
+
+            // Then
+            assertThat(ids(unassigned)).containsExactly(unassignedPending.getId(), unassignedCancel.getId());
+            assertThat(ids(unassignedPendingOnly)).containsExactly(unassignedPending.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Grouped counts")
+    class GroupedCountTests {
+
+        @Test
+        @DisplayName("Should count every ticket by assignee and status, unassigned ones included")
+        void shouldCountByAssigneeAndStatus() {
+            // When
+            List<TicketCount> result = ticketRepository.countFacets(TicketFilter.NONE);
+
+            // Then
+            assertThat(result).containsExactlyInAnyOrder(
+                    new TicketCount(alice.getId(), StatusTicket.PENDING, 1),
+                    new TicketCount(alice.getId(), StatusTicket.DONE, 1),
+                    new TicketCount(bob.getId(), StatusTicket.PENDING, 1),
+                    new TicketCount(null, StatusTicket.PENDING, 1),
+                    new TicketCount(null, StatusTicket.CANCEL, 1)
+            );
+            assertThat(ticketRepository.countByUserAndStatus()).containsExactlyInAnyOrderElementsOf(result);
+        }
+
+        @Test
+        @DisplayName("Should count only the tickets matching the filter")
+        void shouldCountFilteredTickets() {
+            // When
+            List<TicketCount> pending = ticketRepository.countFacets(new TicketFilter(StatusTicket.PENDING, null, false));
+            List<TicketCount> unassigned = ticketRepository.countFacets(new TicketFilter(null, null, true));
+
+            // Then
+            assertThat(pending).containsExactlyInAnyOrder(
+                    new TicketCount(alice.getId(), StatusTicket.PENDING, 1),
+                    new TicketCount(bob.getId(), StatusTicket.PENDING, 1),
+                    new TicketCount(null, StatusTicket.PENDING, 1)
+            );
+            assertThat(unassigned).containsExactlyInAnyOrder(
+                    new TicketCount(null, StatusTicket.PENDING, 1),
+                    new TicketCount(null, StatusTicket.CANCEL, 1)
+            );
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketSearchHit;
+import io.ennov.ticket_management.ticket.TicketSearchIndex;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.user.TombstonePurger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TicketSearchTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private TicketSearchIndex searchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        searchIndex.rebuild();
+    }
+
+    private List<Long> search(String query) {
+        return ticketService.searchTickets(query, null, 50).items().stream()
+                .map(hit -> hit.ticket().id())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should follow creations, modifications and deletions")
+    void shouldFollowWrites() {
+        // Given
+        Long projector = ticketService.createTicket(new TicketDto(null, "Projector flickers", "Room Everest", null)).id();
+        Long everest = ticketService.createTicket(new TicketDto(null, "Everest booking", "Cancel the Everest room", null)).id();
+        List<Long> batch = ticketService.createTickets(List.of(new TicketDto(null, "Projector cable", null, null)));
+
+        // When / Then
+        assertThat(search("everest")).containsExactly(everest, projector);
+        assertThat(search("projector")).containsExactlyInAnyOrder(projector, batch.get(0));
+
+        ticketService.modifyTicket(projector, new TicketDto(null, "Beamer flickers", "Room Kilimanjaro", null));
+        assertThat(search("everest")).containsExactly(everest);
+        assertThat(search("beamer kilimanjaro")).containsExactly(projector);
+
+        ticketService.deleteTicket(everest);
+        assertThat(search("everest")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not index a ticket whose transaction rolled back")
+    void shouldIgnoreRolledBackWrites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketService.createTicket(new TicketDto(null, "Phantom request", null, null));
+            status.setRollbackOnly();
+        });
+
+        assertThat(search("phantom")).isEmpty();
+        assertThat(searchIndex.search("phantom", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find tickets written behind its back once rebuilt, and drop the deleted ones")
+    void shouldRebuildFromDatabase() {
+        // Given
+        Long hidden = ticketRepository.save(Ticket.builder().title("Whiteboard markers").status(StatusTicket.PENDING).build()).getId();
+        assertThat(search("whiteboard")).isEmpty();
+
+        // When
+        searchIndex.rebuild();
+        CursorPage<TicketSearchHit> page = ticketService.searchTickets("whiteboard", null, 50);
+        ticketRepository.deleteById(hidden);
+
+        // Then
+        assertThat(page.items()).extracting(TicketSearchHit::ticket)
+                .containsExactly(new TicketDto(hidden, "Whiteboard markers", null, StatusTicket.PENDING));
+        assertThat(search("whiteboard")).isEmpty();
+        assertThat(searchIndex.search("whiteboard", 0, 10)).isEmpty();
+    }
+}
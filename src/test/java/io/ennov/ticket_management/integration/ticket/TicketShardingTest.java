@@ -0,0 +1,370 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.ShardRoutingDataSource;
+import io.ennov.ticket_management.ticket.BulkOutcome;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketArchiver;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFacets;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketSearchIndex;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketStats;
+import io.ennov.ticket_management.user.TicketsOnDelete;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserService;
+import io.ennov.ticket_management.user.UserSummaryDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Spreads the tickets over three in-memory H2 databases: the integration database as shard 0, holding the
+ * users and the unassigned tickets, and two more.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "datasource.shards.urls="
+        + "jdbc:h2:mem:shard-1-${random.uuid};DB_CLOSE_DELAY=-1,"
+        + "jdbc:h2:mem:shard-2-${random.uuid};DB_CLOSE_DELAY=-1")
+class TicketShardingTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private TicketShards ticketShards;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private TicketStatistics ticketStatistics;
+
+    @Autowired
+    private TicketSearchIndex searchIndex;
+
+    @Autowired
+    private TicketArchiver archiver;
+
+    @AfterEach
+    void tearDown() {
+        reset(ticketShards);
+        setTicketsOnDelete(TicketsOnDelete.DELETE);
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            shard(shard).update("delete from Tickets");
+            shard(shard).update("delete from Tickets_Archive");
+        }
+        shard(0).update("delete from Ticket_Shards");
+        shard(0).update("delete from Users");
+        ticketStatistics.reconcile();
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(shards.shard(shard));
+    }
+
+    private List<Long> idsOn(int shard) {
+        return shard(shard).queryForList("select id from Tickets where deleted_at is null order by id", Long.class);
+    }
+
+    private List<Integer> directoryOf(Long id) {
+        return shard(0).queryForList("select shard from Ticket_Shards where id = ?", Integer.class, id);
+    }
+
+    private Long createTicket(String title) {
+        return ticketService.createTicket(new TicketDto(null, title, null, null)).id();
+    }
+
+    /**
+     * Creates users until one lands on the given shard.
+     */
+    private Long createUserOn(int shard) {
+        for (int i = 0; ; i++) {
+            String name = "user-" + shard + "-" + i;
+            Long id = userService.createUser(new UserDto(null, name, name + "@example.com")).id();
+            if (ticketShards.shardOfUser(id) == shard) {
+                return id;
+            }
+        }
+    }
+
+    private void setTicketsOnDelete(TicketsOnDelete ticketsOnDelete) {
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "ticketsOnDelete", ticketsOnDelete);
+    }
+
+    @Test
+    @DisplayName("Should keep unassigned tickets on shard 0 and move assigned ones to the shard of their assignee")
+    void shouldPlaceTicketsByAssignee() {
+        // Given
+        Long alice = createUserOn(1);
+        Long bob = createUserOn(2);
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+        Long laptop = createTicket("Laptop broken");
+        Long badge = createTicket("Badge expired");
+
+        // When
+        ticketService.assignTicket(printer, alice);
+        List<BulkOutcome> outcomes = ticketService.assignTickets(List.of(vpn, laptop, printer, 999_999L), bob);
+
+        // Then
+        assertThat(outcomes).extracting(BulkOutcome::result).containsExactly(
+                BulkOutcome.Result.UPDATED, BulkOutcome.Result.UPDATED,
+                BulkOutcome.Result.ALREADY_ASSIGNED, BulkOutcome.Result.NOT_FOUND);
+        assertThat(idsOn(0)).containsExactly(badge);
+        assertThat(idsOn(1)).containsExactly(printer);
+        assertThat(idsOn(2)).containsExactly(vpn, laptop);
+        assertThat(directoryOf(printer)).containsExactly(1);
+        assertThat(directoryOf(laptop)).containsExactly(2);
+        assertThat(directoryOf(badge)).isEmpty();
+        assertThat(ticketService.findTicketById(printer).title()).isEqualTo("Printer jam");
+        assertThat(ticketService.findTicketVersion(vpn)).isPresent();
+        assertThat(userService.findTicketByUser(bob)).extracting(TicketDto::id).containsExactly(vpn, laptop);
+        assertThat(ticketService.findTicketsByIds(List.of(badge, laptop, printer)).items())
+                .extracting(TicketDto::id).containsExactly(badge, laptop, printer);
+    }
+
+    @Test
+    @DisplayName("Should merge the pages and facets of every shard in id order")
+    void shouldMergeListingAcrossShards() {
+        // Given
+        Long alice = createUserOn(1);
+        Long bob = createUserOn(2);
+        List<Long> ids = IntStream.range(0, 9).mapToObj(i -> createTicket("Ticket " + i)).toList();
+        ticketService.assignTickets(List.of(ids.get(1), ids.get(4), ids.get(7)), alice);
+        ticketService.assignTickets(List.of(ids.get(2), ids.get(5)), bob);
+
+        // When
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TicketDto> page = ticketService.findAllTickets(TicketFilter.NONE, cursor, 2);
+            page.items().forEach(ticket -> listed.add(ticket.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        TicketFacets facets = ticketService.findAllTicketsWithFacets(TicketFilter.NONE, null, 2).facets();
+
+        // Then
+        assertThat(listed).containsExactlyElementsOf(ids);
+        assertThat(facets.total()).isEqualTo(9);
+        assertThat(facets.unassigned()).isEqualTo(4);
+        assertThat(facets.byStatus()).containsEntry(StatusTicket.PENDING, 9L);
+        assertThat(ticketService.findAllTickets(new TicketFilter(null, alice, false), null, 10).items())
+                .extracting(TicketDto::id).containsExactly(ids.get(1), ids.get(4), ids.get(7));
+        assertThat(ticketService.findAllTickets(new TicketFilter(null, null, true), null, 10).items())
+                .extracting(TicketDto::id).containsExactly(ids.get(0), ids.get(3), ids.get(6), ids.get(8));
+    }
+
+    @Test
+    @DisplayName("Should count the tickets of each user on every shard in the user summaries")
+    void shouldSummarizeUsersAcrossShards() {
+        // Given
+        Long alice = createUserOn(1);
+        Long bob = createUserOn(2);
+        Long carol = createUserOn(0);
+        List<Long> ids = IntStream.range(0, 5).mapToObj(i -> createTicket("Ticket " + i)).toList();
+        ticketService.assignTickets(List.of(ids.get(0), ids.get(1)), alice);
+        ticketService.assignTicket(ids.get(2), bob);
+        ticketService.assignTicket(ids.get(3), carol);
+        ticketService.updateTicketsStatus(List.of(ids.get(1), ids.get(3)), StatusTicket.DONE);
+
+        // When
+        List<UserSummaryDto> summaries = userService.findUserSummaries(null, 10).items();
+
+        // Then
+        assertThat(summaries).extracting(UserSummaryDto::id, UserSummaryDto::pending, UserSummaryDto::done)
+                .contains(tuple(alice, 1L, 1L), tuple(bob, 1L, 0L), tuple(carol, 0L, 1L));
+    }
+
+    @Test
+    @DisplayName("Should modify, update and delete tickets on whichever shard holds them")
+    void shouldWriteOnOwningShard() {
+        // Given
+        Long alice = createUserOn(1);
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+        ticketService.assignTicket(printer, alice);
+
+        // When
+        ticketService.modifyTicket(printer, new TicketDto(null, "Printer jammed again", null, null));
+        List<BulkOutcome> outcomes = ticketService.updateTicketsStatus(List.of(printer, vpn), StatusTicket.DONE);
+        ticketService.deleteTicket(vpn);
+
+        // Then
+        assertThat(outcomes).extracting(BulkOutcome::result).containsOnly(BulkOutcome.Result.UPDATED);
+        assertThat(ticketService.findTicketById(printer))
+                .isEqualTo(new TicketDto(printer, "Printer jammed again", null, StatusTicket.DONE));
+        assertThat(idsOn(0)).isEmpty();
+        assertThatThrownBy(() -> ticketService.findTicketById(vpn)).isInstanceOf(TicketNotFoundException.class);
+        assertThatThrownBy(() -> ticketService.deleteTicket(vpn)).isInstanceOf(TicketNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should move the tickets of a deleted user back to shard 0 when unassigning them")
+    void shouldMoveTicketsBackWhenUnassigning() {
+        // Given
+        Long alice = createUserOn(1);
+        Long bob = createUserOn(2);
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+        ticketService.assignTicket(printer, alice);
+        ticketService.assignTicket(vpn, bob);
+
+        // When
+        setTicketsOnDelete(TicketsOnDelete.UNASSIGN);
+        userService.deleteUser(alice);
+        setTicketsOnDelete(TicketsOnDelete.DELETE);
+        userService.deleteUser(bob);
+
+        // Then
+        assertThat(idsOn(0)).containsExactly(printer);
+        assertThat(idsOn(1)).isEmpty();
+        assertThat(idsOn(2)).isEmpty();
+        assertThat(directoryOf(printer)).isEmpty();
+        Long carol = createUserOn(2);
+        ticketService.assignTicket(printer, carol);
+        assertThat(idsOn(2)).containsExactly(printer);
+        assertThat(directoryOf(printer)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should modify a ticket moved to another shard while waiting for its lock")
+    void shouldFollowTicketMovedDuringWrite() throws Exception {
+        // Given
+        Long printer = createTicket("Printer jam");
+        Long version = shard(0).queryForObject("select version from Tickets where id = ?", Long.class, printer);
+        CompletableFuture<TicketDto> modified;
+        try (Connection mover = shards.shard(0).getConnection()) {
+            mover.setAutoCommit(false);
+            JdbcTemplate moving = new JdbcTemplate(new SingleConnectionDataSource(mover, true));
+            moving.queryForList("select id from Tickets where id = ? for update", Long.class, printer);
+
+            // When
+            modified = CompletableFuture.supplyAsync(() ->
+                    ticketService.modifyTicket(printer, new TicketDto(null, "Printer jammed again", null, null)));
+            Thread.sleep(300);
+            assertThat(modified).isNotDone();
+            // Moves the ticket to shard 1 the way TicketShards does: inserted there first, then recorded in
+            // the directory and deleted from shard 0 in the transaction holding its lock
+            shard(1).update("insert into Tickets (id, title, status, version) values (?, 'Printer jam', 'PENDING', ?)",
+                    printer, version);
+            moving.update("insert into Ticket_Shards (id, shard) values (?, 1)", printer);
+            moving.update("delete from Tickets where id = ?", printer);
+            mover.commit();
+        }
+
+        // Then
+        assertThat(modified.get(10, TimeUnit.SECONDS).title()).isEqualTo("Printer jammed again");
+        assertThat(shard(1).queryForObject("select title from Tickets where id = ?", String.class, printer))
+                .isEqualTo("Printer jammed again");
+    }
+
+    @Test
+    @DisplayName("Should keep in the search index a ticket moved while the shards were read")
+    void shouldKeepSearchHitMovedDuringRead() throws Exception {
+        // Given
+        Long printer = createTicket("Printer jam");
+        Long version = shard(0).queryForObject("select version from Tickets where id = ?", Long.class, printer);
+        try (Connection target = shards.shard(1).getConnection()) {
+            target.setAutoCommit(false);
+            new JdbcTemplate(new SingleConnectionDataSource(target, true)).update(
+                    "insert into Tickets (id, title, status, version) values (?, 'Printer jam', 'PENDING', ?)", printer, version);
+            // What the search reads of every shard when it reads shard 1 before the move and shard 0 after
+            // it: the ticket is on neither, then the move commits
+            shard(0).update("insert into Ticket_Shards (id, shard) values (?, 1)", printer);
+            shard(0).update("delete from Tickets where id = ?", printer);
+            doAnswer(invocation -> {
+                Object read = invocation.callRealMethod();
+                target.commit();
+                return read;
+            }).when(ticketShards).onEachShard(anyBoolean(), any());
+
+            // When
+            List<Long> hits = ticketService.searchTickets("printer", null, 10).items().stream()
+                    .map(hit -> hit.ticket().id()).toList();
+
+            // Then
+            assertThat(hits).containsExactly(printer);
+        }
+        assertThat(searchIndex.search("printer", 0, 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should archive the closed tickets of every shard where they are")
+    void shouldArchiveOnEveryShard() {
+        // Given
+        Long alice = createUserOn(1);
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+        ticketService.assignTicket(printer, alice);
+        ticketService.updateTicketsStatus(List.of(printer, vpn), StatusTicket.DONE);
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            shard(shard).update("update Tickets set closed_at = null");
+        }
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isEqualTo(2);
+        assertThat(shard(1).queryForList("select id from Tickets_Archive", Long.class)).containsExactly(printer);
+        assertThat(shard(0).queryForList("select id from Tickets_Archive", Long.class)).containsExactly(vpn);
+        assertThat(ticketService.findTicketById(printer).status()).isEqualTo(StatusTicket.DONE);
+        assertThat(ticketService.findAllTickets(new TicketFilter(null, alice, false), true, null, 10).items())
+                .extracting(TicketDto::id).containsExactly(printer);
+        ticketService.deleteTicket(printer);
+        assertThat(shard(1).queryForList("select id from Tickets_Archive", Long.class)).isEmpty();
+        assertThat(directoryOf(printer)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the statistics and indexes from every shard")
+    void shouldRebuildFromEveryShard() {
+        // Given
+        Long alice = createUserOn(1);
+        Long printer = createTicket("Printer jam");
+        createTicket("VPN down");
+        ticketService.assignTicket(printer, alice);
+        TicketStats followed = ticketStatistics.snapshot();
+
+        // When
+        ticketStatistics.reconcile();
+        searchIndex.rebuild();
+
+        // Then
+        assertThat(ticketStatistics.snapshot()).usingRecursiveComparison().ignoringFields("reconciledAt").isEqualTo(followed);
+        assertThat(ticketStatistics.snapshot().total()).isEqualTo(2);
+        assertThat(ticketService.searchTickets("printer", null, 10).items()).hasSize(1);
+    }
+}
@@ -0,0 +1,57 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.SimilarTitle;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketTitleTrigramIndex;
+import io.ennov.ticket_management.user.TombstonePurger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TicketSimilarTitlesTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private TicketTitleTrigramIndex titleIndex;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        titleIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should suggest the current title of tickets despite typos")
+    void shouldSuggestCurrentTitles() {
+        // Given
+        Long ticketId = ticketService.createTicket(new TicketDto(null, "Conference room projector", null, null)).id();
+
+        // When / Then
+        assertThat(ticketService.findSimilarTitles("confrence projetor", 10, 0.3).items())
+                .extracting(SimilarTitle::id).containsExactly(ticketId);
+
+        ticketService.modifyTicket(ticketId, new TicketDto(null, "Conference room beamer", null, null));
+        assertThat(ticketService.findSimilarTitles("confrence beamr", 10, 0.3).items())
+                .extracting(SimilarTitle::title).containsExactly("Conference room beamer");
+        assertThat(ticketService.findSimilarTitles("projetor", 10, 0.3).items()).isEmpty();
+
+        ticketService.deleteTicket(ticketId);
+        assertThat(ticketService.findSimilarTitles("confrence beamr", 10, 0.3).items()).isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package io.ennov.ticket_management.integration.ticket;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.AssigneeWorkload;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketStats;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+class TicketStatisticsTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketStatistics ticketStatistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        ticketStatistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        userRepository.deleteAllInBatch();
+        ticketStatistics.reconcile();
+    }
+
+    private Long createTicket(String title) {
+        return ticketService.createTicket(new TicketDto(null, title, null, null)).id();
+    }
+
+    /**
+     * The counters, minus the reconciliation time, as a fresh grouped count of the Tickets table has them.
+     */
+    private void assertMatchesDatabase(TicketStats stats) {
+        ticketStatistics.reconcile();
+        TicketStats counted = ticketStatistics.snapshot();
+        assertThat(stats).usingRecursiveComparison().ignoringFields("reconciledAt").isEqualTo(counted);
+    }
+
+    @Test
+    @DisplayName("Should keep the counters in line with the Tickets table through every write path")
+    void shouldFollowEveryWritePath() {
+        // Given
+        Long alice = userService.createUser(new UserDto(null, "alice", "alice@example.com")).id();
+        Long bob = userService.createUser(new UserDto(null, "bob", "bob@example.com")).id();
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+        Long laptop = createTicket("Laptop broken");
+        List<Long> batch = ticketService.createTickets(List.of(
+                new TicketDto(null, "Batch one", null, null),
+                new TicketDto(null, "Batch two", null, StatusTicket.DONE)
+        ));
+
+        // When
+        ticketService.assignTicket(printer, alice);
+        ticketService.assignTickets(List.of(vpn, laptop, printer), bob);
+        ticketService.modifyTicket(vpn, new TicketDto(null, null, null, StatusTicket.DONE));
+        ticketService.updateTicketsStatus(List.of(laptop, batch.get(0)), StatusTicket.CANCEL);
+        ticketService.deleteTicket(batch.get(1));
+        assertThatThrownBy(() -> ticketService.deleteTicket(batch.get(1))).isInstanceOf(TicketNotFoundException.class);
+
+        // Then
+        TicketStats stats = ticketStatistics.snapshot();
+        assertThat(stats.total()).isEqualTo(4);
+        assertThat(stats.byStatus()).isEqualTo(Map.of(StatusTicket.PENDING, 1L, StatusTicket.DONE, 1L, StatusTicket.CANCEL, 2L));
+        assertThat(stats.unassigned()).isEqualTo(Map.of(StatusTicket.PENDING, 0L, StatusTicket.DONE, 0L, StatusTicket.CANCEL, 1L));
+        assertThat(stats.byAssignee()).containsExactly(
+                new AssigneeWorkload(alice, 1, 0, 0),
+                new AssigneeWorkload(bob, 0, 1, 1)
+        );
+        assertMatchesDatabase(stats);
+
+        userService.deleteUser(alice);
+        assertMatchesDatabase(ticketStatistics.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should forget a deleted user along with its tickets")
+    void shouldForgetDeletedUser() {
+        // Given
+        Long carol = userService.createUser(new UserDto(null, "carol", "carol@example.com")).id();
+        ticketService.assignTicket(createTicket("Monitor flickers"), carol);
+
+        // When
+        userService.deleteUser(carol);
+
+        // Then
+        assertThat(ticketStatistics.snapshot().byAssignee()).isEmpty();
+        assertThat(ticketStatistics.snapshot().total()).isZero();
+        assertMatchesDatabase(ticketStatistics.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should serve the statistics without any statement")
+    void shouldServeStatsWithoutStatements() {
+        // Given
+        createTicket("Keyboard missing keys");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // When
+        TicketStats stats = ticketService.getTicketStats();
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        statistics.setStatisticsEnabled(false);
+        assertThat(stats.byStatus()).containsEntry(StatusTicket.PENDING, 1L);
+        assertThat(stats.reconciledAt()).isNotNull();
+    }
+}
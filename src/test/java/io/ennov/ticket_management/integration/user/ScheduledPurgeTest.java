@@ -0,0 +1,87 @@
+package io.ennov.ticket_management.integration.user;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lets the scheduler run the purge, paced to a few rows per second, next to a statistics reconciliation
+ * scheduled every 100 ms.
+ */
+@IntegrationTest
+@TestPropertySource(properties = {
+        "tombstones.purge.interval=PT0.1S",
+        "tombstones.purge.batch-size=1",
+        "tombstones.purge.rate=4",
+        "tickets.stats.reconcile-interval=PT0.1S"
+})
+class ScheduledPurgeTest {
+
+    private static final int TICKETS = 12;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TombstonePurger purger;
+
+    @Autowired
+    private TicketStatistics ticketStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from Tickets");
+        jdbcTemplate.update("delete from Users");
+        ticketStatistics.reconcile();
+    }
+
+    private int tombstones() {
+        return jdbcTemplate.queryForObject("select count(*) from Tickets where deleted_at is not null", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should keep running the other scheduled jobs while a paced purge runs")
+    void shouldRunOtherJobsDuringPurge() throws InterruptedException {
+        // Given
+        Long userId = userService.createUser(new UserDto(null, "alice", "alice@example.com")).id();
+        for (int i = 0; i < TICKETS; i++) {
+            Long id = ticketService.createTicket(new TicketDto(null, "Ticket " + i, null, null)).id();
+            ticketService.assignTicket(id, userId);
+        }
+        // Turns every ticket into a tombstone at once, for a single scheduled run to purge them all
+        userService.deleteUser(userId);
+        for (int waited = 0; tombstones() == TICKETS && waited < 5_000; waited += 20) {
+            Thread.sleep(20);
+        }
+
+        // When
+        Instant reconciled = ticketStatistics.snapshot().reconciledAt();
+        Thread.sleep(500);
+
+        // Then
+        assertThat(tombstones()).isBetween(1, TICKETS - 1);
+        assertThat(ticketStatistics.snapshot().reconciledAt()).isAfter(reconciled);
+        purger.purge();
+        assertThat(tombstones()).isZero();
+    }
+}
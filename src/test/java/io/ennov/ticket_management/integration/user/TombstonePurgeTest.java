@@ -0,0 +1,142 @@
+package io.ennov.ticket_management.integration.user;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.user.TicketsOnDelete;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserNotFoundException;
+import io.ennov.ticket_management.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+@TestPropertySource(properties = "tombstones.purge.batch-size=2")
+class TombstonePurgeTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TombstonePurger purger;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketStatistics ticketStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        setTicketsOnDelete(TicketsOnDelete.DELETE);
+        jdbcTemplate.update("delete from Tickets");
+        jdbcTemplate.update("delete from Users");
+        ticketStatistics.reconcile();
+    }
+
+    private void setTicketsOnDelete(TicketsOnDelete ticketsOnDelete) {
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "ticketsOnDelete", ticketsOnDelete);
+    }
+
+    private Long createTicket(String title) {
+        return ticketService.createTicket(new TicketDto(null, title, null, null)).id();
+    }
+
+    private Long createUser(String username) {
+        return userService.createUser(new UserDto(null, username, username + "@example.com")).id();
+    }
+
+    private List<Long> tombstones(String table) {
+        return jdbcTemplate.queryForList("select id from " + table + " where deleted_at is not null order by id", Long.class);
+    }
+
+    @Test
+    @DisplayName("Should keep a deleted ticket as a tombstone hidden from every query")
+    void shouldHideDeletedTicket() {
+        // Given
+        Long alice = createUser("alice");
+        Long printer = createTicket("Printer jam");
+        Long vpn = createTicket("VPN down");
+
+        // When
+        ticketService.deleteTicket(printer);
+
+        // Then
+        assertThat(tombstones("Tickets")).containsExactly(printer);
+        assertThatThrownBy(() -> ticketService.findTicketById(printer)).isInstanceOf(TicketNotFoundException.class);
+        assertThatThrownBy(() -> ticketService.deleteTicket(printer)).isInstanceOf(TicketNotFoundException.class);
+        assertThatThrownBy(() -> ticketService.assignTicket(printer, alice)).isInstanceOf(TicketNotFoundException.class);
+        assertThat(ticketService.findAllTickets(TicketFilter.NONE, null, 10).items())
+                .extracting(TicketDto::id).containsExactly(vpn);
+        assertThat(ticketRepository.count()).isEqualTo(1);
+        assertThat(ticketService.getTicketStats().total()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a deleted user and its tickets as tombstones, freeing its username and email")
+    void shouldHideDeletedUser() {
+        // Given
+        Long alice = createUser("alice");
+        Long printer = createTicket("Printer jam");
+        ticketService.assignTicket(printer, alice);
+
+        // When
+        userService.deleteUser(alice);
+
+        // Then
+        assertThat(tombstones("Users")).containsExactly(alice);
+        assertThat(tombstones("Tickets")).containsExactly(printer);
+        assertThatThrownBy(() -> userService.findTicketByUser(alice)).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.deleteUser(alice)).isInstanceOf(UserNotFoundException.class);
+        assertThat(userService.findAllUsers()).isEmpty();
+        assertThat(createUser("alice")).isNotEqualTo(alice);
+    }
+
+    @Test
+    @DisplayName("Should physically remove the tombstones in batches, tickets before their users")
+    void shouldPurgeTombstones() {
+        // Given
+        Long alice = createUser("alice");
+        Long bob = createUser("bob");
+        List<Long> tickets = IntStream.range(0, 5).mapToObj(i -> createTicket("Ticket " + i)).toList();
+        ticketService.assignTickets(tickets.subList(0, 3), alice);
+        ticketService.deleteTicket(tickets.get(3));
+        userService.deleteUser(alice);
+        setTicketsOnDelete(TicketsOnDelete.UNASSIGN);
+        userService.deleteUser(bob);
+
+        // When
+        int purged = purger.purge();
+
+        // Then
+        assertThat(purged).isEqualTo(6);
+        assertThat(tombstones("Tickets")).isEmpty();
+        assertThat(tombstones("Users")).isEmpty();
+        assertThat(jdbcTemplate.queryForList("select id from Tickets", Long.class)).containsExactly(tickets.get(4));
+        assertThat(purger.purge()).isZero();
+    }
+}
@@ -0,0 +1,110 @@
+package io.ennov.ticket_management.integration.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@IntegrationTest
+@AutoConfigureMockMvc
+class UserCreationConcurrencyTest {
+
+    private static final int CONTENDERS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    private MockHttpServletResponse createUser(String username, String email) throws Exception {
+        return mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDto(null, username, email))))
+                .andReturn().getResponse();
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("Should let exactly one of many concurrent signups with the same username win")
+    void shouldLetExactlyOneConcurrentSignupWin() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> attempts = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            String email = "hammer" + i + "@example.com";
+            Callable<MockHttpServletResponse> attempt = () -> {
+                start.await();
+                return createUser("hammered", email);
+            };
+            attempts.add(executor.submit(attempt));
+        }
+
+        // When
+        start.countDown();
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (Future<MockHttpServletResponse> attempt : attempts) {
+            responses.add(attempt.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(responses).filteredOn(response -> response.getStatus() == 201).hasSize(1);
+        assertThat(responses).filteredOn(response -> response.getStatus() == 409)
+                .hasSize(CONTENDERS - 1)
+                .allSatisfy(response -> assertThat(response.getContentAsString()).startsWith("Username already exists"));
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 for a taken email, on creation and on modification")
+    void shouldRejectTakenEmail() throws Exception {
+        // Given
+        createUser("first", "shared@example.com");
+        User second = userRepository.save(User.builder().username("second").email("second@example.com").build());
+
+        // When
+        MockHttpServletResponse created = createUser("third", "shared@example.com");
+        MockHttpServletResponse modified = mockMvc.perform(put("/users/{id}", second.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDto(null, null, "shared@example.com"))))
+                .andReturn().getResponse();
+
+        // Then
+        assertThat(created.getStatus()).isEqualTo(409);
+        assertThat(created.getContentAsString()).startsWith("Email already exists");
+        assertThat(modified.getStatus()).isEqualTo(409);
+        assertThat(modified.getContentAsString()).isEqualTo("Email already exists");
+    }
+}
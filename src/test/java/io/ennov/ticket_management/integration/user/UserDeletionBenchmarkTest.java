@@ -0,0 +1,142 @@
+package io.ennov.ticket_management.integration.user;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.user.TicketsOnDelete;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deletes a user owning many tickets through the {@code ticketList} cascade and through
+ * {@link UserService#deleteUser}, and logs the statements and time each one takes. Tagged "benchmark",
+ * so only {@code mvn test -Pbenchmark} runs it.
+ */
+@Slf4j
+@Tag("benchmark")
+@IntegrationTest
+class UserDeletionBenchmarkTest {
+
+    private static final int TICKETS = 5_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        setTicketsOnDelete(TicketsOnDelete.DELETE);
+        ticketRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+        userRepository.deleteAllInBatch();
+    }
+
+    private void setTicketsOnDelete(TicketsOnDelete ticketsOnDelete) {
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "ticketsOnDelete", ticketsOnDelete);
+    }
+
+    private Long userWithTickets(String username) {
+        User user = userRepository.save(User.builder().username(username).email(username + "@example.com").build());
+        ticketRepository.saveAll(IntStream.range(0, TICKETS)
+                .mapToObj(i -> Ticket.builder().title("Ticket " + i).status(StatusTicket.PENDING).user(user).build())
+                .toList());
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return user.getId();
+    }
+
+    private long timed(Runnable deletion) {
+        long start = System.nanoTime();
+        deletion.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    @DisplayName("Should delete the tickets with one statement where the cascade needs one per ticket")
+    void shouldDeleteFasterThanCascade() {
+        // Given
+        Long cascadeUserId = userWithTickets("cascade");
+
+        // When
+        long cascadeMillis = timed(() -> transactionTemplate.executeWithoutResult(
+                status -> userRepository.delete(userRepository.findById(cascadeUserId).orElseThrow())));
+        long cascadeStatements = statistics.getPrepareStatementCount();
+        long cascadeDeletes = statistics.getEntityDeleteCount();
+
+        Long bulkUserId = userWithTickets("bulk");
+        long bulkMillis = timed(() -> userService.deleteUser(bulkUserId));
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        log.info("Deleting a user with {} tickets: cascade {} ms / {} statements, bulk {} ms / {} statements",
+                TICKETS, cascadeMillis, cascadeStatements, bulkMillis, bulkStatements);
+        assertThat(cascadeDeletes).isEqualTo(TICKETS + 1);
+        // Tickets, archived tickets and user
+        assertThat(bulkStatements).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(ticketRepository.count()).isZero();
+        assertThat(userRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should unassign the tickets, live and archived, with one statement each and keep them")
+    void shouldUnassignTickets() {
+        // Given
+        setTicketsOnDelete(TicketsOnDelete.UNASSIGN);
+        Long userId = userWithTickets("unassigned");
+
+        // When
+        long millis = timed(() -> userService.deleteUser(userId));
+
+        // Then
+        log.info("Deleting a user and unassigning its {} tickets: {} ms / {} statements",
+                TICKETS, millis, statistics.getPrepareStatementCount());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(userRepository.count()).isZero();
+        assertThat(ticketRepository.count()).isEqualTo(TICKETS);
+        assertThat(ticketRepository.findAll()).allSatisfy(ticket -> assertThat(ticket.getUser()).isNull());
+    }
+}
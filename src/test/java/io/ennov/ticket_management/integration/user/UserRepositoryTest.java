@@ -0,0 +1,90 @@
+package io.ennov.ticket_management.integration.user;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.Ticket;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserSummaryDto;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(User.builder().username("alice").email("alice@example.com").build());
+        bob = entityManager.persist(User.builder().username("bob").email("bob@example.com").build());
+        carol = entityManager.persist(User.builder().username("carol").email("carol@example.com").build());
+        persistTicket(StatusTicket.PENDING, alice);
+        persistTicket(StatusTicket.PENDING, alice);
+        persistTicket(StatusTicket.DONE, alice);
+        persistTicket(StatusTicket.CANCEL, carol);
+        persistTicket(StatusTicket.PENDING, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistTicket(StatusTicket status, User user) {
+        entityManager.persist(Ticket.builder()
+                .title(status + " ticket")
+                .status(status)
+                .user(user)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should count tickets per status for every user, including users without tickets")
+    void shouldCountTicketsPerStatus() {
+        // When
+        List<UserSummaryDto> result = userRepository.findSummaryPage(0L, Limit.of(10));
+
+        // Then
+        assertThat(result).containsExactly(
+                new UserSummaryDto(alice.getId(), "alice", "alice@example.com", 2, 1, 0),
+                new UserSummaryDto(bob.getId(), "bob", "bob@example.com", 0, 0, 0),
+                new UserSummaryDto(carol.getId(), "carol", "carol@example.com", 0, 0, 1)
+        );
+    }
+
+    @Test
+    @DisplayName("Should page summaries by id after the given user")
+    void shouldPageSummaries() {
+        // When
+        List<UserSummaryDto> result = userRepository.findSummaryPage(alice.getId(), Limit.of(1));
+
+        // Then
+        assertThat(result).extracting(UserSummaryDto::id).containsExactly(bob.getId());
+    }
+
+    @Test
+    @DisplayName("Should not load the tickets of a user fetched by id")
+    void shouldLoadTicketListLazily() {
+        // When
+        User user = userRepository.findById(alice.getId()).orElseThrow();
+
+        // Then
+        assertThat(Hibernate.isInitialized(user.getTicketList())).isFalse();
+        assertThat(user.getTicketList()).hasSize(3);
+    }
+}
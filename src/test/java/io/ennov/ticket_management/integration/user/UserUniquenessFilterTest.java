@@ -0,0 +1,96 @@
+package io.ennov.ticket_management.integration.user;
+
+import io.ennov.ticket_management.integration.IntegrationTest;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserDto;
+import io.ennov.ticket_management.user.UserRepository;
+import io.ennov.ticket_management.user.UserService;
+import io.ennov.ticket_management.user.UserUniquenessFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class UserUniquenessFilterTest {
+
+    @Autowired
+    private UserUniquenessFilter uniquenessFilter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder().username("existing").email("existing@example.com").build());
+        uniquenessFilter.warmUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        tombstonePurger.purge();
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should be warmed from the Users table and learn created users")
+    void shouldKnowExistingAndCreatedUsers() {
+        assertThat(uniquenessFilter.mightContainUsername("existing")).isTrue();
+        assertThat(uniquenessFilter.mightContainEmail("existing@example.com")).isTrue();
+        assertThat(uniquenessFilter.mightContainUsername("newcomer")).isFalse();
+
+        userService.createUser(new UserDto(null, "newcomer", "newcomer@example.com"));
+
+        assertThat(uniquenessFilter.mightContainUsername("newcomer")).isTrue();
+        assertThat(uniquenessFilter.mightContainEmail("newcomer@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip the database on a definite miss and count it")
+    void shouldCountSkippedChecks() {
+        double skipped = counter("users.uniqueness.filter.checks", "field", "username", "result", "skipped");
+        double queried = counter("users.uniqueness.filter.checks", "field", "username", "result", "queried");
+
+        userService.createUser(new UserDto(null, "fresh", "fresh@example.com"));
+
+        assertThat(counter("users.uniqueness.filter.checks", "field", "username", "result", "skipped")).isEqualTo(skipped + 1);
+        assertThat(counter("users.uniqueness.filter.checks", "field", "username", "result", "queried")).isEqualTo(queried);
+    }
+
+    @Test
+    @DisplayName("Should rebuild once too many entries are stale, and expose rebuilds and expected false positive rate")
+    void shouldRebuildWhenDegraded() {
+        double rebuilds = counter("users.uniqueness.filter.rebuilds");
+        Long userId = userRepository.findAll().get(0).getId();
+
+        uniquenessFilter.rebuildIfDegraded();
+        assertThat(counter("users.uniqueness.filter.rebuilds")).isEqualTo(rebuilds);
+
+        userService.deleteUser(userId);
+        assertThat(uniquenessFilter.mightContainUsername("existing")).isTrue();
+        uniquenessFilter.rebuildIfDegraded();
+
+        assertThat(counter("users.uniqueness.filter.rebuilds")).isEqualTo(rebuilds + 1);
+        assertThat(uniquenessFilter.mightContainUsername("existing")).isFalse();
+        assertThat(meterRegistry.get("users.uniqueness.filter.expected.fpp").tag("field", "email").gauge().value())
+                .isBetween(0.0, 0.01);
+    }
+}
@@ -0,0 +1,72 @@
+package io.ennov.ticket_management.unit.shared;
+
+import io.ennov.ticket_management.shared.BloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should always report inserted values")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        // Then
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("user" + i + "@example.com"));
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Should report absent values at about the configured false positive rate")
+    void shouldKeepFalsePositiveRateNearConfiguredOne() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("taken" + i));
+
+        // When
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("free" + i)).count();
+
+        // Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    @DisplayName("Should expect a higher false positive rate once filled beyond capacity")
+    void shouldDegradeBeyondCapacity() {
+        // Given
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        // When
+        IntStream.range(0, 5_000).forEach(i -> filter.put("value" + i));
+
+        // Then
+        assertThat(filter.expectedFalsePositiveRate()).isGreaterThan(0.1);
+    }
+
+    @Test
+    @DisplayName("Should report nothing when empty")
+    void shouldBeEmptyInitially() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("anything")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizing")
+    void shouldRejectInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package io.ennov.ticket_management.unit.shared;
+
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+    @Test
+    @DisplayName("Should round-trip an id through the cursor")
+    void shouldRoundTripIdThroughCursor() {
+        // Given
+        String cursor = CursorPage.encodeCursor(12345L);
+
+        // When/Then
+        assertThat(cursor).doesNotContain("12345");
+        assertThat(CursorPage.decodeCursor(cursor)).isEqualTo(12345L);
+    }
+
+    @Test
+    @DisplayName("Should start before the first id when no cursor is given")
+    void shouldStartBeforeFirstIdWithoutCursor() {
+        // Given/When/Then
+        assertThat(CursorPage.decodeCursor(null)).isZero();
+        assertThat(CursorPage.decodeCursor("")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        // Given/When/Then
+        assertThatThrownBy(() -> CursorPage.decodeCursor("%%%"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> CursorPage.decodeCursor(CursorPage.encodeCursor(1L) + "x"))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should trim the look-ahead row and point the cursor at the last item")
+    void shouldTrimLookAheadRow() {
+        // Given
+        List<Long> rows = List.of(4L, 7L, 9L);
+
+        // When
+        CursorPage<Long> page = CursorPage.of(rows, 2, Function.identity());
+
+        // Then
+        assertThat(page.items()).containsExactly(4L, 7L);
+        assertThat(CursorPage.decodeCursor(page.nextCursor())).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should have no next cursor on the last page")
+    void shouldHaveNoNextCursorOnLastPage() {
+        // Given/When
+        CursorPage<Long> page = CursorPage.of(List.of(4L, 7L), 2, Function.identity());
+
+        // Then
+        assertThat(page.items()).containsExactly(4L, 7L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should validate the limit range")
+    void shouldValidateLimitRange() {
+        // Given/When/Then
+        assertThat(CursorPage.checkLimit(1)).isEqualTo(1);
+        assertThat(CursorPage.checkLimit(CursorPage.MAX_LIMIT)).isEqualTo(CursorPage.MAX_LIMIT);
+        assertThatThrownBy(() -> CursorPage.checkLimit(0)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> CursorPage.checkLimit(CursorPage.MAX_LIMIT + 1)).isInstanceOf(InvalidRequestException.class);
+    }
+}
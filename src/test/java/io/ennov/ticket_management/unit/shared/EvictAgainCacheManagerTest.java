@@ -0,0 +1,60 @@
+package io.ennov.ticket_management.unit.shared;
+
+import io.ennov.ticket_management.shared.EvictAgainCacheManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvictAgainCacheManagerTest {
+
+    private final EvictAgainCacheManager cacheManager = new EvictAgainCacheManager(Duration.ofMillis(100));
+
+    private static void awaitEmpty(Cache cache) throws InterruptedException {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> entries = ((CaffeineCache) cache).getNativeCache();
+        for (int i = 0; i < 100 && entries.estimatedSize() > 0; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict again after the delay the entry a late read refilled")
+    void shouldEvictAgainAfterDelay() throws InterruptedException {
+        // Given
+        Cache cache = cacheManager.getCache("tickets");
+        cache.put(1L, "current");
+
+        // When
+        cache.evict(1L);
+        cache.put(1L, "stale");
+
+        // Then
+        assertThat(cache.get(1L, String.class)).isEqualTo("stale");
+        awaitEmpty(cache);
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should clear again after the delay")
+    void shouldClearAgainAfterDelay() throws InterruptedException {
+        // Given
+        cacheManager.setCacheNames(List.of("tickets"));
+        Cache cache = cacheManager.getCache("tickets");
+        cache.put(1L, "current");
+
+        // When
+        cache.clear();
+        cache.put(2L, "stale");
+
+        // Then
+        assertThat(cache.get(2L, String.class)).isEqualTo("stale");
+        awaitEmpty(cache);
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache).isInstanceOf(CaffeineCache.class);
+    }
+}
@@ -1,20 +1,25 @@
 package io.ennov.ticket_management.unit.shared.handlerException;
 
 import io.ennov.ticket_management.shared.ConflictAssignException;
+import io.ennov.ticket_management.shared.InvalidRequestException;
 import io.ennov.ticket_management.shared.handlerException.ApiResponse;
 import io.ennov.ticket_management.shared.handlerException.ExceptionManager;
 import io.ennov.ticket_management.ticket.TicketNotFoundException;
 import io.ennov.ticket_management.user.EmailAlreadyExistsException;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import io.ennov.ticket_management.user.UsernameAlreadyExistsException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -121,6 +126,71 @@ public class ExceptionManagerTest {
         }
     }
 
+    @Nested
+    @DisplayName("InvalidRequestException Tests")
+    class InvalidRequestExceptionTests {
+        @Test
+        @DisplayName("Should handle InvalidRequestException")
+        void shouldHandleInvalidRequestException() {
+            // Given
+            InvalidRequestException ex = new InvalidRequestException("Invalid cursor: abc");
+
+            // When
+            ResponseEntity<Object> response = exceptionManager.handleInvalidRequestException(ex, webRequest);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).isEqualTo("Invalid cursor: abc");
+        }
+    }
+
+    @Nested
+    @DisplayName("DataIntegrityViolationException Tests")
+    class DataIntegrityViolationExceptionTests {
+
+        private DataIntegrityViolationException violationOf(String constraintName) {
+            SQLException sqlException = new SQLException("Unique index or primary key violation", "23505");
+            return new DataIntegrityViolationException("could not execute statement",
+                    new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+        }
+
+        @Test
+        @DisplayName("Should answer a username constraint violation as an existing username")
+        void shouldTranslateUsernameViolation() {
+            // When
+            ResponseEntity<Object> response = exceptionManager.handleDataIntegrityViolation(
+                    violationOf("PUBLIC.UK_USERS_USERNAME_INDEX_4"), webRequest);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).isEqualTo("Username already exists");
+        }
+
+        @Test
+        @DisplayName("Should answer an email constraint violation as an existing email")
+        void shouldTranslateEmailViolation() {
+            // When
+            ResponseEntity<Object> response = exceptionManager.handleDataIntegrityViolation(
+                    violationOf("uk_users_email"), webRequest);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).isEqualTo("Email already exists");
+        }
+
+        @Test
+        @DisplayName("Should answer other violations as unexpected errors")
+        void shouldHandleOtherViolationsAsUnexpected() {
+            // When
+            ResponseEntity<Object> response = exceptionManager.handleDataIntegrityViolation(
+                    new DataIntegrityViolationException("Referential integrity constraint violation"), webRequest);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(response.getBody()).isInstanceOf(ApiResponse.class);
+        }
+    }
+
     @Nested
     @DisplayName("General Exception Tests")
     class GeneralExceptionTests {
@@ -0,0 +1,139 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketArchiver;
+import io.ennov.ticket_management.ticket.TicketCount;
+import io.ennov.ticket_management.ticket.TicketDuplicateDetector;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketSearchIndex;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketTitleTrigramIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketArchiverTest {
+
+    private static final Duration MIN_AGE = Duration.ofDays(30);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private ArchivedTicketRepository archivedTicketRepository;
+
+    @Mock
+    private TicketShards shards;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TicketStatistics statistics;
+
+    @Mock
+    private TicketSearchIndex searchIndex;
+
+    @Mock
+    private TicketTitleTrigramIndex titleIndex;
+
+    @Mock
+    private TicketDuplicateDetector duplicateDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archiver = archiver(2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(shards.onEachShard(anyBoolean(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Supplier<Collection<?>>>getArgument(1).get()));
+    }
+
+    private TicketArchiver archiver(int batchSize) {
+        return new TicketArchiver(ticketRepository, archivedTicketRepository, shards, transactionTemplate,
+                statistics, searchIndex, titleIndex, duplicateDetector, meterRegistry, MIN_AGE, batchSize);
+    }
+
+    @Test
+    @DisplayName("Should archive batch after batch until no closed ticket is old enough")
+    void shouldArchiveInBatches() {
+        // Given
+        List<TicketCount> firstCounts = List.of(new TicketCount(null, StatusTicket.DONE, 2));
+        List<TicketCount> secondCounts = List.of(new TicketCount(7L, StatusTicket.CANCEL, 1));
+        when(ticketRepository.lockArchivableIds(any(Instant.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(ticketRepository.countByUserAndStatusByIdIn(List.of(1L, 2L))).thenReturn(firstCounts);
+        when(ticketRepository.countByUserAndStatusByIdIn(List.of(3L))).thenReturn(secondCounts);
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        verify(archivedTicketRepository).copyAllByIdIn(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(archivedTicketRepository).copyAllByIdIn(eq(List.of(3L)), any(Instant.class));
+        verify(ticketRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(ticketRepository).deleteAllByIdIn(List.of(3L));
+        verify(statistics).changed(firstCounts, List.of());
+        verify(statistics).changed(secondCounts, List.of());
+        verify(searchIndex).removeAll(List.of(1L, 2L));
+        verify(titleIndex).removeAll(List.of(3L));
+        verify(duplicateDetector).removeAll(List.of(3L));
+        verify(transactionTemplate, times(3)).execute(any());
+        assertThat(meterRegistry.counter("tickets.archived").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should only archive the tickets closed for longer than the minimum age")
+    void shouldArchiveTicketsOlderThanMinAge() {
+        // Given
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        when(ticketRepository.lockArchivableIds(cutoff.capture(), any())).thenReturn(List.of());
+        Instant before = Instant.now();
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isZero();
+        assertThat(cutoff.getValue()).isBetween(before.minus(MIN_AGE), Instant.now().minus(MIN_AGE));
+        verifyNoInteractions(archivedTicketRepository, statistics, searchIndex);
+    }
+
+    @Test
+    @DisplayName("Should reject a batch size that is not positive")
+    void shouldRejectInvalidBatchSize() {
+        assertThatThrownBy(() -> archiver(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tickets.archive.batch-size");
+    }
+}
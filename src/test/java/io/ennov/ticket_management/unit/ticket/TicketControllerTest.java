@@ -2,11 +2,30 @@ package io.ennov.ticket_management.unit.ticket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.ennov.ticket_management.shared.AssignedDto;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
+import io.ennov.ticket_management.ticket.AssigneeCount;
+import io.ennov.ticket_management.ticket.AssigneeWorkload;
+import io.ennov.ticket_management.ticket.BulkAssignRequest;
+import io.ennov.ticket_management.ticket.BulkOutcome;
+import io.ennov.ticket_management.ticket.BulkStatusRequest;
+import io.ennov.ticket_management.ticket.SimilarTitle;
+import io.ennov.ticket_management.ticket.SimilarTitles;
+import io.ennov.ticket_management.ticket.DuplicateTicketException;
+import io.ennov.ticket_management.ticket.FacetedTicketPage;
 import io.ennov.ticket_management.ticket.TicketController;
+import io.ennov.ticket_management.ticket.TicketCreation;
 import io.ennov.ticket_management.ticket.StatusTicket;
 import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketFacets;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import io.ennov.ticket_management.ticket.TicketLookup;
+import io.ennov.ticket_management.ticket.TicketArchivedException;
 import io.ennov.ticket_management.ticket.TicketNotFoundException;
+import io.ennov.ticket_management.ticket.TicketSearchHit;
 import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.VersionedTicket;
+import io.ennov.ticket_management.ticket.TicketStats;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,14 +33,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.function.Consumer;
+
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,7 +76,8 @@ class TicketControllerTest {
             TicketDto inputDto = new TicketDto(null, "New Ticket", "Description", StatusTicket.PENDING);
             TicketDto outputDto = new TicketDto(1L, "New Ticket", "Description", StatusTicket.PENDING);
 
-            when(ticketService.createTicket(any(TicketDto.class))).thenReturn(outputDto);
+            when(ticketService.createTicketReportingDuplicates(any(TicketDto.class)))
+                    .thenReturn(new TicketCreation(outputDto, List.of()));
 
             // When & Then
             mockMvc.perform(post("/tickets")
@@ -60,7 +88,42 @@ class TicketControllerTest {
                     .andExpect(jsonPath("$.id").value(1))
                     .andExpect(jsonPath("$.title").value("New Ticket"))
                     .andExpect(jsonPath("$.description").value("Description"))
-                    .andExpect(jsonPath("$.status").value("PENDING"));
+                    .andExpect(jsonPath("$.status").value("PENDING"))
+                    .andExpect(header().doesNotExist(TicketController.DUPLICATE_OF_HEADER));
+        }
+
+        @Test
+        @DisplayName("Should flag the likely duplicates of the new ticket")
+        void shouldFlagDuplicates() throws Exception {
+            // Given
+            TicketDto inputDto = new TicketDto(null, "Disk full on db-1", null, null);
+            when(ticketService.createTicketReportingDuplicates(any(TicketDto.class)))
+                    .thenReturn(new TicketCreation(new TicketDto(9L, "Disk full on db-1", null, StatusTicket.PENDING), List.of(4L, 7L)));
+
+            // When & Then
+            mockMvc.perform(post("/tickets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(inputDto)))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(TicketController.DUPLICATE_OF_HEADER, "4,7"))
+                    .andExpect(jsonPath("$.id").value(9));
+        }
+
+        @Test
+        @DisplayName("Should return 409 with the duplicated tickets when duplicates are rejected")
+        void shouldRejectDuplicates() throws Exception {
+            // Given
+            TicketDto inputDto = new TicketDto(null, "Disk full on db-1", null, null);
+            when(ticketService.createTicketReportingDuplicates(any(TicketDto.class)))
+                    .thenThrow(new DuplicateTicketException(List.of(4L)));
+
+            // When & Then
+            mockMvc.perform(post("/tickets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(inputDto)))
+                    .andExpect(status().isConflict())
+                    .andExpect(header().string(TicketController.DUPLICATE_OF_HEADER, "4"))
+                    .andExpect(content().string("Likely duplicate of tickets: [4]"));
         }
 
         @Test
@@ -69,7 +132,7 @@ class TicketControllerTest {
             // Given
             TicketDto inputDto = new TicketDto(null, "New Ticket", "Description", null);
 
-            when(ticketService.createTicket(any(TicketDto.class))).thenThrow(new RuntimeException("Service Error"));
+            when(ticketService.createTicketReportingDuplicates(any(TicketDto.class))).thenThrow(new RuntimeException("Service Error"));
 
             // When & Then
             mockMvc.perform(post("/tickets")
@@ -79,53 +142,212 @@ class TicketControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Create Tickets In Batch Tests")
+    class CreateTicketsTests {
+
+        @Test
+        @DisplayName("Should create tickets in batch and return their ids")
+        void shouldCreateTicketsInBatch() throws Exception {
+            // Given
+            List<TicketDto> inputDtos = List.of(
+                    new TicketDto(null, "Ticket 1", "Description 1", null),
+                    new TicketDto(null, "Ticket 2", "Description 2", StatusTicket.DONE)
+            );
+            when(ticketService.createTickets(inputDtos)).thenReturn(List.of(51L, 52L));
+
+            // When & Then
+            mockMvc.perform(post("/tickets/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(inputDtos)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(jsonPath("$[0]").value(51))
+                    .andExpect(jsonPath("$[1]").value(52));
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for an invalid batch")
+        void shouldReturn400ForInvalidBatch() throws Exception {
+            // Given
+            when(ticketService.createTickets(List.of()))
+                    .thenThrow(new InvalidRequestException("A batch must contain between 1 and 10000 tickets: 0"));
+
+            // When & Then
+            mockMvc.perform(post("/tickets/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("Get All Tickets Tests")
     class GetAllTicketsTests {
 
         @Test
-        @DisplayName("Should return all tickets")
-        void shouldReturnAllTickets() throws Exception {
+        @DisplayName("Should return first page of tickets with next cursor")
+        void shouldReturnFirstPageOfTickets() throws Exception {
             // Given
             List<TicketDto> tickets = Arrays.asList(
                     new TicketDto(1L, "Ticket 1", "Description 1", StatusTicket.PENDING),
                     new TicketDto(2L, "Ticket 2", "Description 2", StatusTicket.DONE)
             );
-            when(ticketService.findAllTickets()).thenReturn(tickets);
+            when(ticketService.findAllTickets(TicketFilter.NONE, false, null, 2)).thenReturn(new CursorPage<>(tickets, "Mg"));
 
             // When & Then
             mockMvc.perform(get("/tickets")
+                            .param("limit", "2")
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$").isArray())
-                    .andExpect(jsonPath("$.length()").value(2))
-                    .andExpect(jsonPath("$[0].id").value(1))
-                    .andExpect(jsonPath("$[0].title").value("Ticket 1"))
-                    .andExpect(jsonPath("$[1].id").value(2))
-                    .andExpect(jsonPath("$[1].title").value("Ticket 2"));
+                    .andExpect(jsonPath("$.items").isArray())
+                    .andExpect(jsonPath("$.items.length()").value(2))
+                    .andExpect(jsonPath("$.items[0].id").value(1))
+                    .andExpect(jsonPath("$.items[0].title").value("Ticket 1"))
+                    .andExpect(jsonPath("$.items[1].id").value(2))
+                    .andExpect(jsonPath("$.items[1].title").value("Ticket 2"))
+                    .andExpect(jsonPath("$.nextCursor").value("Mg"));
         }
 
         @Test
-        @DisplayName("Should return empty list when no tickets exist")
-        void shouldReturnEmptyListWhenNoTicketsExist() throws Exception {
+        @DisplayName("Should pass cursor and default limit to the service")
+        void shouldPassCursorAndDefaultLimit() throws Exception {
             // Given
-            when(ticketService.findAllTickets()).thenReturn(Collections.emptyList());
+            when(ticketService.findAllTickets(TicketFilter.NONE, false, "Mg", 50)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
             // When & Then
             mockMvc.perform(get("/tickets")
+                            .param("after", "Mg")
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$").isArray())
-                    .andExpect(jsonPath("$.length()").value(0));
+                    .andExpect(jsonPath("$.items.length()").value(0))
+                    .andExpect(jsonPath("$.nextCursor").isEmpty());
+
+            verify(ticketService).findAllTickets(TicketFilter.NONE, false, "Mg", 50);
+        }
+
+        @Test
+        @DisplayName("Should filter tickets by status and assignee")
+        void shouldFilterTicketsByStatusAndAssignee() throws Exception {
+            // Given
+            TicketFilter filter = new TicketFilter(StatusTicket.PENDING, 7L, false);
+            TicketDto ticketDto = new TicketDto(3L, "Ticket 3", "Description 3", StatusTicket.PENDING);
+            when(ticketService.findAllTickets(filter, false, null, 50)).thenReturn(new CursorPage<>(List.of(ticketDto), null));
+
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("status", "PENDING")
+                            .param("userId", "7")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(3));
+
+            verify(ticketService).findAllTickets(filter, false, null, 50);
+        }
+
+        @Test
+        @DisplayName("Should add the facet counts of the filter when asked to")
+        void shouldAddFacets() throws Exception {
+            // Given
+            TicketFilter filter = new TicketFilter(StatusTicket.PENDING, null, false);
+            TicketFacets facets = new TicketFacets(5, Map.of(StatusTicket.PENDING, 5L), 2, List.of(new AssigneeCount(7L, 3)));
+            when(ticketService.findAllTicketsWithFacets(filter, false, null, 50))
+                    .thenReturn(new FacetedTicketPage(List.of(new TicketDto(3L, "Ticket 3", null, StatusTicket.PENDING)), null, facets));
+
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("status", "PENDING")
+                            .param("facets", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(3))
+                    .andExpect(jsonPath("$.facets.total").value(5))
+                    .andExpect(jsonPath("$.facets.byStatus.PENDING").value(5))
+                    .andExpect(jsonPath("$.facets.unassigned").value(2))
+                    .andExpect(jsonPath("$.facets.byAssignee[0].userId").value(7))
+                    .andExpect(jsonPath("$.facets.byAssignee[0].count").value(3));
+            verify(ticketService, never()).findAllTickets(any(), anyBoolean(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should include the archived tickets only when asked to")
+        void shouldIncludeArchivedTickets() throws Exception {
+            // Given
+            TicketFilter filter = new TicketFilter(StatusTicket.DONE, null, false);
+            TicketDto archived = new TicketDto(3L, "Ticket 3", null, StatusTicket.DONE);
+            when(ticketService.findAllTickets(filter, true, null, 50)).thenReturn(new CursorPage<>(List.of(archived), null));
+
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("status", "DONE")
+                            .param("includeArchived", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(3));
+
+            verify(ticketService).findAllTickets(filter, true, null, 50);
+        }
+
+        @Test
+        @DisplayName("Should filter unassigned tickets")
+        void shouldFilterUnassignedTickets() throws Exception {
+            // Given
+            TicketFilter filter = new TicketFilter(null, null, true);
+            when(ticketService.findAllTickets(filter, false, null, 50)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("unassigned", "true")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            verify(ticketService).findAllTickets(filter, false, null, 50);
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when combining userId and unassigned")
+        void shouldReturn400WhenCombiningUserIdAndUnassigned() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("userId", "7")
+                            .param("unassigned", "true")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(ticketService);
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for an unknown status")
+        void shouldReturn400ForUnknownStatus() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("status", "OPEN")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(ticketService);
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for an invalid cursor")
+        void shouldReturn400ForInvalidCursor() throws Exception {
+            // Given
+            when(ticketService.findAllTickets(TicketFilter.NONE, false, "not-a-cursor", 50))
+                    .thenThrow(new InvalidRequestException("Invalid cursor: not-a-cursor"));
+
+            // When & Then
+            mockMvc.perform(get("/tickets")
+                            .param("after", "not-a-cursor")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
         }
 
         @Test
         @DisplayName("Should handle exception when service throws error")
         void shouldHandleExceptionWhenServiceThrowsError() throws Exception {
             // Given
-            when(ticketService.findAllTickets()).thenThrow(new RuntimeException("Service Error"));
+            when(ticketService.findAllTickets(TicketFilter.NONE, false, null, 50)).thenThrow(new RuntimeException("Service Error"));
 
             // When & Then
             mockMvc.perform(get("/tickets")
@@ -134,17 +356,270 @@ class TicketControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Export Tickets Tests")
+    class ExportTicketsTests {
+
+        @Test
+        @DisplayName("Should stream tickets as newline-delimited JSON")
+        @SuppressWarnings("unchecked")
+        void shouldStreamTicketsAsNdjson() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                Consumer<TicketDto> sink = invocation.getArgument(0);
+                sink.accept(new TicketDto(1L, "Ticket 1", "Description 1", StatusTicket.PENDING));
+                sink.accept(new TicketDto(2L, "Ticket 2", "Description 2", StatusTicket.DONE));
+                return null;
+            }).when(ticketService).exportTickets(any(Consumer.class));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/tickets/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(
+                            "{\"id\":1,\"title\":\"Ticket 1\",\"description\":\"Description 1\",\"status\":\"PENDING\"}\n"
+                                    + "{\"id\":2,\"title\":\"Ticket 2\",\"description\":\"Description 2\",\"status\":\"DONE\"}\n"));
+        }
+
+        @Test
+        @DisplayName("Should return an empty body when there is nothing to export")
+        @SuppressWarnings("unchecked")
+        void shouldReturnEmptyBodyWhenNothingToExport() throws Exception {
+            // Given
+            doNothing().when(ticketService).exportTickets(any(Consumer.class));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/tickets/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Nested
+    @DisplayName("Search Tickets Tests")
+    class SearchTicketsTests {
+
+        @Test
+        @DisplayName("Should return ranked hits")
+        void shouldSearchTickets() throws Exception {
+            // Given
+            TicketDto ticketDto = new TicketDto(2L, "Printer jammed", null, StatusTicket.PENDING);
+            when(ticketService.searchTickets("printer jam", null, 10))
+                    .thenReturn(new CursorPage<>(List.of(new TicketSearchHit(ticketDto, 1.5)), "Mg"));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/search").param("q", "printer jam").param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].ticket.id").value(2))
+                    .andExpect(jsonPath("$.items[0].score").value(1.5))
+                    .andExpect(jsonPath("$.nextCursor").value("Mg"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 without query")
+        void shouldReturn400WithoutQuery() throws Exception {
+            mockMvc.perform(get("/tickets/search"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Similar Titles Tests")
+    class GetSimilarTitlesTests {
+
+        @Test
+        @DisplayName("Should return similar titles with default limit and similarity")
+        void shouldGetSimilarTitles() throws Exception {
+            // Given
+            when(ticketService.findSimilarTitles("pritner", 10, 0.3)).thenReturn(
+                    new SimilarTitles(List.of(new SimilarTitle(2L, "Printer jammed", 0.42)), true));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/similar").param("title", "pritner"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(2))
+                    .andExpect(jsonPath("$.items[0].title").value("Printer jammed"))
+                    .andExpect(jsonPath("$.items[0].similarity").value(0.42))
+                    .andExpect(jsonPath("$.complete").value(true));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an invalid limit")
+        void shouldReturn400ForInvalidLimit() throws Exception {
+            // Given
+            when(ticketService.findSimilarTitles("pritner", 100, 0.3))
+                    .thenThrow(new InvalidRequestException("limit must be between 1 and 50: 100"));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/similar").param("title", "pritner").param("limit", "100"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Ticket Stats Tests")
+    class GetTicketStatsTests {
+
+        @Test
+        @DisplayName("Should return the counts by status and by assignee")
+        void shouldGetTicketStats() throws Exception {
+            // Given
+            Map<StatusTicket, Long> byStatus = Map.of(StatusTicket.PENDING, 3L, StatusTicket.DONE, 1L, StatusTicket.CANCEL, 0L);
+            Map<StatusTicket, Long> unassigned = Map.of(StatusTicket.PENDING, 2L, StatusTicket.DONE, 0L, StatusTicket.CANCEL, 0L);
+            when(ticketService.getTicketStats()).thenReturn(new TicketStats(4, byStatus, unassigned,
+                    List.of(new AssigneeWorkload(7L, 1, 1, 0)), Instant.parse("2024-01-01T00:00:00Z")));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(4))
+                    .andExpect(jsonPath("$.byStatus.PENDING").value(3))
+                    .andExpect(jsonPath("$.unassigned.PENDING").value(2))
+                    .andExpect(jsonPath("$.byAssignee[0].userId").value(7))
+                    .andExpect(jsonPath("$.byAssignee[0].done").value(1));
+            verify(ticketService, never()).findTicketById(anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Tickets By Ids Tests")
+    class GetTicketsByIdsTests {
+
+        private final TicketLookup lookup = new TicketLookup(
+                List.of(new TicketDto(3L, "Third", null, StatusTicket.DONE), new TicketDto(1L, "First", null, StatusTicket.PENDING)),
+                List.of(2L));
+
+        @Test
+        @DisplayName("Should resolve the ids of the query string")
+        void shouldGetTicketsByIds() throws Exception {
+            // Given
+            when(ticketService.findTicketsByIds(List.of(3L, 2L, 1L))).thenReturn(lookup);
+
+            // When & Then
+            mockMvc.perform(get("/tickets").param("ids", "3,2,1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(3))
+                    .andExpect(jsonPath("$.items[1].id").value(1))
+                    .andExpect(jsonPath("$.missingIds[0]").value(2));
+            verify(ticketService, never()).findAllTickets(any(), anyBoolean(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should resolve the ids and ignore the facets when both are asked for")
+        void shouldIgnoreFacetsWithIds() throws Exception {
+            // Given
+            when(ticketService.findTicketsByIds(List.of(3L, 2L, 1L))).thenReturn(lookup);
+
+            // When & Then
+            mockMvc.perform(get("/tickets").param("ids", "3,2,1").param("facets", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(3))
+                    .andExpect(jsonPath("$.facets").doesNotExist());
+            verify(ticketService, never()).findAllTicketsWithFacets(any(), anyBoolean(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should resolve the ids of the request body")
+        void shouldLookupTickets() throws Exception {
+            // Given
+            when(ticketService.findTicketsByIds(List.of(3L, 2L, 1L))).thenReturn(lookup);
+
+            // When & Then
+            mockMvc.perform(post("/tickets/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[3, 2, 1]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(2))
+                    .andExpect(jsonPath("$.missingIds[0]").value(2));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an invalid id list")
+        void shouldReturn400ForInvalidIds() throws Exception {
+            // Given
+            when(ticketService.findTicketsByIds(List.of()))
+                    .thenThrow(new InvalidRequestException("ids must contain between 1 and 1000 ticket ids"));
+
+            // When & Then
+            mockMvc.perform(post("/tickets/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("Get Ticket By Id Tests")
     class GetTicketByIdTests {
 
+        @Test
+        @DisplayName("Should send the ticket version as ETag")
+        void shouldSendVersionAsETag() throws Exception {
+            // Given
+            Long ticketId = 1L;
+            when(ticketService.findTicketVersion(ticketId)).thenReturn(Optional.of(3L));
+            when(ticketService.findVersionedTicketById(ticketId))
+                    .thenReturn(new VersionedTicket(ticketId, "Test Ticket", "Description", StatusTicket.PENDING, 3L));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/{id}", ticketId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                    .andExpect(jsonPath("$.id").value(ticketId));
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified without reading the ticket when the ETag matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Given
+            Long ticketId = 1L;
+            when(ticketService.findTicketVersion(ticketId)).thenReturn(Optional.of(3L));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/{id}", ticketId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                    .andExpect(content().string(""));
+
+            verify(ticketService, never()).findVersionedTicketById(any());
+        }
+
+        @Test
+        @DisplayName("Should send as ETag the version of the ticket sent when it changed after the version check")
+        void shouldSendVersionOfBodyAsETag() throws Exception {
+            // Given
+            Long ticketId = 1L;
+            when(ticketService.findTicketVersion(ticketId)).thenReturn(Optional.of(3L));
+            when(ticketService.findVersionedTicketById(ticketId))
+                    .thenReturn(new VersionedTicket(ticketId, "Renamed", "Description", StatusTicket.PENDING, 4L));
+
+            // When & Then
+            mockMvc.perform(get("/tickets/{id}", ticketId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, "\"4\""))
+                    .andExpect(jsonPath("$.title").value("Renamed"));
+        }
+
         @Test
         @DisplayName("Should return ticket when it exists")
         void shouldReturnTicketWhenItExists() throws Exception {
             // Given
             Long ticketId = 1L;
-            TicketDto ticketDto = new TicketDto(ticketId, "Test Ticket", "Description", StatusTicket.PENDING);
-            when(ticketService.findTicketById(ticketId)).thenReturn(ticketDto);
+            when(ticketService.findVersionedTicketById(ticketId))
+                    .thenReturn(new VersionedTicket(ticketId, "Test Ticket", "Description", StatusTicket.PENDING, 0L));
 
             // When & Then
             mockMvc.perform(get("/tickets/{id}", ticketId)
@@ -162,7 +637,7 @@ class TicketControllerTest {
         void shouldReturn404WhenTicketDoesNotExist() throws Exception {
             // Given
             Long ticketId = 999L;
-            when(ticketService.findTicketById(ticketId)).thenThrow(new TicketNotFoundException("Ticket not found with userId: " + ticketId));
+            when(ticketService.findVersionedTicketById(ticketId)).thenThrow(new TicketNotFoundException("Ticket not found with userId: " + ticketId));
 
             // When & Then
             mockMvc.perform(get("/tickets/{id}", ticketId)
@@ -175,7 +650,7 @@ class TicketControllerTest {
         void shouldHandleInternalServerError() throws Exception {
             // Given
             Long ticketId = 1L;
-            when(ticketService.findTicketById(ticketId)).thenThrow(new RuntimeException("Internal Server Error"));
+            when(ticketService.findVersionedTicketById(ticketId)).thenThrow(new RuntimeException("Internal Server Error"));
 
             // When & Then
             mockMvc.perform(get("/tickets/{id}", ticketId)
@@ -226,6 +701,24 @@ class TicketControllerTest {
                             .content(objectMapper.writeValueAsString(inputDto)))
                     .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("Should return 409 Conflict when updating an archived ticket")
+        void shouldReturn409WhenUpdatingArchivedTicket() throws Exception {
+            // Given
+            Long ticketId = 3L;
+            TicketDto inputDto = new TicketDto(null, "Updated Ticket", null, null);
+
+            when(ticketService.modifyTicket(eq(ticketId), any(TicketDto.class)))
+                    .thenThrow(new TicketArchivedException("Ticket is archived: " + ticketId));
+
+            // When & Then
+            mockMvc.perform(put("/tickets/{id}", ticketId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(inputDto)))
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string("Ticket is archived: " + ticketId));
+        }
     }
 
     @Nested
@@ -356,4 +849,81 @@ class TicketControllerTest {
                     .andExpect(status().isInternalServerError());
         }
     }
+
+    @Nested
+    @DisplayName("Bulk Update Tests")
+    class BulkUpdateTests {
+
+        @Test
+        @DisplayName("Should assign tickets in bulk and return one outcome per ticket")
+        void shouldAssignTicketsInBulk() throws Exception {
+            // Given
+            BulkAssignRequest request = new BulkAssignRequest(List.of(1L, 2L, 3L), 7L);
+            when(ticketService.assignTickets(List.of(1L, 2L, 3L), 7L)).thenReturn(List.of(
+                    new BulkOutcome(1L, BulkOutcome.Result.UPDATED),
+                    new BulkOutcome(2L, BulkOutcome.Result.ALREADY_ASSIGNED),
+                    new BulkOutcome(3L, BulkOutcome.Result.NOT_FOUND)
+            ));
+
+            // When & Then
+            mockMvc.perform(put("/tickets/bulk/assign")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].id").value(1))
+                    .andExpect(jsonPath("$[0].result").value("UPDATED"))
+                    .andExpect(jsonPath("$[1].result").value("ALREADY_ASSIGNED"))
+                    .andExpect(jsonPath("$[2].result").value("NOT_FOUND"));
+        }
+
+        @Test
+        @DisplayName("Should return 404 Not Found when the user doesn't exist")
+        void shouldReturn404WhenUserNotFound() throws Exception {
+            // Given
+            BulkAssignRequest request = new BulkAssignRequest(List.of(1L), 99L);
+            when(ticketService.assignTickets(List.of(1L), 99L))
+                    .thenThrow(new UserNotFoundException("User not found: 99"));
+
+            // When & Then
+            mockMvc.perform(put("/tickets/bulk/assign")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should update ticket status in bulk")
+        void shouldUpdateStatusInBulk() throws Exception {
+            // Given
+            BulkStatusRequest request = new BulkStatusRequest(List.of(1L, 2L), StatusTicket.DONE);
+            when(ticketService.updateTicketsStatus(List.of(1L, 2L), StatusTicket.DONE)).thenReturn(List.of(
+                    new BulkOutcome(1L, BulkOutcome.Result.UPDATED),
+                    new BulkOutcome(2L, BulkOutcome.Result.NOT_FOUND)
+            ));
+
+            // When & Then
+            mockMvc.perform(put("/tickets/bulk/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].result").value("UPDATED"))
+                    .andExpect(jsonPath("$[1].id").value(2))
+                    .andExpect(jsonPath("$[1].result").value("NOT_FOUND"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for an invalid bulk request")
+        void shouldReturn400ForInvalidBulkRequest() throws Exception {
+            // Given
+            when(ticketService.updateTicketsStatus(List.of(), StatusTicket.DONE))
+                    .thenThrow(new InvalidRequestException("ids must contain between 1 and 1000 ticket ids"));
+
+            // When & Then
+            mockMvc.perform(put("/tickets/bulk/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\":[],\"status\":\"DONE\"}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
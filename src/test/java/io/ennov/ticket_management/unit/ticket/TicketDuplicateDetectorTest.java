@@ -0,0 +1,128 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketDuplicateDetector;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketDuplicateDetectorTest {
+
+    private static final String ALERT = "CPU usage above 95% on host web-12 for more than 10 minutes, "
+            + "check the running processes and restart the worker pool if needed";
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketShards shards;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TicketDuplicateDetector detector(TicketDuplicateDetector.Mode mode) {
+        return new TicketDuplicateDetector(ticketRepository, shards, meterRegistry, mode, 0.8);
+    }
+
+    private TicketDto pending(Long id, String title, String description) {
+        return new TicketDto(id, title, description, StatusTicket.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should find open tickets with nearly the same text, most similar first")
+    void shouldFindNearDuplicates() {
+        // Given
+        TicketDuplicateDetector detector = detector(TicketDuplicateDetector.Mode.FLAG);
+        detector.indexAll(List.of(
+                pending(1L, "High CPU", ALERT),
+                pending(2L, "High CPU", ALERT.replace("web-12", "web-13")),
+                pending(3L, "Printer jammed", "Paper stuck in tray 2 of the printer on floor 3")
+        ));
+
+        // When
+        List<Long> duplicates = detector.findDuplicates(pending(null, "High CPU", ALERT));
+
+        // Then
+        assertThat(duplicates).containsExactly(1L, 2L);
+        assertThat(detector.findDuplicates(pending(null, "VPN down", "Cannot reach the VPN from home"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only keep open tickets")
+    void shouldOnlyKeepOpenTickets() {
+        // Given
+        TicketDuplicateDetector detector = detector(TicketDuplicateDetector.Mode.REJECT);
+        detector.indexAll(List.of(pending(1L, "High CPU", ALERT), pending(2L, "High CPU", ALERT)));
+
+        // When
+        detector.index(new TicketDto(1L, "High CPU", ALERT, StatusTicket.DONE));
+        detector.removeAll(List.of(2L));
+
+        // Then
+        assertThat(detector.size()).isZero();
+        assertThat(detector.findDuplicates(pending(null, "High CPU", ALERT))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep nothing and find nothing when off")
+    void shouldDoNothingWhenOff() {
+        TicketDuplicateDetector detector = detector(TicketDuplicateDetector.Mode.OFF);
+
+        detector.index(pending(1L, "High CPU", ALERT));
+        detector.rebuild();
+
+        assertThat(detector.size()).isZero();
+        assertThat(detector.findDuplicates(pending(null, "High CPU", ALERT))).isEmpty();
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the open tickets of the Tickets table")
+    void shouldRebuild() {
+        TicketDuplicateDetector detector = detector(TicketDuplicateDetector.Mode.FLAG);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shards).forEachShard(any());
+        when(ticketRepository.streamAllDtoByStatus(StatusTicket.PENDING)).thenReturn(Stream.of(pending(7L, "High CPU", ALERT)));
+
+        detector.rebuild();
+
+        assertThat(detector.findDuplicates(pending(null, "High CPU", ALERT))).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("Should compare at most a bucket's cap of tickets however many duplicates are open")
+    void shouldBoundLookups() {
+        // Given
+        TicketDuplicateDetector detector = detector(TicketDuplicateDetector.Mode.FLAG);
+        detector.indexAll(LongStream.range(1, 1_001)
+                .mapToObj(id -> pending(id, "Ticket " + id, "Unrelated request number " + id + " about " + (id % 97)))
+                .toList());
+        detector.indexAll(LongStream.range(100_000, 100_150).mapToObj(id -> pending(id, "High CPU", ALERT)).toList());
+
+        // When
+        List<Long> duplicates = detector.findDuplicates(pending(null, "High CPU", ALERT));
+
+        // Then
+        assertThat(duplicates).hasSize(10).allMatch(id -> id >= 100_000);
+        // The 150 duplicates share every bucket, of which the same first 100 are compared
+        assertThat(meterRegistry.get("tickets.duplicates.comparisons").summary().max()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,55 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.shared.InvalidRequestException;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TicketFilterTest {
+
+    @Test
+    @DisplayName("Should create TicketFilter with all fields")
+    void shouldCreateTicketFilterWithAllFields() {
+        // Given/When
+        TicketFilter filter = new TicketFilter(StatusTicket.DONE, 3L, false);
+
+        // Then
+        assertThat(filter.status()).isEqualTo(StatusTicket.DONE);
+        assertThat(filter.userId()).isEqualTo(3L);
+        assertThat(filter.unassigned()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not filter anything by default")
+    void shouldNotFilterAnythingByDefault() {
+        // Given/When/Then
+        assertThat(TicketFilter.NONE.status()).isNull();
+        assertThat(TicketFilter.NONE.userId()).isNull();
+        assertThat(TicketFilter.NONE.unassigned()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject userId combined with unassigned")
+    void shouldRejectUserIdCombinedWithUnassigned() {
+        // Given/When/Then
+        assertThatThrownBy(() -> new TicketFilter(null, 3L, true))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("userId and unassigned cannot be combined");
+    }
+
+    @Test
+    @DisplayName("Should be equal for same values")
+    void shouldBeEqualForSameValues() {
+        // Given
+        TicketFilter filter1 = new TicketFilter(StatusTicket.PENDING, null, true);
+        TicketFilter filter2 = new TicketFilter(StatusTicket.PENDING, null, true);
+
+        // When/Then
+        assertThat(filter1).isEqualTo(filter2);
+        assertThat(filter1.hashCode()).isEqualTo(filter2.hashCode());
+    }
+}
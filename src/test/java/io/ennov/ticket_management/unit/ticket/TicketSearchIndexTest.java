@@ -0,0 +1,106 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketSearchIndex;
+import io.ennov.ticket_management.ticket.TicketShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketSearchIndexTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketShards shards;
+
+    @InjectMocks
+    private TicketSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex.indexAll(List.of(
+                new TicketDto(1L, "Printer jammed", "Paper stuck in tray 2", StatusTicket.PENDING),
+                new TicketDto(2L, "Order toner", "The printer on floor 3 needs toner", StatusTicket.PENDING),
+                new TicketDto(3L, "VPN down", "Cannot reach the VPN from home", StatusTicket.DONE)
+        ));
+    }
+
+    private List<Long> ids(List<TicketSearchIndex.Hit> hits) {
+        return hits.stream().map(TicketSearchIndex.Hit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches")
+    void shouldRankTitleMatchesFirst() {
+        List<TicketSearchIndex.Hit> hits = searchIndex.search("printer", 0, 10);
+
+        assertThat(ids(hits)).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should rank tickets matching more terms first, ignoring case and punctuation")
+    void shouldRankMoreTermsFirst() {
+        assertThat(ids(searchIndex.search("PRINTER, toner!", 0, 10))).containsExactly(2L, 1L);
+        assertThat(searchIndex.search("a ? -", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace the terms of a re-indexed ticket and forget removed ones")
+    void shouldReindexAndRemove() {
+        searchIndex.index(new TicketDto(1L, "Screen flickers", null, StatusTicket.PENDING));
+        searchIndex.removeAll(List.of(3L));
+
+        assertThat(ids(searchIndex.search("printer", 0, 10))).containsExactly(2L);
+        assertThat(ids(searchIndex.search("screen", 0, 10))).containsExactly(1L);
+        assertThat(searchIndex.search("vpn", 0, 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should page through the ranking, ties by id")
+    void shouldPageThroughRanking() {
+        searchIndex.indexAll(LongStream.rangeClosed(10, 14)
+                .mapToObj(id -> new TicketDto(id, "Badge reader", null, StatusTicket.PENDING))
+                .toList());
+
+        assertThat(ids(searchIndex.search("badge", 0, 2))).containsExactly(10L, 11L);
+        assertThat(ids(searchIndex.search("badge", 2, 2))).containsExactly(12L, 13L);
+        assertThat(ids(searchIndex.search("badge", 4, 2))).containsExactly(14L);
+        assertThat(searchIndex.search("badge", 6, 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the Tickets table")
+    void shouldRebuild() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shards).forEachShard(any());
+        when(ticketRepository.streamAllDto()).thenReturn(Stream.of(
+                new TicketDto(7L, "Keyboard broken", null, StatusTicket.PENDING)));
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.size()).isEqualTo(1);
+        assertThat(ids(searchIndex.search("keyboard printer", 0, 10))).containsExactly(7L);
+    }
+}
@@ -2,16 +2,43 @@ package io.ennov.ticket_management.unit.ticket;
 
 import io.ennov.ticket_management.shared.AssignedDto;
 import io.ennov.ticket_management.shared.ConflictAssignException;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
+import io.ennov.ticket_management.ticket.AssigneeCount;
+import io.ennov.ticket_management.ticket.BulkOutcome;
+import io.ennov.ticket_management.ticket.DuplicateTicketException;
+import io.ennov.ticket_management.ticket.FacetedTicketPage;
+import io.ennov.ticket_management.ticket.SimilarTitle;
+import io.ennov.ticket_management.ticket.SimilarTitles;
 import io.ennov.ticket_management.ticket.StatusTicket;
 import io.ennov.ticket_management.ticket.Ticket;
 import io.ennov.ticket_management.ticket.TicketMapper;
+import io.ennov.ticket_management.ticket.TicketArchivedException;
+import io.ennov.ticket_management.ticket.TicketCount;
+import io.ennov.ticket_management.ticket.TicketCreation;
 import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketDuplicateDetector;
+import io.ennov.ticket_management.ticket.TicketFacets;
+import io.ennov.ticket_management.ticket.TicketFilter;
 import io.ennov.ticket_management.ticket.TicketNotFoundException;
 import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketLookup;
+import io.ennov.ticket_management.ticket.TicketSearchHit;
+import io.ennov.ticket_management.ticket.TicketSearchIndex;
 import io.ennov.ticket_management.ticket.TicketService;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketState;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketStats;
+import io.ennov.ticket_management.ticket.TicketTitleTrigramIndex;
+import io.ennov.ticket_management.ticket.VersionedTicket;
 import io.ennov.ticket_management.user.User;
+import io.ennov.ticket_management.user.UserDto;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import io.ennov.ticket_management.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,13 +47,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,15 +72,55 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private ArchivedTicketRepository archivedTicketRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private TicketMapper ticketMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TicketSearchIndex searchIndex;
+
+    @Mock
+    private TicketTitleTrigramIndex titleIndex;
+
+    @Mock
+    private TicketDuplicateDetector duplicateDetector;
+
+    @Mock
+    private TicketStatistics statistics;
+
+    @Mock
+    private TicketShards shards;
+
     @InjectMocks
     private TicketService ticketService;
 
+    /**
+     * Unsharded, the shards run every query in place.
+     */
+    @BeforeEach
+    void runShardsInPlace() {
+        lenient().when(shards.onEachShard(anyBoolean(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Supplier<Collection<?>>>getArgument(1).get()));
+        lenient().when(shards.onShardsMatching(any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Supplier<Collection<?>>>getArgument(2).get()));
+        lenient().when(shards.findOnShardOfTicket(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shards.onShardOfTicket(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shards).forEachShard(any());
+    }
+
     @Nested
     @DisplayName("Create Ticket Tests")
     class CreateTicketTests {
@@ -66,6 +143,112 @@ class TicketServiceTest {
 
             // Then
             assertThat(result).isEqualTo(outputDto);
+            verify(searchIndex).index(outputDto);
+            verify(titleIndex).index(outputDto);
+            verify(duplicateDetector).index(outputDto);
+            verify(ticketRepository, never()).findAllDtoByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("Should flag the open duplicates and forget the closed ones")
+        void shouldFlagOpenDuplicates() {
+            // Given
+            TicketDto inputDto = new TicketDto(null, "Disk full on db-1", null, null);
+            Ticket ticket = new Ticket();
+            TicketDto outputDto = new TicketDto(9L, "Disk full on db-1", null, StatusTicket.PENDING);
+            when(duplicateDetector.mode()).thenReturn(TicketDuplicateDetector.Mode.FLAG);
+            when(duplicateDetector.findDuplicates(inputDto)).thenReturn(List.of(7L, 4L, 5L));
+            when(ticketRepository.findAllDtoByIdIn(List.of(7L, 4L, 5L))).thenReturn(List.of(
+                    new TicketDto(4L, "Disk full on db-1", null, StatusTicket.PENDING),
+                    new TicketDto(5L, "Disk full on db-1", null, StatusTicket.DONE),
+                    new TicketDto(7L, "Disk full on db-1", null, StatusTicket.PENDING)));
+            when(ticketMapper.ticketDtoToTicket(inputDto)).thenReturn(ticket);
+            when(ticketRepository.save(ticket)).thenReturn(ticket);
+            when(ticketMapper.ticketToTicketDto(ticket)).thenReturn(outputDto);
+
+            // When
+            TicketCreation result = ticketService.createTicketReportingDuplicates(inputDto);
+
+            // Then
+            assertThat(result).isEqualTo(new TicketCreation(outputDto, List.of(7L, 4L)));
+            verify(duplicateDetector).removeAll(List.of(5L));
+            verify(duplicateDetector).index(outputDto);
+        }
+
+        @Test
+        @DisplayName("Should reject a likely duplicate in reject mode")
+        void shouldRejectDuplicates() {
+            // Given
+            TicketDto inputDto = new TicketDto(null, "Disk full on db-1", null, null);
+            when(duplicateDetector.mode()).thenReturn(TicketDuplicateDetector.Mode.REJECT);
+            when(duplicateDetector.findDuplicates(inputDto)).thenReturn(List.of(4L));
+            when(ticketRepository.findAllDtoByIdIn(List.of(4L)))
+                    .thenReturn(List.of(new TicketDto(4L, "Disk full on db-1", null, StatusTicket.PENDING)));
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.createTicketReportingDuplicates(inputDto))
+                    .isInstanceOf(DuplicateTicketException.class)
+                    .hasMessage("Likely duplicate of tickets: [4]");
+            verify(ticketRepository, never()).save(any(Ticket.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Create Tickets In Batch Tests")
+    class CreateTicketsTests {
+
+        @Test
+        @DisplayName("Should persist tickets in chunks and return ids in request order")
+        @SuppressWarnings("unchecked")
+        void shouldPersistTicketsInChunks() {
+            // Given
+            List<TicketDto> inputDtos = IntStream.range(0, 1200)
+                    .mapToObj(i -> new TicketDto(null, "Ticket " + i, "Description " + i, null))
+                    .toList();
+            long[] nextId = {1};
+            when(ticketMapper.ticketDtoToTicket(any(TicketDto.class))).thenAnswer(invocation -> new Ticket());
+            when(ticketRepository.saveAll(any(List.class))).thenAnswer(invocation -> {
+                List<Ticket> tickets = invocation.getArgument(0);
+                tickets.forEach(ticket -> ticket.setId(nextId[0]++));
+                return tickets;
+            });
+
+            // When
+            List<Long> result = ticketService.createTickets(inputDtos);
+
+            // Then
+            assertThat(result).hasSize(1200).isSorted().doesNotHaveDuplicates();
+            verify(ticketRepository, times(3)).saveAll(any(List.class));
+            verify(entityManager, times(3)).flush();
+            verify(entityManager, times(3)).clear();
+            verify(searchIndex, times(3)).indexAll(any());
+            verify(titleIndex, times(3)).indexAll(any());
+            verify(duplicateDetector, times(3)).indexAll(any());
+        }
+
+        @Test
+        @DisplayName("Should reject an empty batch")
+        void shouldRejectEmptyBatch() {
+            // When/Then
+            assertThatThrownBy(() -> ticketService.createTickets(List.of()))
+                    .isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(ticketRepository, entityManager);
+        }
+
+        @Test
+        @DisplayName("Should reject a batch above the maximum size")
+        void shouldRejectOversizedBatch() {
+            // Given
+            List<TicketDto> inputDtos = IntStream.rangeClosed(0, TicketService.MAX_BATCH_SIZE)
+                    .mapToObj(i -> new TicketDto(null, "Ticket " + i, null, null))
+                    .toList();
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.createTickets(inputDtos))
+                    .isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(ticketRepository, entityManager);
         }
     }
 
@@ -74,37 +257,176 @@ class TicketServiceTest {
     class FindAllTicketsTests {
 
         @Test
-        @DisplayName("Should return all tickets")
-        void shouldReturnAllTickets() {
+        @DisplayName("Should return a page with next cursor when more tickets exist")
+        void shouldReturnPageWithNextCursor() {
             // Given
-            List<Ticket> tickets = Arrays.asList(new Ticket(), new Ticket());
             List<TicketDto> ticketDto = Arrays.asList(
                     new TicketDto(1L, "Ticket 1", "Description 1", null),
-                    new TicketDto(2L, "Ticket 2", "Description 2", null)
+                    new TicketDto(2L, "Ticket 2", "Description 2", null),
+                    new TicketDto(3L, "Ticket 3", "Description 3", null)
             );
 
-            when(ticketRepository.findAll()).thenReturn(tickets);
-            when(ticketMapper.ticketToTicketDto(tickets.get(0))).thenReturn(ticketDto.get(0));
-            when(ticketMapper.ticketToTicketDto(tickets.get(1))).thenReturn(ticketDto.get(1));
+            when(ticketRepository.findDtoPage(TicketFilter.NONE, 0L, 3)).thenReturn(ticketDto);
+
+            // When
+            CursorPage<TicketDto> result = ticketService.findAllTickets(TicketFilter.NONE, null, 2);
+
+            // Then
+            assertThat(result.items()).containsExactly(ticketDto.get(0), ticketDto.get(1));
+            assertThat(result.nextCursor()).isEqualTo(CursorPage.encodeCursor(2L));
+            verifyNoInteractions(ticketMapper);
+        }
+
+        @Test
+        @DisplayName("Should merge the archived tickets into the page only when asked to")
+        void shouldMergeArchivedTicketsWhenAsked() {
+            // Given
+            TicketDto live = new TicketDto(2L, "Live", null, StatusTicket.PENDING);
+            TicketDto archived1 = new TicketDto(1L, "Archived 1", null, StatusTicket.DONE);
+            TicketDto archived3 = new TicketDto(3L, "Archived 3", null, StatusTicket.CANCEL);
+
+            when(ticketRepository.findDtoPage(TicketFilter.NONE, 0L, 3)).thenReturn(List.of(live));
+            when(ticketRepository.findArchivedDtoPage(TicketFilter.NONE, 0L, 3)).thenReturn(List.of(archived1, archived3));
 
             // When
-            List<TicketDto> result = ticketService.findAllTickets();
+            CursorPage<TicketDto> withArchive = ticketService.findAllTickets(TicketFilter.NONE, true, null, 2);
+            CursorPage<TicketDto> liveOnly = ticketService.findAllTickets(TicketFilter.NONE, false, null, 2);
 
             // Then
-            assertThat(result).hasSize(2).containsExactlyElementsOf(ticketDto);
+            assertThat(withArchive.items()).containsExactly(archived1, live);
+            assertThat(withArchive.nextCursor()).isEqualTo(CursorPage.encodeCursor(2L));
+            assertThat(liveOnly.items()).containsExactly(live);
+            verify(ticketRepository).findArchivedDtoPage(any(), anyLong(), anyInt());
         }
 
         @Test
-        @DisplayName("Should return empty list when no tickets exist")
-        void shouldReturnEmptyListWhenNoTicketsExist() {
+        @DisplayName("Should seek after the id wrapped by the cursor")
+        void shouldSeekAfterCursor() {
             // Given
-            when(ticketRepository.findAll()).thenReturn(List.of());
+            TicketDto ticketDto = new TicketDto(3L, "Ticket 3", "Description 3", null);
+
+            when(ticketRepository.findDtoPage(TicketFilter.NONE, 2L, 3)).thenReturn(List.of(ticketDto));
 
             // When
-            List<TicketDto> result = ticketService.findAllTickets();
+            CursorPage<TicketDto> result = ticketService.findAllTickets(TicketFilter.NONE, CursorPage.encodeCursor(2L), 2);
 
             // Then
-            assertThat(result).isEmpty();
+            assertThat(result.items()).containsExactly(ticketDto);
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return empty page when no tickets exist")
+        void shouldReturnEmptyPageWhenNoTicketsExist() {
+            // Given
+            when(ticketRepository.findDtoPage(TicketFilter.NONE, 0L, 51)).thenReturn(List.of());
+
+            // When
+            CursorPage<TicketDto> result = ticketService.findAllTickets(TicketFilter.NONE, null, 50);
+
+            // Then
+            assertThat(result.items()).isEmpty();
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should pass the filter down to the repository")
+        void shouldPassFilterToRepository() {
+            // Given
+            TicketFilter filter = new TicketFilter(StatusTicket.PENDING, 7L, false);
+            TicketDto ticketDto = new TicketDto(4L, "Ticket 4", "Description 4", StatusTicket.PENDING);
+
+            when(ticketRepository.findDtoPage(filter, 0L, 11)).thenReturn(List.of(ticketDto));
+
+            // When
+            CursorPage<TicketDto> result = ticketService.findAllTickets(filter, null, 10);
+
+            // Then
+            assertThat(result.items()).containsExactly(ticketDto);
+            verify(ticketRepository).findDtoPage(filter, 0L, 11);
+        }
+
+        @Test
+        @DisplayName("Should reject a limit outside the allowed range")
+        void shouldRejectInvalidLimit() {
+            // When/Then
+            assertThatThrownBy(() -> ticketService.findAllTickets(TicketFilter.NONE, null, 0))
+                    .isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findAllTickets(TicketFilter.NONE, null, CursorPage.MAX_LIMIT + 1))
+                    .isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(ticketRepository);
+        }
+
+        @Test
+        @DisplayName("Should derive every facet from the grouped count of the filtered tickets")
+        void shouldDeriveFacetsFromGroupedCount() {
+            // Given
+            TicketFilter filter = new TicketFilter(null, null, false);
+            when(ticketRepository.findDtoPage(filter, 0L, 11)).thenReturn(List.of());
+            when(ticketRepository.countFacets(filter)).thenReturn(List.of(
+                    new TicketCount(null, StatusTicket.PENDING, 4),
+                    new TicketCount(8L, StatusTicket.PENDING, 2),
+                    new TicketCount(8L, StatusTicket.DONE, 1),
+                    new TicketCount(3L, StatusTicket.CANCEL, 3)
+            ));
+
+            // When
+            FacetedTicketPage result = ticketService.findAllTicketsWithFacets(filter, null, 10);
+
+            // Then
+            TicketFacets facets = result.facets();
+            assertThat(facets.total()).isEqualTo(10);
+            assertThat(facets.byStatus()).isEqualTo(Map.of(StatusTicket.PENDING, 6L, StatusTicket.DONE, 1L, StatusTicket.CANCEL, 3L));
+            assertThat(facets.unassigned()).isEqualTo(4);
+            assertThat(facets.byAssignee()).containsExactly(new AssigneeCount(3L, 3), new AssigneeCount(8L, 3));
+            assertThat(result.items()).isEmpty();
+            assertThat(result.nextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Tickets Tests")
+    class ExportTicketsTests {
+
+        @Test
+        @DisplayName("Should hand every streamed ticket to the sink and detach it")
+        void shouldStreamAndDetachEveryTicket() {
+            // Given
+            Ticket ticket1 = new Ticket(1L, "Ticket 1", "Description 1", StatusTicket.PENDING, null, null, null, null);
+            Ticket ticket2 = new Ticket(2L, "Ticket 2", "Description 2", StatusTicket.DONE, null, null, null, null);
+            TicketDto ticketDto1 = new TicketDto(1L, "Ticket 1", "Description 1", StatusTicket.PENDING);
+            TicketDto ticketDto2 = new TicketDto(2L, "Ticket 2", "Description 2", StatusTicket.DONE);
+            List<TicketDto> exported = new ArrayList<>();
+
+            when(ticketRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(ticket1, ticket2));
+            when(ticketMapper.ticketToTicketDto(ticket1)).thenReturn(ticketDto1);
+            when(ticketMapper.ticketToTicketDto(ticket2)).thenReturn(ticketDto2);
+
+            // When
+            ticketService.exportTickets(exported::add);
+
+            // Then
+            assertThat(exported).containsExactly(ticketDto1, ticketDto2);
+            verify(entityManager).detach(ticket1);
+            verify(entityManager).detach(ticket2);
+        }
+
+        @Test
+        @DisplayName("Should close the database stream when the sink fails")
+        void shouldCloseStreamWhenSinkFails() {
+            // Given
+            Ticket ticket = new Ticket(1L, "Ticket 1", "Description 1", StatusTicket.PENDING, null, null, null, null);
+            boolean[] closed = {false};
+            Stream<Ticket> tickets = Stream.of(ticket).onClose(() -> closed[0] = true);
+
+            when(ticketRepository.streamAllByOrderByIdAsc()).thenReturn(tickets);
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.exportTickets(ticketDto -> {
+                throw new IllegalStateException("client went away");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThat(closed[0]).isTrue();
         }
     }
 
@@ -117,11 +439,28 @@ class TicketServiceTest {
         void shouldReturnTicketWhenItExists() {
             // Given
             Long ticketId = 1L;
-            Ticket ticket = new Ticket();
             TicketDto ticketDto = new TicketDto(ticketId, "Test Ticket", "Description", StatusTicket.PENDING);
 
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(ticket));
-            when(ticketMapper.ticketToTicketDto(ticket)).thenReturn(ticketDto);
+            when(ticketRepository.findDtoById(ticketId)).thenReturn(Optional.of(ticketDto));
+
+            // When
+            TicketDto result = ticketService.findTicketById(ticketId);
+
+            // Then
+            assertThat(result).isEqualTo(ticketDto);
+            verify(ticketRepository, never()).findById(anyLong());
+            verifyNoInteractions(ticketMapper);
+        }
+
+        @Test
+        @DisplayName("Should fall back to the archive when the ticket is no longer live")
+        void shouldFallBackToArchive() {
+            // Given
+            Long ticketId = 1L;
+            TicketDto ticketDto = new TicketDto(ticketId, "Test Ticket", "Description", StatusTicket.DONE);
+
+            when(ticketRepository.findDtoById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.findDtoById(ticketId)).thenReturn(Optional.of(ticketDto));
 
             // When
             TicketDto result = ticketService.findTicketById(ticketId);
@@ -130,12 +469,31 @@ class TicketServiceTest {
             assertThat(result).isEqualTo(ticketDto);
         }
 
+        @Test
+        @DisplayName("Should read the ticket with its version, from the archive when no longer live")
+        void shouldFindVersionedTicket() {
+            // Given
+            Long ticketId = 1L;
+            VersionedTicket archived = new VersionedTicket(ticketId, "Test Ticket", "Description", StatusTicket.DONE, 4L);
+
+            when(ticketRepository.findVersionedById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.findVersionedById(ticketId)).thenReturn(Optional.of(archived));
+
+            // When
+            VersionedTicket result = ticketService.findVersionedTicketById(ticketId);
+
+            // Then
+            assertThat(result).isEqualTo(archived);
+            verify(ticketRepository, never()).findDtoById(anyLong());
+        }
+
         @Test
         @DisplayName("Should throw TicketNotFoundException when ticket doesn't exist")
         void shouldThrowTicketNotFoundExceptionWhenTicketDoesNotExist() {
             // Given
             Long ticketId = 999L;
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.empty());
+            when(ticketRepository.findDtoById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.findDtoById(ticketId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> ticketService.findTicketById(ticketId))
@@ -144,6 +502,202 @@ class TicketServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Search Tickets Tests")
+    class SearchTicketsTests {
+
+        @Test
+        @DisplayName("Should return ranked hits with a cursor to the next rank")
+        void shouldReturnRankedHits() {
+            // Given
+            TicketDto printer = new TicketDto(2L, "Printer jammed", null, StatusTicket.PENDING);
+            TicketDto toner = new TicketDto(1L, "Toner", "printer toner empty", StatusTicket.PENDING);
+            when(searchIndex.search("printer", 0, 3)).thenReturn(List.of(
+                    new TicketSearchIndex.Hit(2L, 1.5), new TicketSearchIndex.Hit(1L, 0.7), new TicketSearchIndex.Hit(5L, 0.2)));
+            when(ticketRepository.findAllDtoByIdIn(List.of(2L, 1L))).thenReturn(List.of(toner, printer));
+
+            // When
+            CursorPage<TicketSearchHit> result = ticketService.searchTickets("printer", null, 2);
+
+            // Then
+            assertThat(result.items()).containsExactly(new TicketSearchHit(printer, 1.5), new TicketSearchHit(toner, 0.7));
+            assertThat(CursorPage.decodeCursor(result.nextCursor())).isEqualTo(2);
+            verify(searchIndex, never()).removeAll(any());
+        }
+
+        @Test
+        @DisplayName("Should skip from the cursor rank and drop hits deleted behind the index")
+        void shouldDropDeletedHits() {
+            // Given
+            TicketDto printer = new TicketDto(2L, "Printer jammed", null, StatusTicket.PENDING);
+            when(searchIndex.search("printer", 2, 3)).thenReturn(List.of(
+                    new TicketSearchIndex.Hit(9L, 1.0), new TicketSearchIndex.Hit(2L, 0.5)));
+            when(ticketRepository.findAllDtoByIdIn(List.of(9L, 2L))).thenReturn(List.of(printer));
+
+            // When
+            CursorPage<TicketSearchHit> result = ticketService.searchTickets("printer", CursorPage.encodeCursor(2L), 2);
+
+            // Then
+            assertThat(result.items()).containsExactly(new TicketSearchHit(printer, 0.5));
+            assertThat(result.nextCursor()).isNull();
+            verify(searchIndex).removeAll(List.of(9L));
+        }
+
+        @Test
+        @DisplayName("Should refill the page past the deleted hits and point the cursor after the last one returned")
+        void shouldRefillPageAfterDeletedHits() {
+            // Given
+            TicketDto printer = new TicketDto(2L, "Printer jammed", null, StatusTicket.PENDING);
+            TicketDto toner = new TicketDto(1L, "Toner", "printer toner empty", StatusTicket.PENDING);
+            when(searchIndex.search("printer", 0, 3)).thenReturn(List.of(
+                    new TicketSearchIndex.Hit(2L, 1.5), new TicketSearchIndex.Hit(9L, 1.0), new TicketSearchIndex.Hit(1L, 0.7)));
+            when(ticketRepository.findAllDtoByIdIn(List.of(2L, 9L))).thenReturn(List.of(printer));
+            when(searchIndex.search("printer", 2, 2)).thenReturn(List.of(
+                    new TicketSearchIndex.Hit(1L, 0.7), new TicketSearchIndex.Hit(5L, 0.2)));
+            when(ticketRepository.findAllDtoByIdIn(List.of(1L))).thenReturn(List.of(toner));
+
+            // When
+            CursorPage<TicketSearchHit> result = ticketService.searchTickets("printer", null, 2);
+
+            // Then
+            assertThat(result.items()).containsExactly(new TicketSearchHit(printer, 1.5), new TicketSearchHit(toner, 0.7));
+            // Hit 5 moves up to rank 2 once hit 9 leaves the index
+            assertThat(CursorPage.decodeCursor(result.nextCursor())).isEqualTo(2);
+            verify(searchIndex).removeAll(List.of(9L));
+        }
+
+        @Test
+        @DisplayName("Should not query the database when nothing matches")
+        void shouldNotQueryWithoutHits() {
+            when(searchIndex.search("nothing", 0, 51)).thenReturn(List.of());
+
+            CursorPage<TicketSearchHit> result = ticketService.searchTickets("nothing", null, 50);
+
+            assertThat(result.items()).isEmpty();
+            assertThat(result.nextCursor()).isNull();
+            verifyNoInteractions(ticketRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a blank query or an invalid limit")
+        void shouldRejectInvalidRequests() {
+            assertThatThrownBy(() -> ticketService.searchTickets(" ", null, 50)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.searchTickets("printer", null, 0)).isInstanceOf(InvalidRequestException.class);
+            verifyNoInteractions(searchIndex);
+        }
+    }
+
+    @Nested
+    @DisplayName("Find Similar Titles Tests")
+    class FindSimilarTitlesTests {
+
+        @Test
+        @DisplayName("Should return the current titles of the hits and drop deleted ones")
+        void shouldReturnCurrentTitles() {
+            // Given
+            when(titleIndex.findSimilar("pritner", 10, 0.3)).thenReturn(new TicketTitleTrigramIndex.Result(
+                    List.of(new TicketTitleTrigramIndex.Hit(2L, 0.5), new TicketTitleTrigramIndex.Hit(9L, 0.4)), true));
+            when(ticketRepository.findAllDtoByIdIn(List.of(2L, 9L)))
+                    .thenReturn(List.of(new TicketDto(2L, "Printer jammed", null, StatusTicket.PENDING)));
+
+            // When
+            SimilarTitles result = ticketService.findSimilarTitles("pritner", 10, 0.3);
+
+            // Then
+            assertThat(result).isEqualTo(new SimilarTitles(List.of(new SimilarTitle(2L, "Printer jammed", 0.5)), true));
+            verify(titleIndex).removeAll(List.of(9L));
+        }
+
+        @Test
+        @DisplayName("Should not query the database when nothing is similar")
+        void shouldNotQueryWithoutHits() {
+            when(titleIndex.findSimilar("zzz", 10, 0.3)).thenReturn(new TicketTitleTrigramIndex.Result(List.of(), false));
+
+            assertThat(ticketService.findSimilarTitles("zzz", 10, 0.3)).isEqualTo(new SimilarTitles(List.of(), false));
+            verifyNoInteractions(ticketRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a blank title, an invalid limit or similarity")
+        void shouldRejectInvalidRequests() {
+            assertThatThrownBy(() -> ticketService.findSimilarTitles(" ", 10, 0.3)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findSimilarTitles("printer", 51, 0.3)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findSimilarTitles("printer", 10, 0)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findSimilarTitles("printer", 10, 1.5)).isInstanceOf(InvalidRequestException.class);
+            verifyNoInteractions(titleIndex);
+        }
+    }
+
+    @Nested
+    @DisplayName("Find Tickets By Ids Tests")
+    class FindTicketsByIdsTests {
+
+        @Test
+        @DisplayName("Should return found tickets in request order and report missing ids")
+        void shouldKeepRequestOrderAndReportMissingIds() {
+            // Given
+            TicketDto first = new TicketDto(1L, "First", null, StatusTicket.PENDING);
+            TicketDto third = new TicketDto(3L, "Third", null, StatusTicket.DONE);
+            when(ticketRepository.findAllDtoByIdIn(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+            when(archivedTicketRepository.findAllDtoByIdIn(List.of(2L))).thenReturn(List.of());
+
+            // When
+            TicketLookup result = ticketService.findTicketsByIds(List.of(3L, 2L, 3L, 1L));
+
+            // Then
+            assertThat(result.items()).containsExactly(third, first);
+            assertThat(result.missingIds()).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Should look the ids not found up in the archive")
+        void shouldFallBackToArchive() {
+            // Given
+            TicketDto first = new TicketDto(1L, "First", null, StatusTicket.PENDING);
+            TicketDto archived = new TicketDto(2L, "Second", null, StatusTicket.DONE);
+            when(ticketRepository.findAllDtoByIdIn(List.of(3L, 2L, 1L))).thenReturn(List.of(first));
+            when(archivedTicketRepository.findAllDtoByIdIn(List.of(3L, 2L))).thenReturn(List.of(archived));
+
+            // When
+            TicketLookup result = ticketService.findTicketsByIds(List.of(3L, 2L, 1L));
+
+            // Then
+            assertThat(result.items()).containsExactly(archived, first);
+            assertThat(result.missingIds()).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should query the ids in chunks")
+        void shouldQueryInChunks() {
+            // Given
+            List<Long> ids = LongStream.rangeClosed(1, 450).boxed().toList();
+            when(ticketRepository.findAllDtoByIdIn(any())).thenReturn(List.of());
+            when(archivedTicketRepository.findAllDtoByIdIn(any())).thenReturn(List.of());
+
+            // When
+            TicketLookup result = ticketService.findTicketsByIds(ids);
+
+            // Then
+            verify(ticketRepository).findAllDtoByIdIn(ids.subList(0, 200));
+            verify(ticketRepository).findAllDtoByIdIn(ids.subList(200, 400));
+            verify(ticketRepository).findAllDtoByIdIn(ids.subList(400, 450));
+            verify(archivedTicketRepository).findAllDtoByIdIn(ids.subList(400, 450));
+            assertThat(result.items()).isEmpty();
+            assertThat(result.missingIds()).isEqualTo(ids);
+        }
+
+        @Test
+        @DisplayName("Should reject empty, oversized or null id lists")
+        void shouldRejectInvalidIds() {
+            List<Long> tooMany = LongStream.rangeClosed(1, TicketService.MAX_BULK_SIZE + 1).boxed().toList();
+
+            assertThatThrownBy(() -> ticketService.findTicketsByIds(List.of())).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findTicketsByIds(null)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.findTicketsByIds(tooMany)).isInstanceOf(InvalidRequestException.class);
+            verifyNoInteractions(ticketRepository);
+        }
+    }
+
     @Nested
     @DisplayName("Modify Ticket Tests")
     class ModifyTicketTests {
@@ -153,23 +707,23 @@ class TicketServiceTest {
         void shouldUpdateTicketWithAllNewFields() {
             // Given
             Long ticketId = 1L;
-            Ticket existingTicket = new Ticket(ticketId, "Old Title", "Old Description", StatusTicket.PENDING, null);
             TicketDto inputDto = new TicketDto(null, "New Title", "New Description", StatusTicket.DONE);
-            Ticket updatedTicket = new Ticket(ticketId, "New Title", "New Description", StatusTicket.DONE, null);
             TicketDto outputDto = new TicketDto(ticketId, "New Title", "New Description", StatusTicket.DONE);
 
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(existingTicket));
-            when(ticketRepository.save(any(Ticket.class))).thenReturn(updatedTicket);
-            when(ticketMapper.ticketToTicketDto(updatedTicket)).thenReturn(outputDto);
+            when(ticketRepository.lockStateById(ticketId))
+                    .thenReturn(Optional.of(new TicketState(ticketId, "Old Title", "Old Description", StatusTicket.PENDING, 5L)));
+            when(ticketRepository.updateById(eq(ticketId), eq("New Title"), eq("New Description"), eq(StatusTicket.DONE), any(Instant.class))).thenReturn(1);
 
             // When
             TicketDto result = ticketService.modifyTicket(ticketId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
-            assertThat(result.title()).isEqualTo("New Title");
-            assertThat(result.description()).isEqualTo("New Description");
-            assertThat(result.status()).isEqualTo(StatusTicket.DONE);
+            verify(ticketRepository, never()).findById(anyLong());
+            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(searchIndex).index(outputDto);
+            verify(titleIndex).index(outputDto);
+            verify(statistics).changed(5L, StatusTicket.PENDING, 5L, StatusTicket.DONE);
         }
 
         @Test
@@ -177,21 +731,18 @@ class TicketServiceTest {
         void shouldUpdateTicketWithPartialFields() {
             // Given
             Long ticketId = 1L;
-            Ticket existingTicket = new Ticket(ticketId, "Old Title", "Old Description", StatusTicket.PENDING, null);
             TicketDto inputDto = new TicketDto(null, "New Title", null, null);
-            Ticket updatedTicket = new Ticket(ticketId, "New Title", "Old Description", StatusTicket.PENDING, null);
             TicketDto outputDto = new TicketDto(ticketId, "New Title", "Old Description", StatusTicket.PENDING);
 
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(existingTicket));
-            when(ticketRepository.save(any(Ticket.class))).thenReturn(updatedTicket);
-            when(ticketMapper.ticketToTicketDto(updatedTicket)).thenReturn(outputDto);
+            when(ticketRepository.lockStateById(ticketId))
+                    .thenReturn(Optional.of(new TicketState(ticketId, "Old Title", "Old Description", StatusTicket.PENDING, null)));
+            when(ticketRepository.updateById(ticketId, "New Title", null, null, null)).thenReturn(1);
 
             // When
             TicketDto result = ticketService.modifyTicket(ticketId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
-            assertThat(result.title()).isEqualTo("New Title");
             assertThat(result.description()).isEqualTo("Old Description");
             assertThat(result.status()).isEqualTo(StatusTicket.PENDING);
         }
@@ -201,19 +752,19 @@ class TicketServiceTest {
         void shouldNotUpdateTicketWhenNoChangesAreProvided() {
             // Given
             Long ticketId = 1L;
-            Ticket existingTicket = new Ticket(ticketId, "Title", "Description", StatusTicket.PENDING, null);
             TicketDto inputDto = new TicketDto(null, "Title", "Description", StatusTicket.PENDING);
             TicketDto outputDto = new TicketDto(ticketId, "Title", "Description", StatusTicket.PENDING);
 
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(existingTicket));
-            when(ticketRepository.save(any(Ticket.class))).thenReturn(existingTicket);
-            when(ticketMapper.ticketToTicketDto(existingTicket)).thenReturn(outputDto);
+            when(ticketRepository.lockStateById(ticketId))
+                    .thenReturn(Optional.of(new TicketState(ticketId, "Title", "Description", StatusTicket.PENDING, 5L)));
 
             // When
             TicketDto result = ticketService.modifyTicket(ticketId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
+            verify(ticketRepository, never()).updateById(anyLong(), any(), any(), any(), any());
+            verifyNoInteractions(searchIndex, titleIndex, duplicateDetector, statistics);
         }
 
         @Test
@@ -223,12 +774,49 @@ class TicketServiceTest {
             Long ticketId = 999L;
             TicketDto inputDto = new TicketDto(null, "New Title", "New Description", StatusTicket.DONE);
 
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.empty());
+            when(ticketRepository.lockStateById(ticketId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> ticketService.modifyTicket(ticketId, inputDto))
                     .isInstanceOf(TicketNotFoundException.class)
                     .hasMessageContaining("Ticket not found: " + ticketId);
+
+            verify(ticketRepository, never()).updateById(anyLong(), any(), any(), any(), any());
+            verifyNoInteractions(statistics);
+        }
+
+        @Test
+        @DisplayName("Should throw TicketArchivedException when the ticket is archived")
+        void shouldThrowTicketArchivedExceptionWhenTicketIsArchived() {
+            // Given
+            Long ticketId = 1L;
+            when(ticketRepository.lockStateById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.findVersionById(ticketId)).thenReturn(Optional.of(2L));
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.modifyTicket(ticketId, new TicketDto(null, "New Title", null, null)))
+                    .isInstanceOf(TicketArchivedException.class)
+                    .hasMessageContaining("Ticket is archived: " + ticketId);
+
+            verify(ticketRepository, never()).updateById(anyLong(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should record the closing time only when the status changes to a closed one")
+        void shouldRecordClosingTime() {
+            // Given
+            Long ticketId = 1L;
+            when(ticketRepository.lockStateById(ticketId))
+                    .thenReturn(Optional.of(new TicketState(ticketId, "Title", null, StatusTicket.DONE, null)));
+            when(ticketRepository.updateById(eq(ticketId), any(), any(), any(), any())).thenReturn(1);
+
+            // When
+            ticketService.modifyTicket(ticketId, new TicketDto(null, null, null, StatusTicket.CANCEL));
+            ticketService.modifyTicket(ticketId, new TicketDto(null, null, null, StatusTicket.PENDING));
+
+            // Then
+            verify(ticketRepository).updateById(eq(ticketId), isNull(), isNull(), eq(StatusTicket.CANCEL), any(Instant.class));
+            verify(ticketRepository).updateById(ticketId, null, null, StatusTicket.PENDING, null);
         }
     }
 
@@ -241,15 +829,20 @@ class TicketServiceTest {
         void shouldDeleteTicketSuccessfully() {
             // Given
             Long ticketId = 1L;
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(new Ticket()));
-            doNothing().when(ticketRepository).deleteById(ticketId);
+            when(ticketRepository.lockStateById(ticketId))
+                    .thenReturn(Optional.of(new TicketState(ticketId, "Title", null, StatusTicket.DONE, 3L)));
+            when(ticketRepository.softDeleteById(ticketId)).thenReturn(1);
 
             // When
             ticketService.deleteTicket(ticketId);
 
             // Then
-            verify(ticketRepository).findById(ticketId);
-            verify(ticketRepository).deleteById(ticketId);
+            verify(ticketRepository).softDeleteById(ticketId);
+            verify(ticketRepository, never()).findById(anyLong());
+            verify(searchIndex).removeAll(List.of(ticketId));
+            verify(titleIndex).removeAll(List.of(ticketId));
+            verify(duplicateDetector).removeAll(List.of(ticketId));
+            verify(statistics).deleted(3L, StatusTicket.DONE);
         }
 
         @Test
@@ -257,15 +850,32 @@ class TicketServiceTest {
         void shouldThrowTicketNotFoundExceptionWhenTicketDoesNotExist() {
             // Given
             Long ticketId = 999L;
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.empty());
+            when(ticketRepository.lockStateById(ticketId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> ticketService.deleteTicket(ticketId))
                     .isInstanceOf(TicketNotFoundException.class)
                     .hasMessageContaining("Ticket not found: " + ticketId);
 
-            verify(ticketRepository).findById(ticketId);
-            verify(ticketRepository, never()).deleteById(anyLong());
+            verify(ticketRepository, never()).softDeleteById(anyLong());
+            verifyNoInteractions(statistics);
+        }
+
+        @Test
+        @DisplayName("Should delete the ticket from the archive when it is archived")
+        void shouldDeleteArchivedTicket() {
+            // Given
+            Long ticketId = 1L;
+            when(ticketRepository.lockStateById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.deleteDirectlyById(ticketId)).thenReturn(1);
+
+            // When
+            ticketService.deleteTicket(ticketId);
+
+            // Then
+            verify(archivedTicketRepository).deleteDirectlyById(ticketId);
+            verify(ticketRepository, never()).softDeleteById(anyLong());
+            verifyNoInteractions(statistics, searchIndex);
         }
     }
 
@@ -279,14 +889,14 @@ class TicketServiceTest {
             // Given
             Long ticketId = 1L;
             Long userId = 2L;
-            User user = new User(userId, "testuser", "test@example.com", null);
-            Ticket ticket = new Ticket(ticketId, "Test Ticket", "Description", StatusTicket.PENDING, null);
+            UserDto user = new UserDto(userId, "testuser", "test@example.com");
+            User userReference = new User(userId, null, null, null, null, null);
             TicketDto ticketDto = new TicketDto(ticketId, "Test Ticket", "Description", StatusTicket.PENDING);
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(ticket));
-            when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
-            when(ticketMapper.ticketToTicketDto(ticket)).thenReturn(ticketDto);
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(user));
+            when(userRepository.getReferenceById(userId)).thenReturn(userReference);
+            when(ticketRepository.assignIfUnassigned(ticketId, userReference)).thenReturn(1);
+            when(ticketRepository.findDtoById(ticketId)).thenReturn(Optional.of(ticketDto));
 
             // When
             AssignedDto result = ticketService.assignTicket(ticketId, userId);
@@ -298,8 +908,10 @@ class TicketServiceTest {
             assertThat(result.email()).isEqualTo("test@example.com");
             assertThat(result.tickets()).isEqualTo(ticketDto);
 
-            verify(ticketRepository).save(ticket);
-            assertThat(ticket.getUser()).isEqualTo(user);
+            verify(ticketRepository).assignIfUnassigned(ticketId, userReference);
+            verify(ticketRepository, never()).findById(anyLong());
+            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(statistics).changed(null, StatusTicket.PENDING, userId, StatusTicket.PENDING);
         }
 
         @Test
@@ -309,15 +921,14 @@ class TicketServiceTest {
             Long ticketId = 1L;
             Long userId = 999L;
 
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> ticketService.assignTicket(ticketId, userId))
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("User not found: " + userId);
 
-            verify(ticketRepository, never()).findById(anyLong());
-            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(ticketRepository, never()).assignIfUnassigned(anyLong(), any(User.class));
         }
 
         @Test
@@ -326,17 +937,37 @@ class TicketServiceTest {
             // Given
             Long ticketId = 999L;
             Long userId = 1L;
-            User user = new User(userId, "testuser", "test@example.com", null);
+            User userReference = new User(userId, null, null, null, null, null);
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(userRepository.getReferenceById(userId)).thenReturn(userReference);
+            when(ticketRepository.assignIfUnassigned(ticketId, userReference)).thenReturn(0);
+            when(ticketRepository.findVersionById(ticketId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> ticketService.assignTicket(ticketId, userId))
                     .isInstanceOf(TicketNotFoundException.class)
                     .hasMessageContaining("Ticket not found: " + ticketId);
+        }
 
-            verify(ticketRepository, never()).save(any(Ticket.class));
+        @Test
+        @DisplayName("Should throw TicketArchivedException when the ticket is archived")
+        void shouldThrowTicketArchivedExceptionWhenTicketIsArchived() {
+            // Given
+            Long ticketId = 1L;
+            Long userId = 2L;
+            User userReference = new User(userId, null, null, null, null, null);
+
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(userRepository.getReferenceById(userId)).thenReturn(userReference);
+            when(ticketRepository.assignIfUnassigned(ticketId, userReference)).thenReturn(0);
+            when(ticketRepository.findVersionById(ticketId)).thenReturn(Optional.empty());
+            when(archivedTicketRepository.findVersionById(ticketId)).thenReturn(Optional.of(4L));
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.assignTicket(ticketId, userId))
+                    .isInstanceOf(TicketArchivedException.class)
+                    .hasMessageContaining("Ticket is archived: " + ticketId);
         }
 
         @Test
@@ -345,18 +976,177 @@ class TicketServiceTest {
             // Given
             Long ticketId = 1L;
             Long userId = 2L;
-            User existingUser = new User(3L, "existinguser", "existing@example.com", null);
-            Ticket ticket = new Ticket(ticketId, "Test Ticket", "Description", StatusTicket.PENDING, existingUser);
+            User userReference = new User(userId, null, null, null, null, null);
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-            when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(ticket));
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(userRepository.getReferenceById(userId)).thenReturn(userReference);
+            when(ticketRepository.assignIfUnassigned(ticketId, userReference)).thenReturn(0);
+            when(ticketRepository.findVersionById(ticketId)).thenReturn(Optional.of(3L));
 
             // When/Then
             assertThatThrownBy(() -> ticketService.assignTicket(ticketId, userId))
                     .isInstanceOf(ConflictAssignException.class)
                     .hasMessage("Ticket is already assigned to another user");
 
-            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(ticketRepository, never()).findDtoById(anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Ticket Stats Tests")
+    class TicketStatsTests {
+
+        @Test
+        @DisplayName("Should answer from the statistics without touching the repository")
+        void shouldAnswerFromStatistics() {
+            // Given
+            TicketStats stats = new TicketStats(0, Map.of(), Map.of(), List.of(), null);
+            when(statistics.snapshot()).thenReturn(stats);
+
+            // When
+            TicketStats result = ticketService.getTicketStats();
+
+            // Then
+            assertThat(result).isSameAs(stats);
+            verifyNoInteractions(ticketRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Assign Tickets Tests")
+    class AssignTicketsTests {
+
+        @Test
+        @DisplayName("Should report updated, already assigned and missing tickets in request order")
+        @SuppressWarnings("unchecked")
+        void shouldReportOutcomePerTicket() {
+            // Given
+            Long userId = 7L;
+            User userReference = new User(userId, null, null, null, null, null);
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(userRepository.getReferenceById(userId)).thenReturn(userReference);
+            when(ticketRepository.lockUnassignedIdsByIdIn(any(Collection.class))).thenReturn(List.of(3L, 1L));
+            when(ticketRepository.countByUserAndStatusByIdIn(any(Collection.class)))
+                    .thenReturn(List.of(new TicketCount(null, StatusTicket.PENDING, 2)));
+            when(ticketRepository.assignAllById(any(Collection.class), eq(userReference))).thenReturn(2);
+            when(ticketRepository.findIdsByIdIn(List.of(2L, 9L))).thenReturn(List.of(2L));
+
+            // When
+            List<BulkOutcome> result = ticketService.assignTickets(List.of(3L, 2L, 9L, 1L, 3L), userId);
+
+            // Then
+            assertThat(result).containsExactly(
+                    new BulkOutcome(3L, BulkOutcome.Result.UPDATED),
+                    new BulkOutcome(2L, BulkOutcome.Result.ALREADY_ASSIGNED),
+                    new BulkOutcome(9L, BulkOutcome.Result.NOT_FOUND),
+                    new BulkOutcome(1L, BulkOutcome.Result.UPDATED)
+            );
+            verify(ticketRepository).assignAllById(Set.of(1L, 3L), userReference);
+            verify(statistics).changed(
+                    List.of(new TicketCount(null, StatusTicket.PENDING, 2)),
+                    List.of(new TicketCount(userId, StatusTicket.PENDING, 2)));
+        }
+
+        @Test
+        @DisplayName("Should skip the update and the existence check when every ticket is assignable or none is")
+        @SuppressWarnings("unchecked")
+        void shouldSkipUnneededStatements() {
+            // Given
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(new UserDto(1L, "testuser", "test@example.com")));
+            when(ticketRepository.lockUnassignedIdsByIdIn(any(Collection.class))).thenReturn(List.of());
+            when(ticketRepository.findIdsByIdIn(List.of(5L))).thenReturn(List.of());
+
+            // When
+            List<BulkOutcome> result = ticketService.assignTickets(List.of(5L), 1L);
+
+            // Then
+            assertThat(result).containsExactly(new BulkOutcome(5L, BulkOutcome.Result.NOT_FOUND));
+            verify(ticketRepository, never()).assignAllById(any(Collection.class), any(User.class));
+        }
+
+        @Test
+        @DisplayName("Should throw UserNotFoundException when user doesn't exist")
+        void shouldThrowUserNotFoundException() {
+            // Given
+            when(userRepository.findDtoById(99L)).thenReturn(Optional.empty());
+
+            // When/Then
+            assertThatThrownBy(() -> ticketService.assignTickets(List.of(1L), 99L))
+                    .isInstanceOf(UserNotFoundException.class)
+                    .hasMessage("User not found: 99");
+
+            verifyNoInteractions(ticketRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject missing, empty or oversized id lists and a missing user")
+        void shouldRejectInvalidRequests() {
+            List<Long> tooMany = LongStream.rangeClosed(0, TicketService.MAX_BULK_SIZE).boxed().toList();
+
+            assertThatThrownBy(() -> ticketService.assignTickets(null, 1L)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.assignTickets(List.of(), 1L)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.assignTickets(Arrays.asList(1L, null), 1L)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.assignTickets(tooMany, 1L)).isInstanceOf(InvalidRequestException.class);
+            assertThatThrownBy(() -> ticketService.assignTickets(List.of(1L), null)).isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(ticketRepository, userRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Update Tickets Status Tests")
+    class UpdateTicketsStatusTests {
+
+        @Test
+        @DisplayName("Should update existing tickets and report missing ones")
+        @SuppressWarnings("unchecked")
+        void shouldUpdateExistingTickets() {
+            // Given
+            when(ticketRepository.findIdsByIdIn(any(Collection.class))).thenReturn(List.of(1L, 2L));
+            when(ticketRepository.countByUserAndStatusByIdIn(any(Collection.class))).thenReturn(List.of(
+                    new TicketCount(null, StatusTicket.PENDING, 1),
+                    new TicketCount(4L, StatusTicket.CANCEL, 1)));
+            when(ticketRepository.updateStatusAllById(any(Collection.class), eq(StatusTicket.DONE), any(Instant.class))).thenReturn(2);
+
+            // When
+            List<BulkOutcome> result = ticketService.updateTicketsStatus(List.of(2L, 4L, 1L), StatusTicket.DONE);
+
+            // Then
+            assertThat(result).containsExactly(
+                    new BulkOutcome(2L, BulkOutcome.Result.UPDATED),
+                    new BulkOutcome(4L, BulkOutcome.Result.NOT_FOUND),
+                    new BulkOutcome(1L, BulkOutcome.Result.UPDATED)
+            );
+            verify(ticketRepository).updateStatusAllById(eq(Set.of(1L, 2L)), eq(StatusTicket.DONE), any(Instant.class));
+            verify(duplicateDetector).removeAll(Set.of(1L, 2L));
+            verify(statistics).changed(
+                    List.of(new TicketCount(null, StatusTicket.PENDING, 1), new TicketCount(4L, StatusTicket.CANCEL, 1)),
+                    List.of(new TicketCount(null, StatusTicket.DONE, 1), new TicketCount(4L, StatusTicket.DONE, 1)));
+        }
+
+        @Test
+        @DisplayName("Should not run the update when no ticket exists")
+        @SuppressWarnings("unchecked")
+        void shouldNotUpdateWhenNothingExists() {
+            // Given
+            when(ticketRepository.findIdsByIdIn(any(Collection.class))).thenReturn(List.of());
+
+            // When
+            List<BulkOutcome> result = ticketService.updateTicketsStatus(List.of(4L), StatusTicket.CANCEL);
+
+            // Then
+            assertThat(result).containsExactly(new BulkOutcome(4L, BulkOutcome.Result.NOT_FOUND));
+            verify(ticketRepository, never()).updateStatusAllById(any(Collection.class), any(StatusTicket.class), any());
+        }
+
+        @Test
+        @DisplayName("Should reject a missing status")
+        void shouldRejectMissingStatus() {
+            // When/Then
+            assertThatThrownBy(() -> ticketService.updateTicketsStatus(List.of(1L), null))
+                    .isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(ticketRepository);
         }
     }
 }
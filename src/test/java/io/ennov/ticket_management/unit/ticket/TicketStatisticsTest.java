@@ -0,0 +1,122 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.ticket.AssigneeWorkload;
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketCount;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketStatisticsTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketShards shards;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new TicketStatistics(ticketRepository, shards, meterRegistry);
+    }
+
+    private static Map<StatusTicket, Long> counts(long pending, long done, long cancel) {
+        return Map.of(StatusTicket.PENDING, pending, StatusTicket.DONE, done, StatusTicket.CANCEL, cancel);
+    }
+
+    @Test
+    @DisplayName("Should follow creations, assignments, status changes and deletions")
+    void shouldFollowChanges() {
+        // Given
+        statistics.created(List.of(
+                new TicketDto(1L, "One", null, StatusTicket.PENDING),
+                new TicketDto(2L, "Two", null, StatusTicket.PENDING),
+                new TicketDto(3L, "Three", null, StatusTicket.DONE)
+        ));
+
+        // When
+        statistics.changed(null, StatusTicket.PENDING, 7L, StatusTicket.PENDING);
+        statistics.changed(List.of(new TicketCount(null, StatusTicket.PENDING, 1)), List.of(new TicketCount(8L, StatusTicket.PENDING, 1)));
+        statistics.changed(7L, StatusTicket.PENDING, 7L, StatusTicket.CANCEL);
+        statistics.deleted(null, StatusTicket.DONE);
+
+        // Then
+        TicketStats stats = statistics.snapshot();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byStatus()).isEqualTo(counts(1, 0, 1));
+        assertThat(stats.unassigned()).isEqualTo(counts(0, 0, 0));
+        assertThat(stats.byAssignee()).containsExactly(
+                new AssigneeWorkload(7L, 0, 0, 1),
+                new AssigneeWorkload(8L, 1, 0, 0)
+        );
+        assertThat(stats.reconciledAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop a deleted user's tickets or count them as unassigned")
+    void shouldHandleUserDeletion() {
+        // Given
+        statistics.changed(List.of(), List.of(
+                new TicketCount(1L, StatusTicket.PENDING, 2),
+                new TicketCount(2L, StatusTicket.DONE, 3)
+        ));
+
+        // When
+        statistics.userDeleted(1L, true);
+        statistics.userDeleted(2L, false);
+
+        // Then
+        TicketStats stats = statistics.snapshot();
+        assertThat(stats.byStatus()).isEqualTo(counts(0, 3, 0));
+        assertThat(stats.unassigned()).isEqualTo(counts(0, 3, 0));
+        assertThat(stats.byAssignee()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace the counters by the grouped count and measure the drift")
+    void shouldReconcileWithGroupedCount() {
+        // Given
+        when(shards.onEachShard(eq(true), any())).thenAnswer(invocation -> invocation.<Supplier<List<?>>>getArgument(1).get());
+        when(ticketRepository.countByUserAndStatus()).thenReturn(
+                List.of(new TicketCount(null, StatusTicket.PENDING, 4)),
+                List.of(new TicketCount(null, StatusTicket.PENDING, 4), new TicketCount(5L, StatusTicket.DONE, 2))
+        );
+        statistics.reconcile();
+        statistics.created(List.of(new TicketDto(1L, "Missed by the count", null, StatusTicket.PENDING)));
+
+        // When
+        statistics.reconcile();
+
+        // Then
+        TicketStats stats = statistics.snapshot();
+        assertThat(stats.total()).isEqualTo(6);
+        assertThat(stats.unassigned()).isEqualTo(counts(4, 0, 0));
+        assertThat(stats.byAssignee()).containsExactly(new AssigneeWorkload(5L, 0, 2, 0));
+        assertThat(stats.reconciledAt()).isNotNull();
+        // one unassigned pending ticket too many, two done tickets of user 5 missing
+        assertThat(meterRegistry.counter("tickets.stats.drift").count()).isEqualTo(3);
+    }
+}
@@ -30,7 +30,7 @@ public class TicketTest {
             User user = new User();
 
             // When
-            Ticket ticket = new Ticket(id, title, description, status, user);
+            Ticket ticket = new Ticket(id, title, description, status, user, null, null, null);
 
             // Then
             assertThat(ticket).isNotNull()
@@ -0,0 +1,133 @@
+package io.ennov.ticket_management.unit.ticket;
+
+import io.ennov.ticket_management.ticket.StatusTicket;
+import io.ennov.ticket_management.ticket.TicketDto;
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.ticket.TicketTitleTrigramIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketTitleTrigramIndexTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketShards shards;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketTitleTrigramIndex titleIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        titleIndex = new TicketTitleTrigramIndex(ticketRepository, shards, meterRegistry, Duration.ofSeconds(1));
+        titleIndex.indexAll(List.of(
+                new TicketDto(1L, "Printer jammed", null, StatusTicket.PENDING),
+                new TicketDto(2L, "Printer out of toner", null, StatusTicket.PENDING),
+                new TicketDto(3L, "VPN connection drops", null, StatusTicket.DONE)
+        ));
+    }
+
+    private List<Long> ids(TicketTitleTrigramIndex.Result result) {
+        return result.hits().stream().map(TicketTitleTrigramIndex.Hit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should find a title despite typos, most similar first")
+    void shouldTolerateTypos() {
+        TicketTitleTrigramIndex.Result result = titleIndex.findSimilar("pritner jamed", 10, 0.2);
+
+        assertThat(result.complete()).isTrue();
+        assertThat(ids(result)).first().isEqualTo(1L);
+        assertThat(result.hits().get(0).similarity()).isBetween(0.2, 1.0);
+        assertThat(titleIndex.findSimilar("Printer Jammed!", 1, 0.3).hits())
+                .containsExactly(new TicketTitleTrigramIndex.Hit(1L, 1.0));
+    }
+
+    @Test
+    @DisplayName("Should leave out titles below the minimum similarity")
+    void shouldApplyMinimumSimilarity() {
+        assertThat(ids(titleIndex.findSimilar("printer", 10, 0.1))).containsExactly(1L, 2L);
+        assertThat(titleIndex.findSimilar("printer", 10, 0.9).hits()).isEmpty();
+        assertThat(titleIndex.findSimilar("keyboard", 10, 0.3).hits()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace a re-indexed title and forget removed ones")
+    void shouldReindexAndRemove() {
+        titleIndex.index(new TicketDto(1L, "Screen flickers", null, StatusTicket.PENDING));
+        titleIndex.removeAll(List.of(3L));
+
+        assertThat(ids(titleIndex.findSimilar("printer", 10, 0.1))).containsExactly(2L);
+        assertThat(ids(titleIndex.findSimilar("screen flicker", 10, 0.3))).containsExactly(1L);
+        assertThat(titleIndex.findSimilar("vpn connection", 10, 0.1).hits()).isEmpty();
+        assertThat(titleIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should answer incomplete once out of budget")
+    void shouldStopAtBudget() {
+        TicketTitleTrigramIndex budgetless = new TicketTitleTrigramIndex(ticketRepository, shards, meterRegistry, Duration.ZERO);
+        budgetless.index(new TicketDto(1L, "Printer jammed", null, StatusTicket.PENDING));
+
+        TicketTitleTrigramIndex.Result result = budgetless.findSimilar("printer jammed", 10, 0.3);
+
+        assertThat(result.complete()).isFalse();
+        assertThat(meterRegistry.get("tickets.similar.titles.truncated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the Tickets table")
+    void shouldRebuild() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(shards).forEachShard(any());
+        when(ticketRepository.streamAllDto()).thenReturn(Stream.of(
+                new TicketDto(7L, "Keyboard broken", null, StatusTicket.PENDING)));
+
+        titleIndex.rebuild();
+
+        assertThat(titleIndex.size()).isEqualTo(1);
+        assertThat(ids(titleIndex.findSimilar("keybord", 10, 0.3))).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("Should score only the titles of the rarest trigrams of a misspelled title among many")
+    void shouldScoreRareTrigramCandidatesOnly() {
+        // Given
+        String[] words = {"printer", "toner", "vpn", "laptop", "screen", "keyboard", "mouse", "badge", "wifi",
+                "email", "password", "reset", "broken", "slow", "access", "install", "update", "license"};
+        titleIndex.indexAll(LongStream.range(100, 2_100)
+                .mapToObj(id -> new TicketDto(id, words[(int) id % words.length] + " "
+                        + words[(int) (id / words.length) % words.length] + " " + id, null, StatusTicket.PENDING))
+                .toList());
+        titleIndex.index(new TicketDto(50L, "Quarterly procurement spreadsheet", null, StatusTicket.PENDING));
+
+        // When
+        TicketTitleTrigramIndex.Result result = titleIndex.findSimilar("quartely procurment spredsheet", 10, 0.3);
+
+        // Then
+        assertThat(result.complete()).isTrue();
+        assertThat(ids(result)).containsExactly(50L);
+        assertThat(meterRegistry.get("tickets.similar.titles.candidates").summary().max()).isEqualTo(1);
+    }
+}
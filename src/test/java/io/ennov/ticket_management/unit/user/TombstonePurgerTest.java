@@ -0,0 +1,128 @@
+package io.ennov.ticket_management.unit.user;
+
+import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketShards;
+import io.ennov.ticket_management.user.TombstonePurger;
+import io.ennov.ticket_management.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TombstonePurgerTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TicketShards ticketShards;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(ticketShards.onEachShard(anyBoolean(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Supplier<Collection<?>>>getArgument(1).get()));
+    }
+
+    private TombstonePurger purger(int batchSize, int rate) {
+        return new TombstonePurger(ticketRepository, userRepository, ticketShards, transactionTemplate,
+                meterRegistry, batchSize, rate);
+    }
+
+    @Test
+    @DisplayName("Should purge the ticket tombstones, then the user ones, batch after batch")
+    void shouldPurgeInBatches() {
+        // Given
+        when(ticketRepository.findTombstoneIds(any(Instant.class), eq(2))).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(ticketRepository.purgeAllByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(ticketRepository.purgeAllByIdIn(List.of(3L))).thenReturn(1);
+        when(userRepository.findTombstoneIds(any(Instant.class), eq(2))).thenReturn(List.of(7L), List.of());
+        when(userRepository.purgeAllByIdIn(List.of(7L))).thenReturn(1);
+
+        // When
+        int purged = purger(2, 1_000_000).purge();
+
+        // Then
+        assertThat(purged).isEqualTo(4);
+        InOrder order = inOrder(ticketRepository, userRepository);
+        order.verify(ticketRepository).purgeAllByIdIn(List.of(3L));
+        order.verify(userRepository).purgeAllByIdIn(List.of(7L));
+        verify(ticketShards, times(3)).onEachShard(eq(false), any());
+        assertThat(meterRegistry.counter("tickets.purged").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("users.purged").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should space the batches to stay under the rate")
+    void shouldRespectRate() {
+        // Given
+        when(ticketRepository.findTombstoneIds(any(Instant.class), eq(10))).thenReturn(List.of(1L), List.of(2L), List.of(3L), List.of());
+        when(ticketRepository.purgeAllByIdIn(any())).thenReturn(1);
+        when(userRepository.findTombstoneIds(any(Instant.class), eq(10))).thenReturn(List.of());
+        long start = System.nanoTime();
+
+        // When
+        int purged = purger(10, 20).purge();
+
+        // Then
+        assertThat(purged).isEqualTo(3);
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Should purge nothing when there is no tombstone")
+    void shouldPurgeNothing() {
+        // Given
+        when(ticketRepository.findTombstoneIds(any(Instant.class), eq(100))).thenReturn(List.of());
+        when(userRepository.findTombstoneIds(any(Instant.class), eq(100))).thenReturn(List.of());
+
+        // When
+        int purged = purger(100, 500).purge();
+
+        // Then
+        assertThat(purged).isZero();
+        verify(ticketRepository, never()).purgeAllByIdIn(any());
+        verify(userRepository, never()).purgeAllByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a batch size or a rate that is not positive")
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> purger(0, 500))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tombstones.purge.batch-size");
+        assertThatThrownBy(() -> purger(100, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tombstones.purge.rate");
+    }
+}
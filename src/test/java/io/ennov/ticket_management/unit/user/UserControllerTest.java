@@ -1,24 +1,29 @@
 package io.ennov.ticket_management.unit.user;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
 import io.ennov.ticket_management.user.UserController;
 import io.ennov.ticket_management.ticket.StatusTicket;
 import io.ennov.ticket_management.ticket.TicketDto;
 import io.ennov.ticket_management.user.UserDto;
 import io.ennov.ticket_management.user.UserNotFoundException;
 import io.ennov.ticket_management.user.UserService;
+import io.ennov.ticket_management.user.UserSummaryDto;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -95,6 +100,37 @@ class UserControllerTest {
     @DisplayName("Get User Tickets Tests")
     class GetUserTicketsTests {
 
+        @Test
+        @DisplayName("Should return 304 Not Modified without reading the tickets when the ETag matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Given
+            when(userService.findTicketListVersion(1L)).thenReturn(Optional.of("abc123"));
+
+            // When & Then
+            mockMvc.perform(get("/users/{userId}/ticket", 1L)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""));
+
+            verify(userService, never()).findTicketByUser(any());
+        }
+
+        @Test
+        @DisplayName("Should return the tickets with their ETag when the list changed")
+        void shouldReturnTicketsWithETag() throws Exception {
+            // Given
+            when(userService.findTicketListVersion(1L)).thenReturn(Optional.of("def456"));
+            when(userService.findTicketByUser(1L))
+                    .thenReturn(List.of(new TicketDto(1L, "Ticket 1", "Description 1", StatusTicket.PENDING)));
+
+            // When & Then
+            mockMvc.perform(get("/users/{userId}/ticket", 1L)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"def456\""))
+                    .andExpect(jsonPath("$.length()").value(1));
+        }
+
         @Test
         @DisplayName("Should return list of tickets for existing user")
         void shouldReturnListOfTicketsForExistingUser() throws Exception {
@@ -149,6 +185,50 @@ class UserControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get User Summaries Tests")
+    class GetUserSummariesTests {
+
+        @Test
+        @DisplayName("Should return a page of users with their ticket counts")
+        void shouldReturnUserSummaries() throws Exception {
+            // Given
+            CursorPage<UserSummaryDto> page = new CursorPage<>(
+                    List.of(new UserSummaryDto(1L, "user1", "user1@example.com", 3, 1, 2)),
+                    "Mg"
+            );
+            when(userService.findUserSummaries("MQ", 1)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/users/summary")
+                            .param("after", "MQ")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(1))
+                    .andExpect(jsonPath("$.items[0].username").value("user1"))
+                    .andExpect(jsonPath("$.items[0].pending").value(3))
+                    .andExpect(jsonPath("$.items[0].done").value(1))
+                    .andExpect(jsonPath("$.items[0].cancel").value(2))
+                    .andExpect(jsonPath("$.nextCursor").value("Mg"));
+        }
+
+        @Test
+        @DisplayName("Should use the default limit and return 400 for an invalid one")
+        void shouldValidateLimit() throws Exception {
+            // Given
+            when(userService.findUserSummaries(null, 50)).thenReturn(new CursorPage<>(List.of(), null));
+            when(userService.findUserSummaries(null, 0))
+                    .thenThrow(new InvalidRequestException("Limit must be between 1 and 500: 0"));
+
+            // When & Then
+            mockMvc.perform(get("/users/summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items").isEmpty());
+            mockMvc.perform(get("/users/summary").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("Update User Tests")
     class UpdateUserTests {
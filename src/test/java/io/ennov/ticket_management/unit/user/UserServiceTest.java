@@ -1,18 +1,24 @@
 package io.ennov.ticket_management.unit.user;
 
+import io.ennov.ticket_management.shared.CursorPage;
+import io.ennov.ticket_management.shared.InvalidRequestException;
 import io.ennov.ticket_management.ticket.StatusTicket;
-import io.ennov.ticket_management.ticket.Ticket;
 import io.ennov.ticket_management.user.User;
-import io.ennov.ticket_management.ticket.TicketMapper;
 import io.ennov.ticket_management.user.UserMapper;
+import io.ennov.ticket_management.ticket.ArchivedTicketRepository;
 import io.ennov.ticket_management.ticket.TicketDto;
 import io.ennov.ticket_management.user.UserDto;
-import io.ennov.ticket_management.user.EmailAlreadyExistsException;
 import io.ennov.ticket_management.user.UserNotFoundException;
-import io.ennov.ticket_management.user.UsernameAlreadyExistsException;
 import io.ennov.ticket_management.ticket.TicketRepository;
+import io.ennov.ticket_management.ticket.TicketStatistics;
+import io.ennov.ticket_management.ticket.TicketShards;
 import io.ennov.ticket_management.user.UserRepository;
 import io.ennov.ticket_management.user.UserService;
+import io.ennov.ticket_management.user.UserSummaryDto;
+import io.ennov.ticket_management.user.UserUniquenessFilter;
+import io.ennov.ticket_management.user.TicketsOnDelete;
+import io.ennov.ticket_management.user.EmailAlreadyExistsException;
+import io.ennov.ticket_management.user.UsernameAlreadyExistsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,10 +27,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -40,15 +50,33 @@ class UserServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private ArchivedTicketRepository archivedTicketRepository;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
-    private TicketMapper ticketMapper;
+    private UserUniquenessFilter uniquenessFilter;
+
+    @Mock
+    private TicketStatistics ticketStatistics;
+
+    @Mock
+    private TicketShards ticketShards;
 
     @InjectMocks
     private UserService userService;
 
+    /**
+     * Unsharded, every ticket lives with the users.
+     */
+    @BeforeEach
+    void runShardsInPlace() {
+        lenient().when(ticketShards.onShardOfUser(any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+    }
+
     @Nested
     @DisplayName("Create User Tests")
     class CreateUserTests {
@@ -73,51 +101,76 @@ class UserServiceTest {
         @Test
         @DisplayName("Should create a new user when input is valid")
         void shouldCreateNewUserWhenInputIsValid() {
-            when(userRepository.existsByUsername(inputDto.username())).thenReturn(false);
-            when(userRepository.existsByEmail(inputDto.email())).thenReturn(false);
             when(userMapper.userDtoToUser(inputDto)).thenReturn(user);
-            when(userRepository.save(user)).thenReturn(savedUser);
+            when(userRepository.saveAndFlush(user)).thenReturn(savedUser);
             when(userMapper.userToUserDto(savedUser)).thenReturn(outputDto);
 
             UserDto result = userService.createUser(inputDto);
 
             assertThat(result).isEqualTo(outputDto);
-            verify(userRepository).existsByUsername(inputDto.username());
-            verify(userRepository).existsByEmail(inputDto.email());
             verify(userMapper).userDtoToUser(inputDto);
-            verify(userRepository).save(user);
+            verify(userRepository).saveAndFlush(user);
             verify(userMapper).userToUserDto(savedUser);
+            verify(uniquenessFilter).register("testuser", "test@example.com");
+            verify(userRepository, never()).existsByUsername(any());
+            verify(userRepository, never()).existsByEmail(any());
         }
 
         @Test
-        @DisplayName("Should throw UsernameAlreadyExistsException when username exists")
+        @DisplayName("Should throw UsernameAlreadyExistsException when the filter and the database know the username")
         void shouldThrowUsernameAlreadyExistsExceptionWhenUsernameExists() {
+            when(uniquenessFilter.mightContainUsername(inputDto.username())).thenReturn(true);
             when(userRepository.existsByUsername(inputDto.username())).thenReturn(true);
 
             assertThatThrownBy(() -> userService.createUser(inputDto))
                     .isInstanceOf(UsernameAlreadyExistsException.class)
                     .hasMessageContaining("Username already exists: " + inputDto.username());
 
-            verify(userRepository).existsByUsername(inputDto.username());
             verify(userRepository, never()).existsByEmail(any());
-            verify(userMapper, never()).userDtoToUser(any());
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).saveAndFlush(any());
         }
 
         @Test
-        @DisplayName("Should throw EmailAlreadyExistsException when email exists")
+        @DisplayName("Should throw EmailAlreadyExistsException when the filter and the database know the email")
         void shouldThrowEmailAlreadyExistsExceptionWhenEmailExists() {
-            when(userRepository.existsByUsername(inputDto.username())).thenReturn(false);
+            when(uniquenessFilter.mightContainEmail(inputDto.email())).thenReturn(true);
             when(userRepository.existsByEmail(inputDto.email())).thenReturn(true);
 
             assertThatThrownBy(() -> userService.createUser(inputDto))
                     .isInstanceOf(EmailAlreadyExistsException.class)
                     .hasMessageContaining("Email already exists: " + inputDto.email());
 
-            verify(userRepository).existsByUsername(inputDto.username());
-            verify(userRepository).existsByEmail(inputDto.email());
-            verify(userMapper, never()).userDtoToUser(any());
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).existsByUsername(any());
+            verify(userRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Should count a false positive and create the user when the database does not know the username")
+        void shouldCountFalsePositive() {
+            when(uniquenessFilter.mightContainUsername(inputDto.username())).thenReturn(true);
+            when(userRepository.existsByUsername(inputDto.username())).thenReturn(false);
+            when(userMapper.userDtoToUser(inputDto)).thenReturn(user);
+            when(userRepository.saveAndFlush(user)).thenReturn(savedUser);
+            when(userMapper.userToUserDto(savedUser)).thenReturn(outputDto);
+
+            UserDto result = userService.createUser(inputDto);
+
+            assertThat(result).isEqualTo(outputDto);
+            verify(uniquenessFilter).usernameFalsePositive();
+            verify(uniquenessFilter, never()).emailFalsePositive();
+        }
+
+        @Test
+        @DisplayName("Should let the unique constraint violation propagate when username or email exists")
+        void shouldPropagateConstraintViolation() {
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("uk_users_username");
+            when(userMapper.userDtoToUser(inputDto)).thenReturn(user);
+            when(userRepository.saveAndFlush(user)).thenThrow(violation);
+
+            assertThatThrownBy(() -> userService.createUser(inputDto))
+                    .isSameAs(violation);
+
+            verify(userMapper, never()).userToUserDto(any());
         }
     }
 
@@ -125,22 +178,11 @@ class UserServiceTest {
     @DisplayName("Find Tickets By User Tests")
     class FindTicketsByUserTests {
         private Long userId;
-        private User user;
-        private List<Ticket> ticket;
         private List<TicketDto> ticketDto;
 
         @BeforeEach
         void setUp() {
             userId = 1L;
-            user = new User();
-            user.setId(userId);
-            user.setUsername("testuser");
-            user.setEmail("test@example.com");
-
-            ticket = List.of(
-                    new Ticket(1L, "Ticket 1", "Description 1", StatusTicket.PENDING, user),
-                    new Ticket(2L, "Ticket 2", "Description 2", StatusTicket.DONE, user)
-            );
 
             ticketDto = List.of(
                     new TicketDto(1L, "Ticket 1", "Description 1", StatusTicket.PENDING),
@@ -151,44 +193,78 @@ class UserServiceTest {
         @Test
         @DisplayName("Should return list of tickets when user exists")
         void shouldReturnListOfTicketsWhenUserExists() {
-            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(ticketRepository.findAllByUserId(userId)).thenReturn(ticket);
-            when(ticketMapper.ticketToTicketDto(any(Ticket.class))).thenReturn(ticketDto.get(0), ticketDto.get(1));
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(ticketRepository.findAllDtoByUserId(userId)).thenReturn(ticketDto);
 
             List<TicketDto> result = userService.findTicketByUser(userId);
 
             assertThat(result).hasSize(2).isEqualTo(ticketDto);
-            verify(userRepository).findById(userId);
-            verify(ticketRepository).findAllByUserId(userId);
-            verify(ticketMapper, times(2)).ticketToTicketDto(any(Ticket.class));
+            verify(userRepository).findDtoById(userId);
+            verify(userRepository, never()).findById(any());
+            verify(ticketRepository).findAllDtoByUserId(userId);
         }
 
         @Test
         @DisplayName("Should return empty list when user has no tickets")
         void shouldReturnEmptyListWhenUserHasNoTickets() {
-            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(ticketRepository.findAllByUserId(userId)).thenReturn(List.of());
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.of(new UserDto(userId, "testuser", "test@example.com")));
+            when(ticketRepository.findAllDtoByUserId(userId)).thenReturn(List.of());
 
             List<TicketDto> result = userService.findTicketByUser(userId);
 
             assertThat(result).isEmpty();
-            verify(userRepository).findById(userId);
-            verify(ticketRepository).findAllByUserId(userId);
-            verify(ticketMapper, never()).ticketToTicketDto(any(Ticket.class));
+            verify(userRepository).findDtoById(userId);
+            verify(ticketRepository).findAllDtoByUserId(userId);
         }
 
         @Test
         @DisplayName("Should throw UserNotFoundException when user does not exist")
         void shouldThrowUserNotFoundExceptionWhenUserDoesNotExist() {
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(userId)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> userService.findTicketByUser(userId))
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("User not found: " + userId);
 
-            verify(userRepository).findById(userId);
-            verify(ticketRepository, never()).findAllByUserId(any());
-            verify(ticketMapper, never()).ticketToTicketDto(any());
+            verify(userRepository).findDtoById(userId);
+            verify(ticketRepository, never()).findAllDtoByUserId(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Find Ticket List Version Tests")
+    class FindTicketListVersionTests {
+
+        @Test
+        @DisplayName("Should digest ticket versions and change when one of them changes")
+        void shouldDigestTicketVersions() {
+            // Given
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(new UserDto(1L, "testuser", "test@example.com")));
+            when(ticketRepository.findVersionsByUserId(1L))
+                    .thenReturn(List.of("1:0", "2:0"))
+                    .thenReturn(List.of("1:0", "2:1"))
+                    .thenReturn(List.of("1:0", "2:0"));
+
+            // When
+            Optional<String> first = userService.findTicketListVersion(1L);
+            Optional<String> changed = userService.findTicketListVersion(1L);
+            Optional<String> same = userService.findTicketListVersion(1L);
+
+            // Then
+            assertThat(first).isPresent();
+            assertThat(changed).isPresent().isNotEqualTo(first);
+            assertThat(same).isEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("Should be empty when user doesn't exist")
+        void shouldBeEmptyWhenUserDoesNotExist() {
+            // Given
+            when(userRepository.findDtoById(99L)).thenReturn(Optional.empty());
+
+            // When/Then
+            assertThat(userService.findTicketListVersion(99L)).isEmpty();
+            verifyNoInteractions(ticketRepository);
         }
     }
 
@@ -201,8 +277,8 @@ class UserServiceTest {
         void shouldReturnListOfAllUsers() {
             // Given
             List<User> users = List.of(
-                    new User(1L, "user1", "user1@example.com", new ArrayList<>()),
-                    new User(2L, "user2", "user2@example.com", new ArrayList<>())
+                    new User(1L, "user1", "user1@example.com", new ArrayList<>(), null, null),
+                    new User(2L, "user2", "user2@example.com", new ArrayList<>(), null, null)
             );
             List<UserDto> userDtos = List.of(
                     new UserDto(1L, "user1", "user1@example.com"),
@@ -239,6 +315,55 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Find User Summaries Tests")
+    class FindUserSummariesTests {
+
+        @Test
+        @DisplayName("Should return a page of summaries with a cursor when more users exist")
+        void shouldReturnPageWithCursor() {
+            // Given
+            List<UserSummaryDto> rows = List.of(
+                    new UserSummaryDto(1L, "user1", "user1@example.com", 2, 1, 0),
+                    new UserSummaryDto(2L, "user2", "user2@example.com", 0, 0, 0),
+                    new UserSummaryDto(3L, "user3", "user3@example.com", 1, 0, 4)
+            );
+            when(userRepository.findSummaryPage(0L, Limit.of(3))).thenReturn(rows);
+
+            // When
+            CursorPage<UserSummaryDto> result = userService.findUserSummaries(null, 2);
+
+            // Then
+            assertThat(result.items()).containsExactlyElementsOf(rows.subList(0, 2));
+            assertThat(result.nextCursor()).isEqualTo(CursorPage.encodeCursor(2L));
+        }
+
+        @Test
+        @DisplayName("Should resume after the cursor and end without a cursor")
+        void shouldResumeAfterCursor() {
+            // Given
+            List<UserSummaryDto> rows = List.of(new UserSummaryDto(3L, "user3", "user3@example.com", 1, 0, 4));
+            when(userRepository.findSummaryPage(2L, Limit.of(3))).thenReturn(rows);
+
+            // When
+            CursorPage<UserSummaryDto> result = userService.findUserSummaries(CursorPage.encodeCursor(2L), 2);
+
+            // Then
+            assertThat(result.items()).containsExactlyElementsOf(rows);
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject an out of range limit")
+        void shouldRejectInvalidLimit() {
+            // When/Then
+            assertThatThrownBy(() -> userService.findUserSummaries(null, 0))
+                    .isInstanceOf(InvalidRequestException.class);
+
+            verifyNoInteractions(userRepository);
+        }
+    }
+
     @Nested
     @DisplayName("Modify User Tests")
     class ModifyUserTests {
@@ -248,23 +373,21 @@ class UserServiceTest {
         void shouldUpdateUserWithNewUsernameAndEmail() {
             // Given
             Long userId = 1L;
-            User existingUser = new User(userId, "olduser", "old@example.com", null);
             UserDto inputDto = new UserDto(null, "newuser", "new@example.com");
-            User updatedUser = new User(userId, "newuser", "new@example.com", null);
             UserDto outputDto = new UserDto(userId, "newuser", "new@example.com");
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-            when(userRepository.save(any(User.class))).thenReturn(updatedUser);
-            when(userMapper.userToUserDto(any(User.class))).thenReturn(outputDto);
+            when(userRepository.updateById(userId, "newuser", "new@example.com")).thenReturn(1);
+            when(userRepository.findCurrentDtoById(userId)).thenReturn(Optional.of(outputDto));
 
             // When
             UserDto result = userService.modifyUser(userId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
-            verify(userRepository).findById(userId);
-            verify(userRepository).save(any(User.class));
-            verify(userMapper).userToUserDto(any(User.class));
+            verify(userRepository, never()).findById(any());
+            verify(userRepository, never()).save(any(User.class));
+            verify(uniquenessFilter).register("newuser", "new@example.com");
+            verify(uniquenessFilter).markStale(2);
         }
 
         @Test
@@ -272,14 +395,11 @@ class UserServiceTest {
         void shouldUpdateUserWithOnlyNewUsername() {
             // Given
             Long userId = 1L;
-            User existingUser = new User(userId, "olduser", "old@example.com", null);
             UserDto inputDto = new UserDto(null, "newuser", null);
-            User updatedUser = new User(userId, "newuser", "old@example.com", null);
             UserDto outputDto = new UserDto(userId, "newuser", "old@example.com");
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-            when(userRepository.save(any(User.class))).thenReturn(updatedUser);
-            when(userMapper.userToUserDto(any(User.class))).thenReturn(outputDto);
+            when(userRepository.updateById(userId, "newuser", null)).thenReturn(1);
+            when(userRepository.findCurrentDtoById(userId)).thenReturn(Optional.of(outputDto));
 
             // When
             UserDto result = userService.modifyUser(userId, inputDto);
@@ -287,55 +407,60 @@ class UserServiceTest {
             // Then
             assertThat(result).isEqualTo(outputDto);
             assertThat(result.email()).isEqualTo("old@example.com");
-            verify(userRepository).findById(userId);
-            verify(userRepository).save(any(User.class));
-            verify(userMapper).userToUserDto(any(User.class));
         }
 
         @Test
-        @DisplayName("Should update user with only new email")
-        void shouldUpdateUserWithOnlyNewEmail() {
+        @DisplayName("Should not update user when no changes are provided")
+        void shouldNotUpdateUserWhenNoChangesAreProvided() {
             // Given
             Long userId = 1L;
-            User existingUser = new User(userId, "olduser", "old@example.com", null);
-            UserDto inputDto = new UserDto(null, null, "new@example.com");
-            User updatedUser = new User(userId, "olduser", "new@example.com", null);
-            UserDto outputDto = new UserDto(userId, "olduser", "new@example.com");
+            UserDto inputDto = new UserDto(userId, "olduser", "old@example.com");
+            UserDto outputDto = new UserDto(userId, "olduser", "old@example.com");
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-            when(userRepository.save(any(User.class))).thenReturn(updatedUser);
-            when(userMapper.userToUserDto(any(User.class))).thenReturn(outputDto);
+            when(userRepository.updateById(userId, "olduser", "old@example.com")).thenReturn(0);
+            when(userRepository.findCurrentDtoById(userId)).thenReturn(Optional.of(outputDto));
 
             // When
             UserDto result = userService.modifyUser(userId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
-            assertThat(result.username()).isEqualTo("olduser");
-            verify(userRepository).findById(userId);
-            verify(userRepository).save(any(User.class));
-            verify(userMapper).userToUserDto(any(User.class));
+            verifyNoInteractions(uniquenessFilter);
         }
 
         @Test
-        @DisplayName("Should not update user when no changes are provided")
-        void shouldNotUpdateUserWhenNoChangesAreProvided() {
+        @DisplayName("Should update user with only new email")
+        void shouldUpdateUserWithOnlyNewEmail() {
             // Given
             Long userId = 1L;
-            User existingUser = new User(userId, "olduser", "old@example.com", null);
-            UserDto inputDto = new UserDto(userId, "olduser", "old@example.com");
-            UserDto outputDto = new UserDto(userId, "olduser", "old@example.com");
+            UserDto inputDto = new UserDto(null, null, "new@example.com");
+            UserDto outputDto = new UserDto(userId, "olduser", "new@example.com");
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-            when(userMapper.userToUserDto(any(User.class))).thenReturn(outputDto);
+            when(userRepository.updateById(userId, null, "new@example.com")).thenReturn(1);
+            when(userRepository.findCurrentDtoById(userId)).thenReturn(Optional.of(outputDto));
 
             // When
             UserDto result = userService.modifyUser(userId, inputDto);
 
             // Then
             assertThat(result).isEqualTo(outputDto);
-            verify(userRepository).findById(userId);
-            verify(userMapper).userToUserDto(any(User.class));
+            assertThat(result.username()).isEqualTo("olduser");
+        }
+
+        @Test
+        @DisplayName("Should let the unique constraint violation propagate when another user has the username")
+        void shouldPropagateConstraintViolation() {
+            // Given
+            Long userId = 1L;
+            UserDto inputDto = new UserDto(null, "taken", null);
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("uk_users_username");
+            when(userRepository.updateById(userId, "taken", null)).thenThrow(violation);
+
+            // When/Then
+            assertThatThrownBy(() -> userService.modifyUser(userId, inputDto))
+                    .isSameAs(violation);
+
+            verify(userRepository, never()).findCurrentDtoById(any());
         }
 
         @Test
@@ -345,16 +470,15 @@ class UserServiceTest {
             Long userId = 999L;
             UserDto inputDto = new UserDto(null, "newuser", "new@example.com");
 
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.updateById(userId, "newuser", "new@example.com")).thenReturn(0);
+            when(userRepository.findCurrentDtoById(userId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> userService.modifyUser(userId, inputDto))
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("User not found: " + userId);
 
-            verify(userRepository).findById(userId);
-            verify(userRepository, never()).save(any(User.class));
-            verify(userMapper, never()).userToUserDto(any(User.class));
+            verifyNoInteractions(uniquenessFilter);
         }
     }
 
@@ -363,19 +487,43 @@ class UserServiceTest {
     class DeleteUserTests {
 
         @Test
-        @DisplayName("Should delete user successfully")
+        @DisplayName("Should delete user and its tickets successfully")
         void shouldDeleteUserSuccessfully() {
             // Given
             Long userId = 1L;
-            when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-            doNothing().when(userRepository).deleteById(userId);
+            when(userRepository.softDeleteById(userId)).thenReturn(1);
+
+            // When
+            userService.deleteUser(userId);
+
+            // Then
+            verify(ticketRepository).softDeleteAllByUserId(userId);
+            verify(archivedTicketRepository).deleteAllByUserId(userId);
+            verify(userRepository).softDeleteById(userId);
+            verify(uniquenessFilter).markStale(2);
+            verify(userRepository, never()).findById(any());
+            verify(ticketShards, never()).unassignAllByUserId(any());
+            verify(ticketStatistics).userDeleted(userId, true);
+        }
+
+        @Test
+        @DisplayName("Should unassign the user's tickets instead of deleting them when configured so")
+        void shouldUnassignTicketsWhenConfigured() {
+            // Given
+            Long userId = 1L;
+            ReflectionTestUtils.setField(userService, "ticketsOnDelete", TicketsOnDelete.UNASSIGN);
+            when(userRepository.softDeleteById(userId)).thenReturn(1);
 
             // When
             userService.deleteUser(userId);
 
             // Then
-            verify(userRepository).findById(userId);
-            verify(userRepository).deleteById(userId);
+            verify(ticketShards).unassignAllByUserId(userId);
+            verify(archivedTicketRepository).unassignAllByUserId(userId);
+            verify(ticketRepository, never()).softDeleteAllByUserId(any());
+            verify(archivedTicketRepository, never()).deleteAllByUserId(any());
+            verify(userRepository).softDeleteById(userId);
+            verify(ticketStatistics).userDeleted(userId, false);
         }
 
         @Test
@@ -383,15 +531,14 @@ class UserServiceTest {
         void shouldThrowUserNotFoundExceptionWhenUserDoesNotExist() {
             // Given
             Long userId = 999L;
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.softDeleteById(userId)).thenReturn(0);
 
             // When/Then
             assertThatThrownBy(() -> userService.deleteUser(userId))
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("User not found: " + userId);
 
-            verify(userRepository).findById(userId);
-            verify(userRepository, never()).deleteById(anyLong());
+            verifyNoInteractions(ticketStatistics);
         }
     }
 }
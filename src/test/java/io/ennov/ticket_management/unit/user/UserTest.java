@@ -31,7 +31,7 @@ public class UserTest {
             List<Ticket> tickets = new ArrayList<>();
 
             // When
-            User user = new User(id, username, email, tickets);
+            User user = new User(id, username, email, tickets, null, null);
 
             // Then
             assertThat(user).isNotNull()